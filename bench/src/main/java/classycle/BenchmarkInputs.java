@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import classycle.classfile.Constant;
+import classycle.classfile.UTF8Constant;
+import classycle.graph.AtomicVertex;
+
+/**
+ * Inputs shared by the benchmarks. Realistic inputs are the class files of the module <tt>java.base</tt> of the
+ * running JDK. They are read once per JVM from the <tt>jrt:/</tt> file system and also written into a temporary jar
+ * file. Synthetic graphs are created by {@link GraphGenerator}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public final class BenchmarkInputs {
+
+    private static final String MODULE = "/modules/java.base";
+
+    private static List<byte[]> classFiles;
+    private static File jarFile;
+    private static AtomicVertex[] classGraph;
+
+    private BenchmarkInputs() {
+    }
+
+    /** Returns the contents of the class files of <tt>java.base</tt>. */
+    public static synchronized List<byte[]> getClassFiles() {
+        if (classFiles == null) {
+            try {
+                final FileSystem jrt = FileSystems.getFileSystem(URI.create("jrt:/"));
+                try (Stream<Path> paths = Files.walk(jrt.getPath(MODULE))) {
+                    final List<Path> files = paths.filter(path -> path.toString().endsWith(".class"))
+                            .filter(path -> !path.getFileName().toString().equals("module-info.class")).sorted()
+                            .collect(Collectors.toList());
+                    classFiles = new ArrayList<>();
+                    for (final Path file : files) {
+                        classFiles.add(Files.readAllBytes(file));
+                    }
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return classFiles;
+    }
+
+    /** Returns a temporary jar file containing the class files of <tt>java.base</tt>. */
+    public static synchronized File getJarFile() {
+        if (jarFile == null) {
+            try {
+                final File file = File.createTempFile("classycle-bench", ".jar");
+                file.deleteOnExit();
+                final List<byte[]> classFiles = getClassFiles();
+                try (ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(file))) {
+                    for (int i = 0; i < classFiles.size(); i++) {
+                        stream.putNextEntry(new ZipEntry("C" + i + ".class"));
+                        stream.write(classFiles.get(i));
+                        stream.closeEntry();
+                    }
+                }
+                jarFile = file;
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return jarFile;
+    }
+
+    /** Returns the unresolved nodes of the classes of <tt>java.base</tt>. */
+    static List<UnresolvedNode> getUnresolvedNodes() {
+        final List<UnresolvedNode> nodes = new ArrayList<>();
+        try {
+            Parser.analyseClassFiles(getJarFile(), null, nodes, null);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return nodes;
+    }
+
+    /** Returns all UTF8 constants of the classes of <tt>java.base</tt>. */
+    static List<UTF8Constant> getUTF8Constants() {
+        final List<UTF8Constant> constants = new ArrayList<>();
+        try {
+            for (final byte[] bytes : getClassFiles()) {
+                for (final Constant constant : Constant
+                        .extractConstantPool(new DataInputStream(new ByteArrayInputStream(bytes)))) {
+                    if (constant instanceof UTF8Constant) {
+                        constants.add((UTF8Constant) constant);
+                    }
+                }
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return constants;
+    }
+
+    /** Returns the class graph of <tt>java.base</tt>. */
+    public static synchronized AtomicVertex[] getClassGraph() {
+        if (classGraph == null) {
+            try {
+                classGraph = Parser.readClassFiles(new String[] { getJarFile().getPath() });
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return classGraph;
+    }
+
+    /**
+     * Returns the class graph of <tt>java.base</tt> if <tt>name</tt> is <tt>java.base</tt>. Otherwise a graph created
+     * by {@link GraphGenerator} with seed 42 and default parameters is returned. In this case <tt>name</tt> has the
+     * form <i>topology</i><tt>:</tt><i>number of classes</i>, e.g. <tt>layered:100000</tt>.
+     */
+    public static AtomicVertex[] getGraph(String name) {
+        if (name.equals("java.base")) {
+            return getClassGraph();
+        }
+        final int index = name.indexOf(':');
+        final GraphGenerator.Topology topology = GraphGenerator.Topology
+                .valueOf(name.substring(0, index).toUpperCase());
+        return new GraphGenerator(topology, Integer.parseInt(name.substring(index + 1)), 42).createGraph();
+    }
+}
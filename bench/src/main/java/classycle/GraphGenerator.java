@@ -0,0 +1,334 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import classycle.graph.AtomicVertex;
+
+/**
+ * Generator of synthetic class graphs for benchmarks and scale tests. The graph is defined by a {@link Topology}, the
+ * number of classes and a seed. The same parameters always give the same graph. The graph can be created directly as
+ * an array of {@link AtomicVertex AtomicVertices} or written as class files into a folder or jar file. The class files
+ * are minimal but valid: their constant pools contain a class constant for each used class. Thus
+ * {@link Parser#readClassFiles(String[])} creates the same graph from them as {@link #createGraph()}.
+ * <p>
+ * The class with index <tt>i</tt> is named <tt>p</tt><i>i / packageSize</i><tt>.C</tt><i>i</i>. Every class extends
+ * <tt>java.lang.Object</tt> which is the only external class.
+ * <p>
+ * Usage: <tt>java classycle.GraphGenerator [-topology=layered|cycle|chain|hubs] [-classes=&lt;n&gt;] [-seed=&lt;n&gt;]
+ * [-packageSize=&lt;n&gt;] [-outDegree=&lt;n&gt;] [-backwardArcs=&lt;fraction&gt;] &lt;folder or jar file&gt;</tt>
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class GraphGenerator {
+
+    /** Topologies of generated graphs. */
+    public enum Topology {
+        /**
+         * Most arcs point to one of the next 500 classes, which gives many layers. The other arcs (see
+         * {@link GraphGenerator#setBackwardArcs(double)}) point backwards into the same package. Thus cycles are not
+         * larger than a package.
+         */
+        LAYERED,
+        /** All classes are on one cycle. The other arcs point to random classes. The graph is one strong component. */
+        CYCLE,
+        /**
+         * Each class uses the next one, which gives a walk as long as the graph. The other arcs point to one of the
+         * next 500 classes.
+         */
+        CHAIN,
+        /**
+         * The heads of the arcs are chosen with a strongly skewed distribution. Classes with a low index are used by a
+         * large part of the graph. Arcs point in both directions, which gives large cycles through the hubs.
+         */
+        HUBS
+    }
+
+    private static final int WINDOW = 500;
+    private static final String OBJECT = "java.lang.Object";
+
+    private final Topology topology;
+    private final int numberOfClasses;
+    private final long seed;
+    private int packageSize = 50;
+    private int outDegree = 8;
+    private double backwardArcs = 0.1;
+
+    /**
+     * Creates an instance with package size 50, out degree 8 and backward arcs fraction 0.1.
+     *
+     * @param topology
+     *            Topology of the graph.
+     * @param numberOfClasses
+     *            Number of classes.
+     * @param seed
+     *            Seed of the random generator.
+     */
+    public GraphGenerator(Topology topology, int numberOfClasses, long seed) {
+        this.topology = topology;
+        this.numberOfClasses = numberOfClasses;
+        this.seed = seed;
+    }
+
+    /** Sets the number of classes of a package. */
+    public void setPackageSize(int packageSize) {
+        this.packageSize = packageSize;
+    }
+
+    /**
+     * Sets the number of outgoing arcs of each class. The actual number can be smaller because duplicated arcs and
+     * arcs of a class to itself are dropped.
+     */
+    public void setOutDegree(int outDegree) {
+        this.outDegree = outDegree;
+    }
+
+    /** Sets the fraction of backward arcs of the topology {@link Topology#LAYERED}. */
+    public void setBackwardArcs(double backwardArcs) {
+        this.backwardArcs = backwardArcs;
+    }
+
+    /** Returns the fully qualified name of the class with the specified index. */
+    public String getClassName(int index) {
+        return "p" + index / packageSize + ".C" + index;
+    }
+
+    /**
+     * Creates the arcs of the graph.
+     *
+     * @return the indices of the classes used by each class. The used classes of a class are sorted and unique.
+     */
+    public int[][] createArcs() {
+        final Random random = new Random(seed);
+        final int[][] result = new int[numberOfClasses][];
+        final int[] heads = new int[outDegree + 1];
+        for (int i = 0; i < numberOfClasses; i++) {
+            int numberOfHeads = 0;
+            if (topology == Topology.CYCLE) {
+                heads[numberOfHeads++] = (i + 1) % numberOfClasses;
+            } else if (topology == Topology.CHAIN && i < numberOfClasses - 1) {
+                heads[numberOfHeads++] = i + 1;
+            }
+            while (numberOfHeads < outDegree) {
+                heads[numberOfHeads++] = createHead(i, random);
+            }
+            result[i] = uniqueHeads(i, heads, numberOfHeads);
+        }
+        return result;
+    }
+
+    private int createHead(int tail, Random random) {
+        final int lastIndex = numberOfClasses - 1;
+        switch (topology) {
+            case LAYERED:
+                if (tail == lastIndex || random.nextDouble() < backwardArcs) {
+                    final int packageStart = tail - tail % packageSize;
+                    return packageStart + random.nextInt(tail - packageStart + 1);
+                }
+                return tail + 1 + random.nextInt(Math.min(lastIndex - tail, WINDOW));
+            case CYCLE:
+                return random.nextInt(numberOfClasses);
+            case CHAIN:
+                return tail == lastIndex ? tail : tail + 1 + random.nextInt(Math.min(lastIndex - tail, WINDOW));
+            case HUBS:
+                final double x = random.nextDouble();
+                return (int) (x * x * x * x * numberOfClasses);
+            default:
+                throw new IllegalStateException("Unknown topology " + topology);
+        }
+    }
+
+    private static int[] uniqueHeads(int tail, int[] heads, int numberOfHeads) {
+        Arrays.sort(heads, 0, numberOfHeads);
+        int n = 0;
+        for (int i = 0; i < numberOfHeads; i++) {
+            if (heads[i] != tail && (n == 0 || heads[i] != heads[n - 1])) {
+                heads[n++] = heads[i];
+            }
+        }
+        return Arrays.copyOf(heads, n);
+    }
+
+    /**
+     * Creates the graph. The sizes of the classes are the sizes of the class files written by
+     * {@link #writeClassFiles(File)}.
+     */
+    public AtomicVertex[] createGraph() {
+        final int[][] arcs = createArcs();
+        final AtomicVertex[] graph = new AtomicVertex[numberOfClasses];
+        for (int i = 0; i < numberOfClasses; i++) {
+            graph[i] = new AtomicVertex(ClassAttributes.createClass(getClassName(i), null, getClassFileSize(i, arcs)));
+        }
+        final AtomicVertex object = new AtomicVertex(ClassAttributes.createUnknownClass(OBJECT, 0));
+        for (int i = 0; i < numberOfClasses; i++) {
+            graph[i].addOutgoingArcTo(object);
+            for (final int head : arcs[i]) {
+                graph[i].addOutgoingArcTo(graph[head]);
+            }
+        }
+        return graph;
+    }
+
+    private int getClassFileSize(int index, int[][] arcs) {
+        // header, constant pool count, access flags, this, super, and empty interfaces, fields, methods, attributes
+        int result = 10 + 14;
+        result += 6 + getClassName(index).length() + 6 + OBJECT.length();
+        for (final int head : arcs[index]) {
+            result += 6 + getClassName(head).length();
+        }
+        return result;
+    }
+
+    /**
+     * Writes the class files into the specified folder or, if the name ends with <tt>.jar</tt>, into the specified jar
+     * file.
+     *
+     * @throws IOException
+     *             if a class file could not be written.
+     */
+    public void writeClassFiles(File file) throws IOException {
+        final int[][] arcs = createArcs();
+        if (file.getName().endsWith(".jar")) {
+            try (ZipOutputStream stream = new ZipOutputStream(new FileOutputStream(file))) {
+                for (int i = 0; i < numberOfClasses; i++) {
+                    stream.putNextEntry(new ZipEntry(getClassName(i).replace('.', '/') + ".class"));
+                    writeClassFile(i, arcs, stream);
+                    stream.closeEntry();
+                }
+            }
+        } else {
+            final BitSet createdFolders = new BitSet();
+            for (int i = 0; i < numberOfClasses; i++) {
+                final File classFile = new File(file, getClassName(i).replace('.', File.separatorChar) + ".class");
+                if (!createdFolders.get(i / packageSize)) {
+                    classFile.getParentFile().mkdirs();
+                    createdFolders.set(i / packageSize);
+                }
+                try (OutputStream stream = new FileOutputStream(classFile)) {
+                    writeClassFile(i, arcs, stream);
+                }
+            }
+        }
+    }
+
+    /** Returns the class file of the class with the specified index. */
+    public byte[] createClassFile(int index, int[][] arcs) throws IOException {
+        final ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        writeClassFile(index, arcs, stream);
+        return stream.toByteArray();
+    }
+
+    private void writeClassFile(int index, int[][] arcs, OutputStream stream) throws IOException {
+        final DataOutputStream out = new DataOutputStream(stream);
+        final int[] heads = arcs[index];
+        out.writeInt(0xcafebabe);
+        out.writeShort(0);
+        out.writeShort(52);
+        out.writeShort(1 + 2 * (2 + heads.length));
+        writeClassConstant(getClassName(index), 1, out);
+        writeClassConstant(OBJECT, 3, out);
+        for (int i = 0; i < heads.length; i++) {
+            writeClassConstant(getClassName(heads[i]), 5 + 2 * i, out);
+        }
+        out.writeShort(0x21); // ACC_PUBLIC | ACC_SUPER
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+        out.writeShort(0); // methods
+        out.writeShort(0); // attributes
+        out.flush();
+    }
+
+    private static void writeClassConstant(String className, int utf8Index, DataOutputStream out) throws IOException {
+        out.writeByte(1); // CONSTANT_Utf8
+        out.writeUTF(className.replace('.', '/'));
+        out.writeByte(7); // CONSTANT_Class
+        out.writeShort(utf8Index);
+    }
+
+    /**
+     * Main method of the generator. Writes the class files of a generated graph.
+     *
+     * @param args
+     *            Options and the name of a folder or a jar file.
+     * @throws IOException
+     *             if the class files could not be written.
+     */
+    public static void main(String[] args) throws IOException {
+        Topology topology = Topology.LAYERED;
+        int numberOfClasses = 10000;
+        long seed = 42;
+        int packageSize = 50;
+        int outDegree = 8;
+        double backwardArcs = 0.1;
+        int index = 0;
+        try {
+            for (; index < args.length && args[index].startsWith("-"); index++) {
+                final String argument = args[index];
+                final String value = argument.substring(argument.indexOf('=') + 1);
+                if (argument.startsWith("-topology=")) {
+                    topology = Topology.valueOf(value.toUpperCase());
+                } else if (argument.startsWith("-classes=")) {
+                    numberOfClasses = Integer.parseInt(value);
+                } else if (argument.startsWith("-seed=")) {
+                    seed = Long.parseLong(value);
+                } else if (argument.startsWith("-packageSize=")) {
+                    packageSize = Integer.parseInt(value);
+                } else if (argument.startsWith("-outDegree=")) {
+                    outDegree = Integer.parseInt(value);
+                } else if (argument.startsWith("-backwardArcs=")) {
+                    backwardArcs = Double.parseDouble(value);
+                } else {
+                    throw new IllegalArgumentException(argument);
+                }
+            }
+        } catch (final IllegalArgumentException e) {
+            index = -1;
+        }
+        if (index < 0 || index != args.length - 1) {
+            System.out.println("Usage: java classycle.GraphGenerator [-topology=layered|cycle|chain|hubs] "
+                    + "[-classes=<n>] [-seed=<n>] [-packageSize=<n>] [-outDegree=<n>] [-backwardArcs=<fraction>] "
+                    + "<folder or jar file>");
+            System.exit(0);
+        }
+        final GraphGenerator generator = new GraphGenerator(topology, numberOfClasses, seed);
+        generator.setPackageSize(packageSize);
+        generator.setOutDegree(outDegree);
+        generator.setBackwardArcs(backwardArcs);
+        generator.writeClassFiles(new File(args[index]));
+    }
+}
@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import classycle.classfile.Constant;
+import classycle.classfile.UTF8Constant;
+
+/**
+ * Benchmarks of parsing the class files of <tt>java.base</tt>: constant pools only, descriptors only, a jar file read
+ * by {@link ZipArchive} or by {@link ZipFile}, and the complete way from a jar file to the class graph.
+ *
+ * @author Sakib Hadžiavdić
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ParserBenchmark {
+
+    private List<byte[]> classFiles;
+    private UTF8Constant[] utf8Constants;
+    private String[] jarFile;
+
+    @Setup
+    public void setUp() {
+        classFiles = BenchmarkInputs.getClassFiles();
+        utf8Constants = BenchmarkInputs.getUTF8Constants().toArray(new UTF8Constant[0]);
+        jarFile = new String[] { BenchmarkInputs.getJarFile().getPath() };
+    }
+
+    @Benchmark
+    public void extractConstantPool(Blackhole blackhole) throws IOException {
+        for (int i = 0, n = classFiles.size(); i < n; i++) {
+            final DataInputStream stream = new DataInputStream(new ByteArrayInputStream(classFiles.get(i)));
+            blackhole.consume(Constant.extractConstantPool(stream));
+        }
+    }
+
+    @Benchmark
+    public void extractConstantPoolFromBuffer(Blackhole blackhole) throws IOException {
+        for (int i = 0, n = classFiles.size(); i < n; i++) {
+            blackhole.consume(Constant.extractConstantPool(ByteBuffer.wrap(classFiles.get(i))));
+        }
+    }
+
+    @Benchmark
+    public void extractClassNames(Blackhole blackhole) {
+        final ClassNameExtractor extractor = new ClassNameExtractor();
+        for (int i = 0; i < utf8Constants.length; i++) {
+            blackhole.consume(extractor.extract(utf8Constants[i].getString()));
+        }
+    }
+
+    @Benchmark
+    public void extractClassNamesOfDescriptorCandidates(Blackhole blackhole) {
+        final ClassNameExtractor extractor = new ClassNameExtractor();
+        for (int i = 0; i < utf8Constants.length; i++) {
+            if (utf8Constants[i].isDescriptorCandidate()) {
+                blackhole.consume(extractor.extract(utf8Constants[i].getString()));
+            }
+        }
+    }
+
+    @Benchmark
+    public Object analyseMappedJarFile() throws IOException {
+        final List<UnresolvedNode> nodes = new ArrayList<>();
+        Parser.beginParse();
+        try {
+            Parser.analyseClassFiles(new File(jarFile[0]), null, nodes, null);
+        } finally {
+            Parser.endParse();
+        }
+        return nodes;
+    }
+
+    @Benchmark
+    public Object analyseZipFile() throws IOException {
+        final List<UnresolvedNode> nodes = new ArrayList<>();
+        Parser.beginParse();
+        try (ZipFile zipFile = new ZipFile(jarFile[0])) {
+            Parser.analyseClassFiles(zipFile, null, nodes, null);
+        } finally {
+            Parser.endParse();
+        }
+        return nodes;
+    }
+
+    @Benchmark
+    public Object readClassFiles() throws IOException {
+        return Parser.readClassFiles(jarFile);
+    }
+}
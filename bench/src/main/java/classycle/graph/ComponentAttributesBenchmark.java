@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.graph;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import classycle.GraphGenerator;
+import classycle.GraphGenerator.Topology;
+
+/**
+ * Benchmarks of the calculation of the attributes of strong components. The calculation is cubic in the size of a
+ * component. Thus synthetic graphs (see {@link GraphGenerator}) with cycles bounded by the package size are used. The
+ * largest strong component of <tt>java.base</tt> has thousands of classes.
+ *
+ * @author Sakib Hadžiavdić
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ComponentAttributesBenchmark {
+
+    @Param({ "20", "100", "400" })
+    public int packageSize;
+
+    private AtomicVertex[] graph;
+    private StrongComponent largestComponent;
+    private StrongComponent component;
+
+    @Setup
+    public void setUp() {
+        final GraphGenerator generator = new GraphGenerator(Topology.LAYERED, 10000, 42);
+        generator.setPackageSize(packageSize);
+        graph = generator.createGraph();
+        final GraphGenerator componentGenerator = new GraphGenerator(Topology.CYCLE, packageSize, 42);
+        componentGenerator.setOutDegree(4);
+        final StrongComponentProcessor processor = new StrongComponentProcessor(false);
+        processor.deepSearchFirst(componentGenerator.createGraph());
+        for (final StrongComponent component : processor.getStrongComponents()) {
+            if (largestComponent == null || component.getNumberOfVertices() > largestComponent.getNumberOfVertices()) {
+                largestComponent = component;
+            }
+        }
+    }
+
+    /** Creates a fresh copy of the largest component because attributes are accumulated by each calculation. */
+    @Setup(Level.Invocation)
+    public void copyLargestComponent() {
+        component = new StrongComponent();
+        for (int i = largestComponent.getNumberOfVertices() - 1; i >= 0; i--) {
+            component.addVertex(largestComponent.getVertex(i));
+        }
+    }
+
+    @Benchmark
+    public StrongComponent calculateAttributes() {
+        component.calculateAttributes();
+        return component;
+    }
+
+    @Benchmark
+    public StrongComponent[] findStrongComponentsWithAttributes() {
+        final StrongComponentProcessor processor = new StrongComponentProcessor(true);
+        processor.deepSearchFirst(graph);
+        return processor.getStrongComponents();
+    }
+}
@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.graph;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import classycle.BenchmarkInputs;
+import classycle.dependency.PatternVertexCondition;
+import classycle.util.WildCardPattern;
+
+/**
+ * Benchmark of finding the paths between two sets of classes, like a dependency check does. For <tt>java.base</tt>
+ * the sets are <tt>java.util.concurrent.*</tt> and <tt>java.io.*</tt>. For a synthetic graph (see
+ * {@link BenchmarkInputs#getGraph(String)}) they are the second and the last package.
+ *
+ * @author Sakib Hadžiavdić
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PathsFinderBenchmark {
+
+    @Param({ "java.base", "layered:100000", "hubs:100000" })
+    public String graphName;
+
+    @Param({ "false", "true" })
+    public boolean shortestPathsOnly;
+
+    private AtomicVertex[] graph;
+    private VertexCondition startSet;
+    private VertexCondition finalSet;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkInputs.getGraph(graphName);
+        if (graphName.equals("java.base")) {
+            startSet = new PatternVertexCondition(new WildCardPattern("java.util.concurrent.*"));
+            finalSet = new PatternVertexCondition(new WildCardPattern("java.io.*"));
+        } else {
+            startSet = new PatternVertexCondition(new WildCardPattern("p1.*"));
+            finalSet = new PatternVertexCondition(new WildCardPattern("p" + (graph.length - 1) / 50 + ".*"));
+        }
+    }
+
+    @Benchmark
+    public AtomicVertex[] findPaths() {
+        return new PathsFinder(startSet, finalSet, shortestPathsOnly).findPaths(graph);
+    }
+}
@@ -25,20 +25,27 @@
  ******************************************************************************/
 package classycle;
 
+import java.io.BufferedWriter;
+import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
-import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import classycle.graph.AtomicVertex;
+import classycle.graph.GraphChange;
+import classycle.graph.NameAttributes;
 import classycle.graph.StrongComponent;
 import classycle.graph.StrongComponentAnalyser;
+import classycle.graph.Vertex;
+import classycle.renderer.AbstractStrongComponentRenderer;
 import classycle.renderer.AtomicVertexRenderer;
+import classycle.renderer.GraphExporter;
 import classycle.renderer.PlainStrongComponentRenderer;
 import classycle.renderer.StrongComponentRenderer;
 import classycle.renderer.TemplateBasedClassRenderer;
@@ -57,15 +64,20 @@ import classycle.util.TrueStringPattern;
 public class Analyser {
 
     private static final String VERSION = "1.5";
-    private static final DateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
     private static final String CSV_TEMPLATE = "{0},{1},{3},{2},{4},{5},{6},{7},{8},{9}\n";
 
     private final String[] classFiles;
+    private final Iterable<ClassBytes> classes;
     private final StringPattern pattern;
     private final StringPattern reflectionPattern;
     private final boolean mergeInnerClasses;
+    private final ClassFileRepository repository;
     private StrongComponentAnalyser classAnalyser;
     private StrongComponentAnalyser packageAnalyser;
+    private StrongComponentAnalyser moduleAnalyser;
+    private GraphChange lastClassGraphChange;
+    private final MetricsRecorder metrics = new MetricsRecorder();
 
     /**
      * Creates an instance for the specified files or folders.
@@ -94,10 +106,50 @@ public class Analyser {
      */
     public Analyser(String[] classFiles, StringPattern pattern, StringPattern reflectionPattern,
             boolean mergeInnerClasses) {
+        this(classFiles, null, pattern, reflectionPattern, mergeInnerClasses, null);
+    }
+
+    /**
+     * Creates an instance for class files held in memory, e.g. the output of a compiler of a build tool. The class
+     * files are parsed by {@link #createClassGraph()}. Thus <tt>classes</tt> has to be iterable again if the class
+     * graph is created more than once.
+     *
+     * @param classes
+     *            Contents of the class files.
+     * @param pattern
+     *            Pattern fully-qualified class name have to match in order to be a part of the class graph.
+     * @param reflectionPattern
+     *            Pattern ordinary string constants of a class file have to fullfill in order to be handled as a class
+     *            references. If <tt>null</tt> ordinary string constants will not be checked.
+     * @param mergeInnerClasses
+     *            If <code>true</code> merge inner classes with its outer class
+     */
+    public Analyser(Iterable<ClassBytes> classes, StringPattern pattern, StringPattern reflectionPattern,
+            boolean mergeInnerClasses) {
+        this(new String[0], classes, pattern, reflectionPattern, mergeInnerClasses, null);
+    }
+
+    /**
+     * Creates an instance which reads the class files by the specified {@link ClassFileRepository}. Such an analyser
+     * is able to update its graphs with {@link #refreshClassGraph(Collection)} after some class files have been
+     * changed.
+     *
+     * @param repository
+     *            Repository which defines the class files and all filtering options.
+     */
+    public Analyser(ClassFileRepository repository) {
+        this(repository.getClassFiles(), null, repository.getPattern(), repository.getReflectionPattern(),
+                repository.isMergeInnerClasses(), repository);
+    }
+
+    private Analyser(String[] classFiles, Iterable<ClassBytes> classes, StringPattern pattern,
+            StringPattern reflectionPattern, boolean mergeInnerClasses, ClassFileRepository repository) {
         this.classFiles = classFiles;
+        this.classes = classes;
         this.pattern = pattern;
         this.reflectionPattern = reflectionPattern;
         this.mergeInnerClasses = mergeInnerClasses;
+        this.repository = repository;
     }
 
     /**
@@ -110,9 +162,9 @@ public class Analyser {
      */
     public long calculateClassLayerMap() {
         checkClassGraph("calculateClassLayerMap()");
-        final long time = System.currentTimeMillis();
+        final long time = metrics.start();
         classAnalyser.getLayerMap();
-        return System.currentTimeMillis() - time;
+        return metrics.stop("calculateClassLayerMap", time);
     }
 
     /**
@@ -125,9 +177,24 @@ public class Analyser {
      */
     public long calculatePackageLayerMap() {
         checkPackageGraph("calculatePackageLayerMap()");
-        final long time = System.currentTimeMillis();
+        final long time = metrics.start();
         packageAnalyser.getLayerMap();
-        return System.currentTimeMillis() - time;
+        return metrics.stop("calculatePackageLayerMap", time);
+    }
+
+    /**
+     * Calculates the for each module its layer index. The layer index of a module is the length of the longest path
+     * in the acyclic graph of strong components starting at the strong component to which the module belongs.
+     *
+     * @return the duration of this operation in milliseconds.
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public long calculateModuleLayerMap() {
+        checkClassGraph("calculateModuleLayerMap()");
+        final long time = metrics.start();
+        getModuleAnalyser().getLayerMap();
+        return metrics.stop("calculateModuleLayerMap", time);
     }
 
     private void checkClassGraph(String method) {
@@ -151,9 +218,9 @@ public class Analyser {
      */
     public long condenseClassGraph() {
         checkClassGraph("condenseClassGraph()");
-        final long time = System.currentTimeMillis();
+        final long time = metrics.start();
         classAnalyser.getCondensedGraph();
-        return System.currentTimeMillis() - time;
+        return metrics.stop("condenseClassGraph", time);
     }
 
     /**
@@ -165,9 +232,23 @@ public class Analyser {
      */
     public long condensePackageGraph() {
         checkPackageGraph("condensePackageGraph()");
-        final long time = System.currentTimeMillis();
+        final long time = metrics.start();
         packageAnalyser.getCondensedGraph();
-        return System.currentTimeMillis() - time;
+        return metrics.stop("condensePackageGraph", time);
+    }
+
+    /**
+     * Condenses the module graph to an acyclic graph of its strong components.
+     *
+     * @return the duration of this operation in milliseconds.
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public long condenseModuleGraph() {
+        checkClassGraph("condenseModuleGraph()");
+        final long time = metrics.start();
+        getModuleAnalyser().getCondensedGraph();
+        return metrics.stop("condenseModuleGraph", time);
     }
 
     /**
@@ -178,15 +259,190 @@ public class Analyser {
      *             if a problem occured during reading
      */
     public long createClassGraph() throws IOException {
-        final long time = System.currentTimeMillis();
-        final AtomicVertex[] classGraph = Parser.readClassFiles(classFiles, pattern, reflectionPattern,
-                mergeInnerClasses);
+        final long time = metrics.start();
+        final ParserCounters previousCounters = metrics.startCounting();
+        final AtomicVertex[] classGraph;
+        try {
+            if (repository != null) {
+                classGraph = repository.readClassFiles();
+            } else if (classes != null) {
+                classGraph = Parser.readClasses(classes, pattern, reflectionPattern, mergeInnerClasses);
+            } else {
+                classGraph = Parser.readClassFiles(classFiles, pattern, reflectionPattern, mergeInnerClasses);
+            }
+        } finally {
+            metrics.stopCounting(previousCounters);
+        }
         classAnalyser = new StrongComponentAnalyser(classGraph);
-        return System.currentTimeMillis() - time;
+        return metrics.stop("createClassGraph", time);
+    }
+
+    /**
+     * Re-reads the specified changed class files, zip/jar/war/ear files or folders and updates the class graph
+     * incrementally. Only the vertices of the changed classes are updated. The strong components and layers of the
+     * class graph are updated locally (see {@link classycle.graph.DynamicStrongComponents}). If the package graph has
+     * already been created it will be updated too. Its strong components and layers are kept if the package
+     * dependencies did not change.
+     *
+     * @param changedFiles
+     *            Files which have been created, modified, or deleted.
+     * @return the duration of this operation in milliseconds.
+     * @throws IOException
+     *             if a problem occured during reading
+     * @throws IllegalStateException
+     *             if this analyser has not been created with a {@link ClassFileRepository} or if this method is called
+     *             before {@link #createClassGraph()}.
+     */
+    public long refreshClassGraph(Collection<File> changedFiles) throws IOException {
+        if (repository == null) {
+            throw new IllegalStateException("refreshClassGraph() needs an analyser created with a repository.");
+        }
+        checkClassGraph("refreshClassGraph()");
+        final long time = metrics.start();
+        final ParserCounters previousCounters = metrics.startCounting();
+        final GraphChange change;
+        try {
+            change = repository.refresh(changedFiles);
+        } finally {
+            metrics.stopCounting(previousCounters);
+        }
+        lastClassGraphChange = change;
+        if (!change.isEmpty()) {
+            classAnalyser.update(repository.getGraph(), change);
+            if (packageAnalyser != null) {
+                updatePackageGraph();
+            }
+        }
+        return metrics.stop("refreshClassGraph", time);
+    }
+
+    /**
+     * Saves the complete analysis (class graph, package graph, their strong components and layer indices) as a binary
+     * snapshot into the specified file. Such a snapshot can be loaded by {@link #loadSnapshot(File)}. Package graph,
+     * strong components and layer indices are calculated if not already done.
+     *
+     * @return the duration of this operation in milliseconds.
+     * @throws IOException
+     *             if the snapshot could not be written.
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public long saveSnapshot(File file) throws IOException {
+        checkClassGraph("saveSnapshot()");
+        final long time = metrics.start();
+        if (packageAnalyser == null) {
+            createPackageGraph();
+        }
+        AnalyserSnapshot.save(file, classFiles, mergeInnerClasses, classAnalyser, packageAnalyser);
+        return metrics.stop("saveSnapshot", time);
+    }
+
+    /**
+     * Creates an analyser from a snapshot saved by {@link #saveSnapshot(File)}. The snapshot file is mapped into
+     * memory. Class files are not read and nothing has to be calculated. Thus all reports can be printed immediately.
+     *
+     * @throws IOException
+     *             if the snapshot could not be read.
+     */
+    public static Analyser loadSnapshot(File file) throws IOException {
+        final long time = System.nanoTime();
+        final AnalyserSnapshot snapshot = AnalyserSnapshot.load(file);
+        final Analyser analyser = new Analyser(snapshot.getClassFiles(), null, new TrueStringPattern(), null,
+                snapshot.isMergeInnerClasses(), null);
+        analyser.classAnalyser = snapshot.getClassAnalyser();
+        analyser.packageAnalyser = snapshot.getPackageAnalyser();
+        analyser.metrics.stop("loadSnapshot", time);
+        return analyser;
+    }
+
+    /**
+     * Returns a snapshot of the performance metrics of this analyser: durations of all phases invoked so far, parser
+     * counters, sizes of the graphs, and peak heap estimates. Graphs and condensed graphs are not created by this
+     * method. Thus their sizes are <tt>-1</tt> if they have not been created yet. The external classes are counted
+     * by walking all arcs of the class graph (see {@link #getNumberOfExternalClasses()}).
+     */
+    public Metrics getMetrics() {
+        final AtomicVertex[] classGraph = classAnalyser == null ? null : classAnalyser.getGraph();
+        return metrics.createMetrics(classGraph, classGraph == null ? -1 : getNumberOfExternalClasses(),
+                classAnalyser != null && classAnalyser.isCondensed() ? classAnalyser.getCondensedGraph() : null,
+                packageAnalyser == null ? null : packageAnalyser.getGraph(),
+                packageAnalyser != null && packageAnalyser.isCondensed() ? packageAnalyser.getCondensedGraph() : null);
+    }
+
+    /**
+     * Returns the changes of the class graph made by the last invocation of {@link #refreshClassGraph(Collection)}.
+     * They can be used to update a {@link classycle.dependency.DependencyChecker}.
+     *
+     * @return <tt>null</tt> if {@link #refreshClassGraph(Collection)} has not been invoked.
+     */
+    public GraphChange getLastClassGraphChange() {
+        return lastClassGraphChange;
+    }
+
+    private void updatePackageGraph() {
+        final PackageProcessor processor = new PackageProcessor();
+        processor.deepSearchFirst(classAnalyser.getGraph());
+        final AtomicVertex[] packageGraph = processor.getGraph();
+        if (!replaceAttributes(packageAnalyser.getGraph(), packageGraph)) {
+            packageAnalyser = new StrongComponentAnalyser(packageGraph);
+        }
+        final AtomicVertex[] moduleGraph = processor.getModuleGraph();
+        if (moduleAnalyser == null || !replaceAttributes(moduleAnalyser.getGraph(), moduleGraph)) {
+            moduleAnalyser = new StrongComponentAnalyser(moduleGraph);
+        }
     }
 
     /**
-     * Creates package graph from the class graph.
+     * Replaces the attributes of the vertices of <tt>graph</tt> by the attributes of the vertices of
+     * <tt>newGraph</tt> with the same name if both graphs have the same vertices and arcs.
+     *
+     * @return <tt>false</tt> if the graphs are different. In this case nothing has been replaced.
+     */
+    private static boolean replaceAttributes(AtomicVertex[] graph, AtomicVertex[] newGraph) {
+        if (graph.length != newGraph.length) {
+            return false;
+        }
+        final Map<String, Vertex> newVertices = new HashMap<>();
+        for (int i = 0; i < newGraph.length; i++) {
+            newVertices.put(getName(newGraph[i]), newGraph[i]);
+            for (int j = 0, n = newGraph[i].getNumberOfOutgoingArcs(); j < n; j++) {
+                final Vertex head = newGraph[i].getHeadVertex(j);
+                newVertices.put(getName(head), head);
+            }
+        }
+        final Map<Vertex, Vertex> replacements = new HashMap<>();
+        for (int i = 0; i < graph.length; i++) {
+            final Vertex vertex = graph[i];
+            final Vertex newVertex = newVertices.get(getName(vertex));
+            if (newVertex == null || !(newVertex instanceof AtomicVertex && ((AtomicVertex) newVertex).isGraphVertex())
+                    || newVertex.getNumberOfOutgoingArcs() != vertex.getNumberOfOutgoingArcs()) {
+                return false;
+            }
+            replacements.put(vertex, newVertex);
+            final Set<String> headNames = new HashSet<>();
+            for (int j = 0, n = newVertex.getNumberOfOutgoingArcs(); j < n; j++) {
+                headNames.add(getName(newVertex.getHeadVertex(j)));
+            }
+            for (int j = 0, n = vertex.getNumberOfOutgoingArcs(); j < n; j++) {
+                final Vertex head = vertex.getHeadVertex(j);
+                if (!headNames.contains(getName(head))) {
+                    return false;
+                }
+                replacements.put(head, newVertices.get(getName(head)));
+            }
+        }
+        for (final Map.Entry<Vertex, Vertex> entry : replacements.entrySet()) {
+            entry.getKey().setAttributes(entry.getValue().getAttributes());
+        }
+        return true;
+    }
+
+    private static String getName(Vertex vertex) {
+        return ((NameAttributes) vertex.getAttributes()).getName();
+    }
+
+    /**
+     * Creates package graph and module graph from the class graph in a single pass (see {@link PackageProcessor}).
      *
      * @return the duration of this operation in milliseconds.
      * @throws IllegalStateException
@@ -194,11 +450,29 @@ public class Analyser {
      */
     public long createPackageGraph() {
         checkClassGraph("createPackageGraph()");
-        final long time = System.currentTimeMillis();
+        final long time = metrics.start();
         final PackageProcessor processor = new PackageProcessor();
         processor.deepSearchFirst(classAnalyser.getGraph());
         packageAnalyser = new StrongComponentAnalyser(processor.getGraph());
-        return System.currentTimeMillis() - time;
+        moduleAnalyser = new StrongComponentAnalyser(processor.getModuleGraph());
+        return metrics.stop("createPackageGraph", time);
+    }
+
+    /**
+     * Returns the analyser of the module graph. The module graph is created together with the package graph. Only if
+     * the package graph has been loaded from a snapshot it is created separately.
+     */
+    private StrongComponentAnalyser getModuleAnalyser() {
+        if (moduleAnalyser == null) {
+            if (packageAnalyser == null) {
+                createPackageGraph();
+            } else {
+                final PackageProcessor processor = new PackageProcessor();
+                processor.deepSearchFirst(getClassGraph());
+                moduleAnalyser = new StrongComponentAnalyser(processor.getModuleGraph());
+            }
+        }
+        return moduleAnalyser;
     }
 
     /**
@@ -250,16 +524,49 @@ public class Analyser {
         return packageAnalyser.getCondensedGraph();
     }
 
-    private StrongComponent getCycleFor(AtomicVertex vertex, List<StrongComponent> cycles) {
-        for (int i = 0, n = cycles.size(); i < n; i++) {
-            final StrongComponent cycle = cycles.get(i);
-            for (int j = 0, m = cycle.getNumberOfVertices(); j < m; j++) {
-                if (cycle.getVertex(j) == vertex) {
-                    return cycle;
-                }
-            }
-        }
-        return null;
+    /**
+     * Returns the condensed module graph, i.e.&nbsp;the acyclic graph of its strong components. A strong component with
+     * more than one vertex is a cycle between modules.
+     *
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public StrongComponent[] getCondensedModuleGraph() {
+        checkClassGraph("getCondensedModuleGraph()");
+        return getModuleAnalyser().getCondensedGraph();
+    }
+
+    /**
+     * Returns a mapping of the classes onto the strong components of the class graph they belong to.
+     *
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public Map<AtomicVertex, StrongComponent> getClassComponentMap() {
+        checkClassGraph("getClassComponentMap()");
+        return classAnalyser.getComponentMap();
+    }
+
+    /**
+     * Returns a mapping of the packages onto the strong components of the package graph they belong to.
+     *
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createPackageGraph()}.
+     */
+    public Map<AtomicVertex, StrongComponent> getPackageComponentMap() {
+        checkPackageGraph("getPackageComponentMap()");
+        return packageAnalyser.getComponentMap();
+    }
+
+    /**
+     * Returns a mapping of the modules onto the strong components of the module graph they belong to.
+     *
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public Map<AtomicVertex, StrongComponent> getModuleComponentMap() {
+        checkClassGraph("getModuleComponentMap()");
+        return getModuleAnalyser().getComponentMap();
     }
 
     /**
@@ -297,6 +604,31 @@ public class Analyser {
         return packageAnalyser.getGraph();
     }
 
+    /**
+     * Returns the module graph created from the class graph. Its vertices are {@link ModuleVertex} instances. A module
+     * is a JPMS module if the source of its classes (e.g. a jar file) has a module descriptor. Otherwise the module is
+     * the source itself.
+     *
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public AtomicVertex[] getModuleGraph() {
+        checkClassGraph("getModuleGraph()");
+        return getModuleAnalyser().getGraph();
+    }
+
+    /**
+     * Calculates the for each module its layer index and returns a <tt>Map</tt> where the modules are the keys (type
+     * {@link AtomicVertex}) and the layer indices are the values (type <tt>Integer</tt>).
+     *
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public Map<AtomicVertex, Integer> getModuleLayerMap() {
+        checkClassGraph("getModuleLayerMap()");
+        return getModuleAnalyser().getLayerMap();
+    }
+
     /**
      * Calculates the for each package its layer index and returns a <tt>Map</tt> where the packages are the keys (type
      * {@link AtomicVertex}) and the layer indices are the values (type <tt>Integer</tt>).
@@ -309,18 +641,6 @@ public class Analyser {
         return packageAnalyser.getLayerMap();
     }
 
-    private List<StrongComponent> getTrueCycles(StrongComponent[] cycles) {
-        final List<StrongComponent> list = new ArrayList<>();
-        if (cycles != null) {
-            for (int i = 0; i < cycles.length; i++) {
-                if (cycles[i].getNumberOfVertices() > 1) {
-                    list.add(cycles[i]);
-                }
-            }
-        }
-        return list;
-    }
-
     /**
      * Prints for each strong component of the class graph a raw output into the specified writer. The strong component
      * must have at least <tt>minSize</tt> classes in order to be printed out. This output includes all classes of the
@@ -346,6 +666,42 @@ public class Analyser {
         writer.close();
     }
 
+    /**
+     * Prints for each strong component of the module graph a raw output into the specified writer. The strong component
+     * must have at least <tt>minSize</tt> modules in order to be printed out. Thus <tt>minSize = 2</tt> prints the
+     * cycles between modules.
+     *
+     * @param writer
+     *            Output stream.
+     * @param minSize
+     *            Minimum size of the strong component.
+     * @throws IllegalStateException
+     *             if this method is called before {@link #createClassGraph()}.
+     */
+    public void printModuleComponents(PrintWriter writer, int minSize) {
+        checkClassGraph("printModuleComponents()");
+        final StrongComponent[] components = getCondensedModuleGraph();
+        for (int i = 0; i < components.length; i++) {
+            final StrongComponent component = components[i];
+            final int n = component.getNumberOfVertices();
+            if (n >= minSize) {
+                if (n == 1) {
+                    writer.println(component.getVertex(0).getAttributes() + ". Layer: " + component.getLongestWalk());
+                } else {
+                    writer.println("Cycle: " + AbstractStrongComponentRenderer.createName(component) + " with " + n
+                            + " modules. Layer: " + component.getLongestWalk());
+                    for (int j = 0; j < n; j++) {
+                        final AtomicVertex vertex = component.getVertex(j);
+                        writer.println("    " + vertex.getAttributes() + ": Used by "
+                                + vertex.getNumberOfIncomingArcs() + " modules. Uses "
+                                + vertex.getNumberOfOutgoingArcs() + " modules");
+                    }
+                }
+            }
+        }
+        writer.close();
+    }
+
     /**
      * Prints a CSV report into the specified writer. Delimiter is ','. First, a header with column titles is print. The
      * columns are
@@ -363,12 +719,12 @@ public class Analyser {
      *            Output stream.
      */
     public void printCSV(PrintWriter writer) {
-        final StrongComponent[] cycles = getCondensedClassGraph();
         final AtomicVertex[] graph = getClassGraph();
+        final Map<AtomicVertex, StrongComponent> componentMap = getClassComponentMap();
         final Map<AtomicVertex, Integer> map = getClassLayerMap();
         writer.println("class name,type,inner class,size,used by," + "uses internal classes,uses external classes,"
                 + "layer index,cycle,source");
-        render(graph, cycles, map, new TemplateBasedClassRenderer(CSV_TEMPLATE), writer);
+        render(graph, componentMap, map, new TemplateBasedClassRenderer(CSV_TEMPLATE), writer);
         writer.close();
     }
 
@@ -390,6 +746,49 @@ public class Analyser {
         writer.close();
     }
 
+    /**
+     * Exports the class graph or the package graph by the specified exporter into the specified writer. The exporter
+     * streams the graph. Apart from the writer it keeps only the set of exported external vertices in memory.
+     *
+     * @param exporter
+     *            Exporter defining format and filters.
+     * @param packages
+     *            if <tt>true</tt> the package graph is exported instead of the class graph.
+     * @param writer
+     *            Output stream.
+     */
+    public void printGraph(GraphExporter exporter, boolean packages, PrintWriter writer) {
+        final AtomicVertex[] classGraph = getClassGraph();
+        exporter.export(packages ? getPackageGraph() : classGraph, writer);
+        writer.close();
+    }
+
+    /**
+     * Exports the module graph by the specified exporter into the specified writer.
+     *
+     * @param exporter
+     *            Exporter defining format and filters.
+     * @param writer
+     *            Output stream.
+     */
+    public void printModuleGraph(GraphExporter exporter, PrintWriter writer) {
+        exporter.export(getModuleGraph(), writer);
+        writer.close();
+    }
+
+    /**
+     * Writes the class graph together with strong components and layer indices in a binary format into the specified
+     * file. The file can be read by {@link BinaryGraph}, which maps it into memory and queries it without parsing.
+     *
+     * @throws IOException
+     *             if the file could not be written.
+     */
+    public void writeBinaryGraph(File file) throws IOException {
+        final AtomicVertex[] graph = getClassGraph();
+        getClassLayerMap();
+        BinaryGraphWriter.write(file, graph, getCondensedClassGraph());
+    }
+
     /**
      * Prints an XML report into the specified writer.
      *
@@ -404,38 +803,47 @@ public class Analyser {
      */
     public void printXML(String title, boolean packagesOnly, PrintWriter writer) {
         checkPackageGraph("printXML()");
+        printXML(title, packagesOnly, packagesOnly ? 0 : getNumberOfExternalClasses(), writer);
+    }
+
+    /**
+     * Prints an XML report with an already counted number of external classes. This method does not calculate anything
+     * lazily if the graphs have been fully analysed before. Thus it can be invoked concurrently (see {@link Reports}).
+     */
+    void printXML(String title, boolean packagesOnly, int numberOfExternalClasses, PrintWriter writer) {
         writer.println("<?xml version='1.0' encoding='UTF-8'?>");
         writer.println("<?xml-stylesheet type='text/xsl' " + "href='reportXMLtoHTML.xsl'?>");
         writer.print("<classycle title='");
         writer.print(Text.excapeForXML(title));
         writer.print("' date='");
-        writer.print(DATE_FORMAT.format(new Date()));
+        // DateFormat is not thread-safe
+        writer.print(new SimpleDateFormat(DATE_PATTERN).format(new Date()));
         writer.println("'>");
         if (!packagesOnly) {
             final StrongComponent[] components = getCondensedClassGraph();
             writer.println("  <cycles>");
             final StrongComponentRenderer sRenderer = new XMLStrongComponentRenderer(2);
             for (int i = 0; i < components.length; i++) {
-                writer.print(sRenderer.render(components[i]));
+                sRenderer.render(components[i], writer);
             }
             writer.println("  </cycles>");
-            writer.println("  <classes numberOfExternalClasses=\"" + getNumberOfExternalClasses() + "\">");
+            writer.println("  <classes numberOfExternalClasses=\"" + numberOfExternalClasses + "\">");
             final AtomicVertex[] graph = getClassGraph();
             final Map<AtomicVertex, Integer> layerMap = getClassLayerMap();
-            render(graph, components, layerMap, new XMLClassRenderer(), writer);
+            render(graph, getClassComponentMap(), layerMap, new XMLClassRenderer(), writer);
             writer.println("  </classes>");
         }
         final StrongComponent[] components = getCondensedPackageGraph();
         writer.println("  <packageCycles>");
         final StrongComponentRenderer sRenderer = new XMLPackageStrongComponentRenderer(2);
         for (int i = 0; i < components.length; i++) {
-            writer.print(sRenderer.render(components[i]));
+            sRenderer.render(components[i], writer);
         }
         writer.println("  </packageCycles>");
         writer.println("  <packages>");
         final AtomicVertex[] graph = getPackageGraph();
         final Map<AtomicVertex, Integer> layerMap = getPackageLayerMap();
-        render(graph, components, layerMap, new XMLPackageRenderer(), writer);
+        render(graph, getPackageComponentMap(), layerMap, new XMLPackageRenderer(), writer);
         writer.println("  </packages>");
 
         writer.println("</classycle>");
@@ -450,8 +858,7 @@ public class Analyser {
      *             in case of reading problems.
      */
     public void readAndAnalyse(boolean packagesOnly) throws IOException {
-        System.out.println("============= Classycle V" + VERSION + " =============");
-        System.out.println("========== by Franz-Josef Elmer ==========");
+        printHeader();
         System.out.print("read class files and create class graph ... ");
         long duration = createClassGraph();
         System.out.println("done after " + duration + " ms: " + getClassGraph().length + " classes analysed.");
@@ -482,14 +889,19 @@ public class Analyser {
         System.out.println("done after " + duration + " ms.");
     }
 
-    private void render(AtomicVertex[] graph, StrongComponent[] cycles, Map<AtomicVertex, Integer> layerMap,
-            AtomicVertexRenderer renderer, PrintWriter writer) {
-        final List<StrongComponent> list = getTrueCycles(cycles);
+    private static void printHeader() {
+        System.out.println("============= Classycle V" + VERSION + " =============");
+        System.out.println("========== by Franz-Josef Elmer ==========");
+    }
+
+    private void render(AtomicVertex[] graph, Map<AtomicVertex, StrongComponent> componentMap,
+            Map<AtomicVertex, Integer> layerMap, AtomicVertexRenderer renderer, PrintWriter writer) {
         for (int i = 0; i < graph.length; i++) {
             final AtomicVertex vertex = graph[i];
+            final StrongComponent component = componentMap.get(vertex);
+            final StrongComponent cycle = component != null && component.getNumberOfVertices() > 1 ? component : null;
             final Integer layerIndex = layerMap.get(vertex);
-            writer.print(renderer.render(vertex, getCycleFor(vertex, list),
-                    layerIndex == null ? -1 : layerIndex.intValue()));
+            renderer.render(vertex, cycle, layerIndex == null ? -1 : layerIndex.intValue(), writer);
         }
     }
 
@@ -507,24 +919,73 @@ public class Analyser {
             System.out.println("Usage: java -jar classycle.jar " + commandLine.getUsage());
             System.exit(0);
         }
+        if (commandLine.getDescriptorCacheSize() >= 0) {
+            Parser.setDescriptorCacheSize(commandLine.getDescriptorCacheSize());
+        }
 
-        final Analyser analyser = new Analyser(commandLine.getClassFiles(), commandLine.getPattern(),
-                commandLine.getReflectionPattern(), commandLine.isMergeInnerClasses());
-        analyser.readAndAnalyse(commandLine.isPackagesOnly());
+        final Analyser analyser;
+        if (commandLine.getSnapshot() != null) {
+            printHeader();
+            System.out.print("load snapshot " + commandLine.getSnapshot() + " ... ");
+            final long time = System.currentTimeMillis();
+            analyser = loadSnapshot(new File(commandLine.getSnapshot()));
+            System.out.println("done after " + (System.currentTimeMillis() - time) + " ms: "
+                    + analyser.getClassGraph().length + " classes.");
+        } else {
+            analyser = new Analyser(commandLine.getClassFiles(), commandLine.getPattern(),
+                    commandLine.getReflectionPattern(), commandLine.isMergeInnerClasses());
+            analyser.readAndAnalyse(commandLine.isPackagesOnly());
+        }
+        if (commandLine.getSaveSnapshot() != null) {
+            System.out.print("save snapshot " + commandLine.getSaveSnapshot() + " ... ");
+            final long duration = analyser.saveSnapshot(new File(commandLine.getSaveSnapshot()));
+            System.out.println("done after " + duration + " ms.");
+        }
 
-        // Create report(s)
+        // Create report(s). Reports written into files are created concurrently.
+        final Reports reports = new Reports(analyser);
         if (commandLine.getXmlFile() != null) {
-            analyser.printXML(commandLine.getTitle(), commandLine.isPackagesOnly(),
-                    new PrintWriter(new FileWriter(commandLine.getXmlFile())));
+            final String title = commandLine.getTitle() != null || analyser.classFiles.length == 0
+                    ? commandLine.getTitle()
+                    : analyser.classFiles[0];
+            reports.addXML(title, commandLine.isPackagesOnly(), createWriter(commandLine.getXmlFile()));
         }
         if (commandLine.getCsvFile() != null) {
-            analyser.printCSV(new PrintWriter(new FileWriter(commandLine.getCsvFile())));
+            reports.addCSV(createWriter(commandLine.getCsvFile()));
+        }
+        if (commandLine.getGraphFile() != null) {
+            reports.addGraph(commandLine.createGraphExporter(commandLine.getGraphFile()), false,
+                    createWriter(commandLine.getGraphFile()));
+        }
+        if (commandLine.getPackageGraphFile() != null) {
+            reports.addGraph(commandLine.createGraphExporter(commandLine.getPackageGraphFile()), true,
+                    createWriter(commandLine.getPackageGraphFile()));
         }
+        if (commandLine.getModuleGraphFile() != null) {
+            reports.addModuleGraph(commandLine.createGraphExporter(commandLine.getModuleGraphFile()),
+                    createWriter(commandLine.getModuleGraphFile()));
+        }
+        if (commandLine.getBinaryFile() != null) {
+            reports.addBinaryGraph(new File(commandLine.getBinaryFile()));
+        }
+        final long time = analyser.metrics.start();
+        reports.print();
+        analyser.metrics.stop("printReports", time);
         if (commandLine.isRaw()) {
             analyser.printRaw(new PrintWriter(System.out));
         }
         if (commandLine.isCycles() || commandLine.isStrong()) {
             analyser.printComponents(new PrintWriter(System.out), commandLine.isCycles() ? 2 : 1);
         }
+        if (commandLine.isModuleCycles()) {
+            analyser.printModuleComponents(new PrintWriter(System.out), 2);
+        }
+        if (commandLine.getMetricsFile() != null) {
+            analyser.getMetrics().printJSON(createWriter(commandLine.getMetricsFile()));
+        }
+    }
+
+    private static PrintWriter createWriter(String fileName) throws IOException {
+        return new PrintWriter(new BufferedWriter(new FileWriter(fileName)));
     }
 }
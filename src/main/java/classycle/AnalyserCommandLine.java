@@ -25,6 +25,9 @@
  ******************************************************************************/
 package classycle;
 
+import classycle.renderer.GraphExporter;
+import classycle.util.TrueStringPattern;
+
 /**
  * Process command line arguments and options for the main application {@link Analyser}.
  *
@@ -34,14 +37,27 @@ public class AnalyserCommandLine extends CommandLine {
 
     private static final String XML_FILE = "-xmlFile=";
     private static final String CSV_FILE = "-csvFile=";
+    private static final String BINARY_FILE = "-binaryFile=";
+    private static final String GRAPH_FILE = "-graphFile=";
+    private static final String PACKAGE_GRAPH_FILE = "-packageGraphFile=";
+    private static final String MODULE_GRAPH_FILE = "-moduleGraphFile=";
+    private static final String GRAPH_ARCS = "-graphArcs=";
+    private static final String METRICS_FILE = "-metricsFile=";
     private static final String TITLE = "-title=";
     private boolean packagesOnly;
     private boolean raw;
     private boolean cycles;
     private boolean strong;
+    private boolean moduleCycles;
     private String title;
     private String xmlFile;
     private String csvFile;
+    private String binaryFile;
+    private String graphFile;
+    private String packageGraphFile;
+    private String moduleGraphFile;
+    private String graphArcs;
+    private String metricsFile;
 
     public AnalyserCommandLine(String[] args) {
         super(args);
@@ -59,6 +75,65 @@ public class AnalyserCommandLine extends CommandLine {
         return csvFile;
     }
 
+    /**
+     * Returns the name of the binary graph file as defined by the option <tt>-binaryFile</tt>.
+     *
+     * @return <tt>null</tt> if undefined.
+     */
+    public String getBinaryFile() {
+        return binaryFile;
+    }
+
+    /**
+     * Returns the name of the file into which the class graph is exported as defined by the option
+     * <tt>-graphFile</tt>. The extension of the file name defines the format (see {@link GraphExporter#create}).
+     *
+     * @return <tt>null</tt> if undefined.
+     */
+    public String getGraphFile() {
+        return graphFile;
+    }
+
+    /**
+     * Returns the name of the file into which the package graph is exported as defined by the option
+     * <tt>-packageGraphFile</tt>.
+     *
+     * @return <tt>null</tt> if undefined.
+     */
+    public String getPackageGraphFile() {
+        return packageGraphFile;
+    }
+
+    /**
+     * Returns the name of the file into which the module graph is exported as defined by the option
+     * <tt>-moduleGraphFile</tt>.
+     *
+     * @return <tt>null</tt> if undefined.
+     */
+    public String getModuleGraphFile() {
+        return moduleGraphFile;
+    }
+
+    /**
+     * Returns the name of the JSON file into which the metrics of the analysis are written as defined by the option
+     * <tt>-metricsFile</tt> (see {@link Metrics}).
+     *
+     * @return <tt>null</tt> if undefined.
+     */
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * Creates the exporter for the specified file. The exported arcs are defined by the option <tt>-graphArcs</tt>
+     * which is either <tt>all</tt> (default), <tt>internal</tt>, or <tt>external</tt>.
+     */
+    public GraphExporter createGraphExporter(String fileName) {
+        final boolean internalArcs = graphArcs == null || !graphArcs.equals("external");
+        final boolean externalArcs = graphArcs == null || !graphArcs.equals("internal");
+        return GraphExporter.create(fileName, new TrueStringPattern(), internalArcs, externalArcs);
+    }
+
     /**
      * Returns the title by the option <tt>-title</tt>. If undefined {@link #getClassFiles()}<tt>[0]</tt> will be used.
      *
@@ -71,8 +146,10 @@ public class AnalyserCommandLine extends CommandLine {
     /** Returns the usage of correct command line arguments and options. */
     @Override
     public String getUsage() {
-        return "[-raw] [-packagesOnly] [-cycles|-strong] " + "[" + XML_FILE + "<file>] [" + CSV_FILE + "<file>] " + "["
-                + TITLE + "<title>] " + super.getUsage();
+        return "[-raw] [-packagesOnly] [-cycles|-strong] [-moduleCycles] " + "[" + XML_FILE + "<file>] [" + CSV_FILE
+                + "<file>] " + "[" + BINARY_FILE + "<file>] [" + GRAPH_FILE + "<file>] [" + PACKAGE_GRAPH_FILE
+                + "<file>] [" + MODULE_GRAPH_FILE + "<file>] [" + GRAPH_ARCS + "all|internal|external] ["
+                + METRICS_FILE + "<file>] [" + TITLE + "<title>] " + super.getUsage();
     }
 
     /**
@@ -94,6 +171,8 @@ public class AnalyserCommandLine extends CommandLine {
             cycles = true;
         } else if (argument.equals("-strong")) {
             strong = true;
+        } else if (argument.equals("-moduleCycles")) {
+            moduleCycles = true;
         } else if (argument.startsWith(TITLE)) {
             title = argument.substring(TITLE.length());
             if (title.length() == 0) {
@@ -109,6 +188,36 @@ public class AnalyserCommandLine extends CommandLine {
             if (csvFile.length() == 0) {
                 valid = false;
             }
+        } else if (argument.startsWith(BINARY_FILE)) {
+            binaryFile = argument.substring(BINARY_FILE.length());
+            if (binaryFile.length() == 0) {
+                valid = false;
+            }
+        } else if (argument.startsWith(GRAPH_FILE)) {
+            graphFile = argument.substring(GRAPH_FILE.length());
+            if (createGraphExporter(graphFile) == null) {
+                valid = false;
+            }
+        } else if (argument.startsWith(PACKAGE_GRAPH_FILE)) {
+            packageGraphFile = argument.substring(PACKAGE_GRAPH_FILE.length());
+            if (createGraphExporter(packageGraphFile) == null) {
+                valid = false;
+            }
+        } else if (argument.startsWith(MODULE_GRAPH_FILE)) {
+            moduleGraphFile = argument.substring(MODULE_GRAPH_FILE.length());
+            if (createGraphExporter(moduleGraphFile) == null) {
+                valid = false;
+            }
+        } else if (argument.startsWith(GRAPH_ARCS)) {
+            graphArcs = argument.substring(GRAPH_ARCS.length());
+            if (!graphArcs.equals("all") && !graphArcs.equals("internal") && !graphArcs.equals("external")) {
+                valid = false;
+            }
+        } else if (argument.startsWith(METRICS_FILE)) {
+            metricsFile = argument.substring(METRICS_FILE.length());
+            if (metricsFile.length() == 0) {
+                valid = false;
+            }
         } else {
             super.handleOption(argument);
         }
@@ -124,6 +233,11 @@ public class AnalyserCommandLine extends CommandLine {
         return packagesOnly;
     }
 
+    /** Returns <tt>true</tt> if the option <tt>-moduleCycles</tt> has been set. */
+    public boolean isModuleCycles() {
+        return moduleCycles;
+    }
+
     /** Returns <tt>true</tt> if the option <tt>-raw</tt> has been set. */
     public boolean isRaw() {
         return raw;
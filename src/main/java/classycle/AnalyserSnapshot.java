@@ -0,0 +1,396 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import classycle.graph.AtomicVertex;
+import classycle.graph.GraphAttributes;
+import classycle.graph.StrongComponent;
+import classycle.graph.StrongComponentAnalyser;
+import classycle.graph.Vertex;
+
+/**
+ * Binary snapshot of a complete analysis, i.e.&nbsp;class graph and package graph together with their attributes,
+ * strong components and layer indices. A snapshot is written by {@link #save} and read by {@link #load} which maps the
+ * file into memory. Loading a snapshot is much faster than parsing the class files and analysing the graphs again.
+ * <p>
+ * Format (all numbers are big-endian <tt>int</tt>s):
+ * <ul>
+ * <li>magic number and version
+ * <li>merge inner classes flag and the class file descriptors
+ * <li>class graph followed by package graph. Each graph consists of the number of graph vertices and external
+ * vertices, the attributes of all vertices (class attributes include the module name, empty if unknown), the
+ * outgoing and incoming arcs, the strong components with their geometry and longest walk, and the arcs between strong
+ * components.
+ * </ul>
+ * Strings are stored only once. The first occurrence is written as <tt>-1</tt> followed by the length and the UTF-8
+ * bytes. Further occurrences are written as the index of the string in the order of first occurrences.
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class AnalyserSnapshot {
+
+    private static final int MAGIC = 0x436c5379;
+    private static final int VERSION = 2;
+    private static final int NEW_STRING = -1;
+
+    private final String[] classFiles;
+    private final boolean mergeInnerClasses;
+    private final StrongComponentAnalyser classAnalyser;
+    private final StrongComponentAnalyser packageAnalyser;
+
+    private AnalyserSnapshot(String[] classFiles, boolean mergeInnerClasses, StrongComponentAnalyser classAnalyser,
+            StrongComponentAnalyser packageAnalyser) {
+        this.classFiles = classFiles;
+        this.mergeInnerClasses = mergeInnerClasses;
+        this.classAnalyser = classAnalyser;
+        this.packageAnalyser = packageAnalyser;
+    }
+
+    String[] getClassFiles() {
+        return classFiles;
+    }
+
+    boolean isMergeInnerClasses() {
+        return mergeInnerClasses;
+    }
+
+    StrongComponentAnalyser getClassAnalyser() {
+        return classAnalyser;
+    }
+
+    StrongComponentAnalyser getPackageAnalyser() {
+        return packageAnalyser;
+    }
+
+    /**
+     * Writes a snapshot into the specified file. Strong components and layer indices of both graphs are calculated if
+     * not already done.
+     *
+     * @param file
+     *            File to be written.
+     * @param classFiles
+     *            Class file descriptors of the analysis.
+     * @param mergeInnerClasses
+     *            <tt>true</tt> if inner classes have been merged with their outer classes.
+     * @param classAnalyser
+     *            Analyser of the class graph.
+     * @param packageAnalyser
+     *            Analyser of the package graph.
+     * @throws IOException
+     *             if the file could not be written.
+     */
+    static void save(File file, String[] classFiles, boolean mergeInnerClasses, StrongComponentAnalyser classAnalyser,
+            StrongComponentAnalyser packageAnalyser) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            final Writer writer = new Writer(out);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeBoolean(mergeInnerClasses);
+            out.writeInt(classFiles.length);
+            for (final String classFile : classFiles) {
+                writer.writeString(classFile);
+            }
+            writer.writeGraph(classAnalyser);
+            writer.writeGraph(packageAnalyser);
+        }
+    }
+
+    /**
+     * Reads a snapshot written by {@link #save}.
+     *
+     * @throws IOException
+     *             if the file could not be read or is not a snapshot of this version.
+     */
+    static AnalyserSnapshot load(File file) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException(file + " is not a Classycle snapshot.");
+        }
+        final int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " has snapshot version " + version + " instead of " + VERSION + ".");
+        }
+        try {
+            final Reader reader = new Reader(buffer);
+            final boolean mergeInnerClasses = buffer.get() != 0;
+            final String[] classFiles = new String[buffer.getInt()];
+            for (int i = 0; i < classFiles.length; i++) {
+                classFiles[i] = reader.readString();
+            }
+            final StrongComponentAnalyser classAnalyser = reader.readGraph(false);
+            final StrongComponentAnalyser packageAnalyser = reader.readGraph(true);
+            return new AnalyserSnapshot(classFiles, mergeInnerClasses, classAnalyser, packageAnalyser);
+        } catch (final RuntimeException e) {
+            throw new IOException(file + " is a corrupted snapshot: " + e, e);
+        }
+    }
+
+    private static class Writer {
+
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void writeGraph(StrongComponentAnalyser analyser) throws IOException {
+            // Calculating the layers sorts the strong components. Thus it has to be done first.
+            analyser.getLayerMap();
+            final StrongComponent[] components = analyser.getCondensedGraph();
+            final AtomicVertex[] graph = analyser.getGraph();
+            final Map<Vertex, Integer> indices = new HashMap<>();
+            final List<Vertex> vertices = new ArrayList<>();
+            for (final AtomicVertex vertex : graph) {
+                indices.put(vertex, Integer.valueOf(vertices.size()));
+                vertices.add(vertex);
+            }
+            for (final AtomicVertex vertex : graph) {
+                for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
+                    final Vertex head = vertex.getHeadVertex(i);
+                    if (!indices.containsKey(head)) {
+                        indices.put(head, Integer.valueOf(vertices.size()));
+                        vertices.add(head);
+                    }
+                }
+            }
+            out.writeInt(graph.length);
+            out.writeInt(vertices.size() - graph.length);
+            for (final Vertex vertex : vertices) {
+                writeAttributes((NameAndSourceAttributes) vertex.getAttributes());
+            }
+            writeArcs(vertices, indices);
+
+            final List<Vertex> componentList = new ArrayList<>();
+            final Map<Vertex, Integer> componentIndices = new HashMap<>();
+            out.writeInt(components.length);
+            for (final StrongComponent component : components) {
+                componentIndices.put(component, Integer.valueOf(componentList.size()));
+                componentList.add(component);
+                out.writeInt(component.getNumberOfVertices());
+                for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+                    out.writeInt(indices.get(component.getVertex(i)).intValue());
+                }
+                out.writeInt(component.getLongestWalk());
+                final GraphAttributes attributes = (GraphAttributes) component.getAttributes();
+                out.writeInt(attributes.getGirth());
+                writeInts(attributes.getEccentricities());
+                writeInts(attributes.getMaximumFragmentSizes());
+            }
+            writeArcs(componentList, componentIndices);
+        }
+
+        /** Writes outgoing and incoming arcs because reports depend on the order of both. */
+        private void writeArcs(List<Vertex> vertices, Map<Vertex, Integer> indices) throws IOException {
+            for (final Vertex vertex : vertices) {
+                out.writeInt(vertex.getNumberOfOutgoingArcs());
+                for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
+                    out.writeInt(indices.get(vertex.getHeadVertex(i)).intValue());
+                }
+            }
+            for (final Vertex vertex : vertices) {
+                out.writeInt(vertex.getNumberOfIncomingArcs());
+                for (int i = 0, n = vertex.getNumberOfIncomingArcs(); i < n; i++) {
+                    out.writeInt(indices.get(vertex.getTailVertex(i)).intValue());
+                }
+            }
+        }
+
+        private void writeAttributes(NameAndSourceAttributes attributes) throws IOException {
+            writeString(attributes.getName());
+            if (attributes instanceof ClassAttributes) {
+                final ClassAttributes classAttributes = (ClassAttributes) attributes;
+                writeString(classAttributes.getType());
+                out.writeInt(classAttributes.getSize());
+                writeString(classAttributes.getModule() == null ? "" : classAttributes.getModule());
+            } else {
+                final String[] classes = ((PackageAttributes) attributes).getClasses();
+                out.writeInt(classes.length);
+                for (final String className : classes) {
+                    writeString(className);
+                }
+            }
+            out.writeInt(attributes.getSourceSet().size());
+            for (final String source : attributes.getSourceSet()) {
+                writeString(source);
+            }
+        }
+
+        private void writeInts(int[] values) throws IOException {
+            if (values == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(values.length);
+                for (final int value : values) {
+                    out.writeInt(value);
+                }
+            }
+        }
+
+        void writeString(String string) throws IOException {
+            final Integer index = strings.get(string);
+            if (index != null) {
+                out.writeInt(index.intValue());
+            } else {
+                strings.put(string, Integer.valueOf(strings.size()));
+                final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(NEW_STRING);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static class Reader {
+
+        private final ByteBuffer buffer;
+        private final List<String> strings = new ArrayList<>();
+
+        Reader(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        StrongComponentAnalyser readGraph(boolean packages) {
+            final AtomicVertex[] graph = new AtomicVertex[buffer.getInt()];
+            final AtomicVertex[] vertices = new AtomicVertex[graph.length + buffer.getInt()];
+            for (int i = 0; i < vertices.length; i++) {
+                vertices[i] = packages ? readPackageVertex() : new AtomicVertex(readClassAttributes());
+            }
+            for (int i = 0; i < graph.length; i++) {
+                graph[i] = vertices[i];
+                graph[i].reset();
+            }
+            readArcs(vertices);
+
+            final StrongComponent[] components = new StrongComponent[buffer.getInt()];
+            for (int i = 0; i < components.length; i++) {
+                final StrongComponent component = new StrongComponent();
+                final AtomicVertex[] componentVertices = new AtomicVertex[buffer.getInt()];
+                for (int j = 0; j < componentVertices.length; j++) {
+                    componentVertices[j] = vertices[buffer.getInt()];
+                }
+                // addVertex() inserts at the beginning
+                for (int j = componentVertices.length - 1; j >= 0; j--) {
+                    component.addVertex(componentVertices[j]);
+                }
+                component.setLongestWalk(buffer.getInt());
+                final int girth = buffer.getInt();
+                final int[] eccentricities = readInts();
+                final int[] maximumFragmentSizes = readInts();
+                if (eccentricities != null && maximumFragmentSizes != null) {
+                    component.restoreAttributes(girth, eccentricities, maximumFragmentSizes);
+                }
+                components[i] = component;
+            }
+            readArcs(components);
+            return new StrongComponentAnalyser(graph, components);
+        }
+
+        private void readArcs(Vertex[] vertices) {
+            final Map<Vertex, Integer> indices = new HashMap<>();
+            for (int i = 0; i < vertices.length; i++) {
+                indices.put(vertices[i], Integer.valueOf(i));
+                for (int j = 0, n = buffer.getInt(); j < n; j++) {
+                    vertices[i].addOutgoingArcTo(vertices[buffer.getInt()]);
+                }
+            }
+            final int[] ranks = new int[vertices.length];
+            for (final Vertex vertex : vertices) {
+                for (int i = 0, n = buffer.getInt(); i < n; i++) {
+                    ranks[buffer.getInt()] = i;
+                }
+                vertex.sortIncomingArcs(Comparator.comparingInt(tail -> ranks[indices.get(tail).intValue()]));
+            }
+        }
+
+        private ClassAttributes readClassAttributes() {
+            final String name = readString();
+            final String type = readString();
+            final int size = buffer.getInt();
+            final String module = readString();
+            final ClassAttributes attributes = new ClassAttributes(name, null, type, size,
+                    module.isEmpty() ? null : module);
+            readSources(attributes);
+            return attributes;
+        }
+
+        private PackageVertex readPackageVertex() {
+            final PackageVertex vertex = new PackageVertex(readString());
+            for (int i = 0, n = buffer.getInt(); i < n; i++) {
+                vertex.addClass(ClassAttributes.createUnknownClass(readString(), 0));
+            }
+            readSources((NameAndSourceAttributes) vertex.getAttributes());
+            return vertex;
+        }
+
+        private void readSources(NameAndSourceAttributes attributes) {
+            for (int i = 0, n = buffer.getInt(); i < n; i++) {
+                attributes.addSource(readString());
+            }
+        }
+
+        private int[] readInts() {
+            final int length = buffer.getInt();
+            if (length < 0) {
+                return null;
+            }
+            final int[] values = new int[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = buffer.getInt();
+            }
+            return values;
+        }
+
+        String readString() {
+            final int index = buffer.getInt();
+            if (index != NEW_STRING) {
+                return strings.get(index);
+            }
+            final byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            final String string = new String(bytes, StandardCharsets.UTF_8);
+            strings.add(string);
+            return string;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a class graph exported by {@link Analyser#writeBinaryGraph(File)}. The file is mapped into memory
+ * and queried in place. Nothing is deserialized in advance, strings are decoded on demand.
+ * <p>
+ * The vertices are numbered from 0 to {@link #getNumberOfVertices()}<tt> - 1</tt>. The classes of the analysed graph
+ * come first, followed by the external classes. Strong components are numbered in the order of increasing longest
+ * walk, i.e.&nbsp;layer.
+ * <p>
+ * File format (all numbers are big-endian):
+ * <ul>
+ * <li>Header: magic number, version, number of vertices, number of graph vertices, number of arcs, number of strong
+ * components, number of strings (7 <tt>int</tt>s), one unused <tt>int</tt>, and the offsets of the 15 sections
+ * (<tt>long</tt>s).
+ * <li>Vertex columns (<tt>int</tt> per vertex): name, type, and sources as indices into the string table, size in
+ * bytes, strong component and layer index (both <tt>-1</tt> for external classes).
+ * <li>Adjacency in compressed sparse row format: offsets (<tt>int</tt> per vertex plus one) and heads of outgoing
+ * arcs, offsets and tails of incoming arcs.
+ * <li>Strong components: offsets (<tt>int</tt> per component plus one) and vertices.
+ * <li>Vertices sorted by name for binary search.
+ * <li>String table: offsets (<tt>int</tt> per string plus one) into the UTF-8 encoded string data.
+ * </ul>
+ *
+ * @author Sakib Hadžiavdić
+ */
+public final class BinaryGraph {
+
+    static final int MAGIC = 0x436c4772;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+
+    static final int NAMES = 0;
+    static final int TYPES = 1;
+    static final int SOURCES = 2;
+    static final int SIZES = 3;
+    static final int COMPONENTS = 4;
+    static final int LAYERS = 5;
+    static final int OUTGOING_OFFSETS = 6;
+    static final int HEADS = 7;
+    static final int INCOMING_OFFSETS = 8;
+    static final int TAILS = 9;
+    static final int COMPONENT_OFFSETS = 10;
+    static final int COMPONENT_VERTICES = 11;
+    static final int NAME_ORDER = 12;
+    static final int STRING_OFFSETS = 13;
+    static final int STRING_DATA = 14;
+    static final int NUMBER_OF_SECTIONS = 15;
+
+    private final ByteBuffer buffer;
+    private final int numberOfVertices;
+    private final int numberOfGraphVertices;
+    private final int numberOfArcs;
+    private final int numberOfComponents;
+    private final int[] sections = new int[NUMBER_OF_SECTIONS];
+
+    private BinaryGraph(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE + NUMBER_OF_SECTIONS * 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a binary Classycle graph.");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported version " + buffer.getInt(4) + " of binary Classycle graph.");
+        }
+        numberOfVertices = buffer.getInt(8);
+        numberOfGraphVertices = buffer.getInt(12);
+        numberOfArcs = buffer.getInt(16);
+        numberOfComponents = buffer.getInt(20);
+        for (int i = 0; i < NUMBER_OF_SECTIONS; i++) {
+            final long offset = buffer.getLong(HEADER_SIZE + 8 * i);
+            if (offset < 0 || offset > buffer.capacity()) {
+                throw new IOException("Invalid offset of section " + i + " of binary Classycle graph.");
+            }
+            sections[i] = (int) offset;
+        }
+    }
+
+    /**
+     * Maps the specified file into memory.
+     *
+     * @throws IOException
+     *             if the file could not be read or is not a binary graph of a supported version.
+     */
+    public static BinaryGraph map(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new BinaryGraph(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** Returns the number of all vertices, i.e.&nbsp;analysed classes and external classes. */
+    public int getNumberOfVertices() {
+        return numberOfVertices;
+    }
+
+    /** Returns the number of analysed classes. These are the vertices 0 to this number minus one. */
+    public int getNumberOfGraphVertices() {
+        return numberOfGraphVertices;
+    }
+
+    /** Returns the number of arcs. */
+    public int getNumberOfArcs() {
+        return numberOfArcs;
+    }
+
+    /** Returns the number of strong components. */
+    public int getNumberOfComponents() {
+        return numberOfComponents;
+    }
+
+    /** Returns <tt>true</tt> if the specified vertex is an analysed class and not an external class. */
+    public boolean isGraphVertex(int vertex) {
+        return vertex < numberOfGraphVertices;
+    }
+
+    /** Returns the fully-qualified class name of the specified vertex. */
+    public String getName(int vertex) {
+        return getString(getInt(NAMES, vertex));
+    }
+
+    /** Returns the type of the specified vertex, e.g. <tt>class</tt> or <tt>interface</tt>. */
+    public String getType(int vertex) {
+        return getString(getInt(TYPES, vertex));
+    }
+
+    /** Returns the comma separated sources of the specified vertex. */
+    public String getSources(int vertex) {
+        return getString(getInt(SOURCES, vertex));
+    }
+
+    /** Returns the size of the class file of the specified vertex in bytes. */
+    public int getSize(int vertex) {
+        return getInt(SIZES, vertex);
+    }
+
+    /** Returns the strong component of the specified vertex or <tt>-1</tt> for an external class. */
+    public int getComponent(int vertex) {
+        return getInt(COMPONENTS, vertex);
+    }
+
+    /** Returns the layer index of the specified vertex or <tt>-1</tt> for an external class. */
+    public int getLayer(int vertex) {
+        return getInt(LAYERS, vertex);
+    }
+
+    /** Returns the number of outgoing arcs of the specified vertex. */
+    public int getNumberOfOutgoingArcs(int vertex) {
+        return getInt(OUTGOING_OFFSETS, vertex + 1) - getInt(OUTGOING_OFFSETS, vertex);
+    }
+
+    /** Returns the head vertex of the specified outgoing arc of the specified vertex. */
+    public int getHead(int vertex, int index) {
+        return getInt(HEADS, getInt(OUTGOING_OFFSETS, vertex) + index);
+    }
+
+    /** Returns the number of incoming arcs of the specified vertex. */
+    public int getNumberOfIncomingArcs(int vertex) {
+        return getInt(INCOMING_OFFSETS, vertex + 1) - getInt(INCOMING_OFFSETS, vertex);
+    }
+
+    /** Returns the tail vertex of the specified incoming arc of the specified vertex. */
+    public int getTail(int vertex, int index) {
+        return getInt(TAILS, getInt(INCOMING_OFFSETS, vertex) + index);
+    }
+
+    /** Returns the number of vertices of the specified strong component. */
+    public int getComponentSize(int component) {
+        return getInt(COMPONENT_OFFSETS, component + 1) - getInt(COMPONENT_OFFSETS, component);
+    }
+
+    /** Returns the specified vertex of the specified strong component. */
+    public int getComponentVertex(int component, int index) {
+        return getInt(COMPONENT_VERTICES, getInt(COMPONENT_OFFSETS, component) + index);
+    }
+
+    /**
+     * Returns the vertex with the specified fully-qualified class name. The vertex is found by binary search.
+     *
+     * @return <tt>-1</tt> if not found.
+     */
+    public int indexOf(String name) {
+        int low = 0;
+        int high = numberOfVertices - 1;
+        while (low <= high) {
+            final int middle = (low + high) >>> 1;
+            final int vertex = getInt(NAME_ORDER, middle);
+            final int comparison = getName(vertex).compareTo(name);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return vertex;
+            }
+        }
+        return -1;
+    }
+
+    private int getInt(int section, int index) {
+        return buffer.getInt(sections[section] + 4 * index);
+    }
+
+    private String getString(int index) {
+        final int start = getInt(STRING_OFFSETS, index);
+        final byte[] bytes = new byte[getInt(STRING_OFFSETS, index + 1) - start];
+        final ByteBuffer data = buffer.duplicate();
+        data.position(sections[STRING_DATA] + start);
+        data.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
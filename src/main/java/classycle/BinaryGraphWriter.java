@@ -0,0 +1,216 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import classycle.graph.AtomicVertex;
+import classycle.graph.StrongComponent;
+import classycle.graph.Vertex;
+
+/**
+ * Writer of the binary graph format read by {@link BinaryGraph}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class BinaryGraphWriter {
+
+    private final Map<Vertex, Integer> indices = new HashMap<>();
+    private final List<Vertex> vertices = new ArrayList<>();
+    private final Map<String, Integer> strings = new HashMap<>();
+    private final List<byte[]> stringData = new ArrayList<>();
+    private final int[][] sections = new int[BinaryGraph.STRING_DATA][];
+
+    private BinaryGraphWriter() {
+    }
+
+    /**
+     * Writes the specified graph into the specified file.
+     *
+     * @param graph
+     *            Class graph.
+     * @param components
+     *            Strong components of the class graph with calculated longest walks.
+     */
+    static void write(File file, AtomicVertex[] graph, StrongComponent[] components) throws IOException {
+        final BinaryGraphWriter writer = new BinaryGraphWriter();
+        writer.createSections(graph, components);
+        writer.write(file, graph.length, components.length);
+    }
+
+    private void createSections(AtomicVertex[] graph, StrongComponent[] components) {
+        for (final AtomicVertex vertex : graph) {
+            addVertex(vertex);
+        }
+        for (final AtomicVertex vertex : graph) {
+            for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
+                if (!indices.containsKey(vertex.getHeadVertex(i))) {
+                    addVertex(vertex.getHeadVertex(i));
+                }
+            }
+        }
+
+        final int numberOfVertices = vertices.size();
+        final int[] names = new int[numberOfVertices];
+        final int[] types = new int[numberOfVertices];
+        final int[] sources = new int[numberOfVertices];
+        final int[] sizes = new int[numberOfVertices];
+        for (int i = 0; i < numberOfVertices; i++) {
+            final NameAndSourceAttributes attributes = (NameAndSourceAttributes) vertices.get(i).getAttributes();
+            names[i] = getStringIndex(attributes.getName());
+            types[i] = getStringIndex(attributes instanceof ClassAttributes
+                    ? ((ClassAttributes) attributes).getType()
+                    : "");
+            sources[i] = getStringIndex(attributes.getSources());
+            sizes[i] = attributes.getSize();
+        }
+        sections[BinaryGraph.NAMES] = names;
+        sections[BinaryGraph.TYPES] = types;
+        sections[BinaryGraph.SOURCES] = sources;
+        sections[BinaryGraph.SIZES] = sizes;
+
+        final int[] componentIndices = new int[numberOfVertices];
+        final int[] layers = new int[numberOfVertices];
+        Arrays.fill(componentIndices, -1);
+        Arrays.fill(layers, -1);
+        final int[] componentOffsets = new int[components.length + 1];
+        final int[] componentVertices = new int[graph.length];
+        int count = 0;
+        for (int i = 0; i < components.length; i++) {
+            final StrongComponent component = components[i];
+            componentOffsets[i] = count;
+            for (int j = 0, n = component.getNumberOfVertices(); j < n; j++) {
+                final int vertex = indices.get(component.getVertex(j)).intValue();
+                componentIndices[vertex] = i;
+                layers[vertex] = component.getLongestWalk();
+                componentVertices[count++] = vertex;
+            }
+        }
+        componentOffsets[components.length] = count;
+        sections[BinaryGraph.COMPONENTS] = componentIndices;
+        sections[BinaryGraph.LAYERS] = layers;
+        sections[BinaryGraph.COMPONENT_OFFSETS] = componentOffsets;
+        sections[BinaryGraph.COMPONENT_VERTICES] = componentVertices;
+
+        createAdjacency(true, BinaryGraph.OUTGOING_OFFSETS, BinaryGraph.HEADS);
+        createAdjacency(false, BinaryGraph.INCOMING_OFFSETS, BinaryGraph.TAILS);
+
+        final Integer[] order = new Integer[numberOfVertices];
+        for (int i = 0; i < numberOfVertices; i++) {
+            order[i] = Integer.valueOf(i);
+        }
+        final String[] vertexNames = new String[numberOfVertices];
+        for (int i = 0; i < numberOfVertices; i++) {
+            vertexNames[i] = ((NameAndSourceAttributes) vertices.get(i).getAttributes()).getName();
+        }
+        Arrays.sort(order, (i1, i2) -> vertexNames[i1.intValue()].compareTo(vertexNames[i2.intValue()]));
+        final int[] nameOrder = new int[numberOfVertices];
+        for (int i = 0; i < numberOfVertices; i++) {
+            nameOrder[i] = order[i].intValue();
+        }
+        sections[BinaryGraph.NAME_ORDER] = nameOrder;
+
+        final int[] stringOffsets = new int[stringData.size() + 1];
+        for (int i = 0, n = stringData.size(); i < n; i++) {
+            stringOffsets[i + 1] = stringOffsets[i] + stringData.get(i).length;
+        }
+        sections[BinaryGraph.STRING_OFFSETS] = stringOffsets;
+    }
+
+    private void addVertex(Vertex vertex) {
+        indices.put(vertex, Integer.valueOf(vertices.size()));
+        vertices.add(vertex);
+    }
+
+    private void createAdjacency(boolean outgoing, int offsetsSection, int adjacentSection) {
+        final int[] offsets = new int[vertices.size() + 1];
+        final List<Integer> adjacentVertices = new ArrayList<>();
+        for (int i = 0, n = vertices.size(); i < n; i++) {
+            final Vertex vertex = vertices.get(i);
+            offsets[i] = adjacentVertices.size();
+            final int numberOfArcs = outgoing ? vertex.getNumberOfOutgoingArcs() : vertex.getNumberOfIncomingArcs();
+            for (int j = 0; j < numberOfArcs; j++) {
+                final Integer index = indices.get(outgoing ? vertex.getHeadVertex(j) : vertex.getTailVertex(j));
+                if (index != null) {
+                    adjacentVertices.add(index);
+                }
+            }
+        }
+        offsets[vertices.size()] = adjacentVertices.size();
+        final int[] adjacent = new int[adjacentVertices.size()];
+        for (int i = 0; i < adjacent.length; i++) {
+            adjacent[i] = adjacentVertices.get(i).intValue();
+        }
+        sections[offsetsSection] = offsets;
+        sections[adjacentSection] = adjacent;
+    }
+
+    private int getStringIndex(String string) {
+        Integer index = strings.get(string);
+        if (index == null) {
+            index = Integer.valueOf(stringData.size());
+            strings.put(string, index);
+            stringData.add(string.getBytes(StandardCharsets.UTF_8));
+        }
+        return index.intValue();
+    }
+
+    private void write(File file, int numberOfGraphVertices, int numberOfComponents) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(BinaryGraph.MAGIC);
+            out.writeInt(BinaryGraph.VERSION);
+            out.writeInt(vertices.size());
+            out.writeInt(numberOfGraphVertices);
+            out.writeInt(sections[BinaryGraph.HEADS].length);
+            out.writeInt(numberOfComponents);
+            out.writeInt(stringData.size());
+            out.writeInt(0);
+            long offset = BinaryGraph.HEADER_SIZE + 8 * BinaryGraph.NUMBER_OF_SECTIONS;
+            for (final int[] section : sections) {
+                out.writeLong(offset);
+                offset += 4L * section.length;
+            }
+            out.writeLong(offset);
+            for (final int[] section : sections) {
+                for (final int value : section) {
+                    out.writeInt(value);
+                }
+            }
+            for (final byte[] bytes : stringData) {
+                out.write(bytes);
+            }
+        }
+    }
+}
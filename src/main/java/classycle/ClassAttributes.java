@@ -30,8 +30,9 @@ package classycle;
  * <ul>
  * <li>fully-qualified class name
  * <li>type (interface, abstract, concrete, unknown)
- * <li>flag <tt>innerClass</tt>
+ * <li>flag <tt>innerClass</tt> (derived from the name)
  * <li>size of the class file
+ * <li>name of the module (optional)
  * </ul>
  *
  * @author Franz-Josef Elmer
@@ -42,9 +43,11 @@ public class ClassAttributes extends NameAndSourceAttributes {
     public static final String INTERFACE = "interface", ABSTRACT_CLASS = "abstract class", CLASS = "class",
             UNKNOWN = "unknown external class";
 
+    private final PackageName packageName;
+    private final String simpleName;
     private final String type;
-    private final boolean innerClass;
     private final int size;
+    private final String module;
 
     /**
      * Creates an instance based on the specified name, type, and size. The innerclass flag will be set if the name
@@ -60,13 +63,111 @@ public class ClassAttributes extends NameAndSourceAttributes {
      *            Size.
      */
     public ClassAttributes(String name, String source, String type, int size) {
-        super(name);
+        this(name, source, type, size, null);
+    }
+
+    /**
+     * Creates an instance based on the specified name, type, size, and module. The innerclass flag will be set if the
+     * name contains a '$' character. The name isn't stored as it is but as its {@link PackageName package} and its
+     * simple name. The fully-qualified name is created by {@link #getName()}.
+     *
+     * @param name
+     *            Fully-qualified class name.
+     * @param source
+     *            Optional source of the class file. Can be <code>null</code>.
+     * @param type
+     *            Type.
+     * @param size
+     *            Size.
+     * @param module
+     *            Name of the module declared by the module descriptor of the source. Can be <code>null</code>.
+     */
+    public ClassAttributes(String name, String source, String type, int size, String module) {
+        if (name == null) {
+            packageName = null;
+            simpleName = null;
+        } else {
+            final int index = name.lastIndexOf('.');
+            packageName = PackageName.of(name, index);
+            simpleName = index < 0 ? name : name.substring(index + 1);
+        }
         if (source != null) {
             addSource(source);
         }
         this.type = type;
-        innerClass = name != null && name.indexOf('$') > 0;
         this.size = size;
+        this.module = module;
+    }
+
+    /**
+     * Creates an instance with the name of the specified attributes and the specified type, size, and module. Package
+     * and simple name are shared with the specified attributes. Sources are not copied.
+     */
+    ClassAttributes(ClassAttributes attributes, String type, int size, String module) {
+        packageName = attributes.packageName;
+        simpleName = attributes.simpleName;
+        this.type = type;
+        this.size = size;
+        this.module = module;
+    }
+
+    /**
+     * Returns the fully-qualified class name. It is created on each call, so callers needing it more than once should
+     * keep it.
+     */
+    @Override
+    public String getName() {
+        return packageName == null ? null : packageName.createClassName(simpleName);
+    }
+
+    /** Returns the package of this class. */
+    PackageName getPackageName() {
+        return packageName;
+    }
+
+    /** Returns the class name without package. */
+    String getSimpleName() {
+        return simpleName;
+    }
+
+    /**
+     * Compares the class name of these attributes with the class name of the specified attributes like
+     * {@link String#compareTo(String)} without creating the names.
+     */
+    int compareNameTo(ClassAttributes attributes) {
+        if (packageName == attributes.packageName) {
+            return simpleName.compareTo(attributes.simpleName);
+        }
+        final int length1 = getNameLength();
+        final int length2 = attributes.getNameLength();
+        for (int i = 0, n = Math.min(length1, length2); i < n; i++) {
+            final char c1 = getNameCharAt(i);
+            final char c2 = attributes.getNameCharAt(i);
+            if (c1 != c2) {
+                return c1 - c2;
+            }
+        }
+        return length1 - length2;
+    }
+
+    /** Returns the length of the fully-qualified class name without creating it. */
+    int getNameLength() {
+        return packageName.isDefaultPackage() ? simpleName.length()
+                : packageName.getName().length() + 1 + simpleName.length();
+    }
+
+    private char getNameCharAt(int index) {
+        if (!packageName.isDefaultPackage()) {
+            final String prefix = packageName.getName();
+            if (index < prefix.length()) {
+                return prefix.charAt(index);
+            }
+            if (index == prefix.length()) {
+                return '.';
+            }
+            index -= prefix.length() + 1;
+        }
+        return simpleName.charAt(index);
     }
 
     /** Returns the size of the class file in bytes. */
@@ -84,15 +185,31 @@ public class ClassAttributes extends NameAndSourceAttributes {
         return type;
     }
 
-    /** Returns <tt>true</tt> in the case of an inner class. */
+    /**
+     * Returns the name of the module declared by the module descriptor (<tt>module-info.class</tt>) of the source of
+     * this class.
+     *
+     * @return <tt>null</tt> if unknown, e.g. for a class of a jar file without module descriptor.
+     */
+    public String getModule() {
+        return module;
+    }
+
+    /** Returns <tt>true</tt> in the case of an inner class, i.e. the class name contains a '$' after its start. */
     public boolean isInnerClass() {
-        return innerClass;
+        if (packageName == null) {
+            return false;
+        }
+        if (packageName.isDefaultPackage()) {
+            return simpleName.indexOf('$') > 0;
+        }
+        return packageName.getName().indexOf('$') > 0 || simpleName.indexOf('$') >= 0;
     }
 
     /** Returns the attributes as a string for pretty printing. */
     @Override
     public String toString() {
-        final StringBuilder builder = new StringBuilder(innerClass ? "inner " : "");
+        final StringBuilder builder = new StringBuilder(isInnerClass() ? "inner " : "");
         builder.append(type).append(' ').append(getName());
         if (size > 0) {
             builder.append(" (").append(size).append(" bytes)");
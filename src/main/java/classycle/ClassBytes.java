@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Content of a class file held in memory, e.g. freshly compiled bytecode of a build tool. Instances are the input of
+ * {@link Parser#readClasses(Iterable, classycle.util.StringPattern, classycle.util.StringPattern, boolean)} and of
+ * {@link Analyser#Analyser(Iterable, classycle.util.StringPattern, classycle.util.StringPattern, boolean)}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public final class ClassBytes {
+
+    private final String nameHint;
+    private final String source;
+    private final ByteBuffer bytes;
+
+    /**
+     * Creates an instance for the remaining bytes of the specified buffer. The buffer is neither copied nor modified.
+     * Its position and limit are not changed by parsing.
+     *
+     * @param nameHint
+     *            Name of the class or class file used in error messages. The name of the class is always read from the
+     *            class file. Can be <tt>null</tt>.
+     * @param source
+     *            Source of the class file, e.g. a folder or jar file name. Can be <tt>null</tt>.
+     * @param bytes
+     *            Content of the class file.
+     * @throws IllegalArgumentException
+     *             if <tt>bytes</tt> is <tt>null</tt>.
+     */
+    public ClassBytes(String nameHint, String source, ByteBuffer bytes) {
+        if (bytes == null) {
+            throw new IllegalArgumentException("Undefined bytes of class file " + nameHint);
+        }
+        this.nameHint = nameHint;
+        this.source = source;
+        this.bytes = bytes;
+    }
+
+    /**
+     * Creates an instance for the specified array. The array is not copied.
+     *
+     * @see #ClassBytes(String, String, ByteBuffer)
+     */
+    public ClassBytes(String nameHint, String source, byte[] bytes) {
+        this(nameHint, source, bytes == null ? null : ByteBuffer.wrap(bytes));
+    }
+
+    /** Returns the name hint used in error messages. */
+    public String getNameHint() {
+        return nameHint;
+    }
+
+    /** Returns the source of the class file. */
+    public String getSource() {
+        return source;
+    }
+
+    /** Returns a read-only view of the content of the class file. */
+    public ByteBuffer getBytes() {
+        return bytes.asReadOnlyBuffer();
+    }
+
+    /** Returns the number of bytes of the class file. */
+    public int getSize() {
+        return bytes.remaining();
+    }
+}
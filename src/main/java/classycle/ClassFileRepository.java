@@ -0,0 +1,313 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import classycle.graph.AtomicVertex;
+import classycle.graph.GraphChange;
+import classycle.util.StringPattern;
+import classycle.util.TrueStringPattern;
+
+/**
+ * Repository of parsed class files. In contrast to {@link Parser#readClassFiles} the parsed classes are kept for each
+ * class file or zip/jar/war/ear file. Thus, changed files can be re-read without parsing all the others again.
+ * <p>
+ * The elements of <tt>classFiles</tt> are interpreted in the same way as in {@link Parser#readClassFiles}. The
+ * classes of the run-time image (<tt>jrt:/</tt>) are read only once because it does not change. Zip/jar/war/ear and
+ * jmod files are read into the heap instead of being memory-mapped, so they aren't locked after reading and can be
+ * replaced while the repository is in use.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class ClassFileRepository {
+
+    private final String[] classFiles;
+    private final File[] roots;
+    private final StringPattern pattern;
+    private final StringPattern reflectionPattern;
+    private final boolean mergeInnerClasses;
+    private final Map<File, List<UnresolvedNode>> nodesByFile = new LinkedHashMap<>();
+    private ClassGraph classGraph;
+
+    /**
+     * Creates an instance for the specified files or folders. Short-cut of
+     * <tt>new ClassFileRepository(classFiles, new {@link TrueStringPattern}(), null, false);</tt>
+     */
+    public ClassFileRepository(String[] classFiles) {
+        this(classFiles, new TrueStringPattern(), null, false);
+    }
+
+    /**
+     * Creates an instance for the specified files or folders. Note, that the constructor does not read anything.
+     *
+     * @param classFiles
+     *            Absolute or relative file names.
+     * @param pattern
+     *            Pattern fully qualified class names have to match in order to be added to the graph.
+     * @param reflectionPattern
+     *            Pattern ordinary string constants of a class file have to fullfill in order to be handled as class
+     *            references. Can be <tt>null</tt>.
+     * @param mergeInnerClasses
+     *            If <code>true</code> merge inner classes with its outer class
+     */
+    public ClassFileRepository(String[] classFiles, StringPattern pattern, StringPattern reflectionPattern,
+            boolean mergeInnerClasses) {
+        this.classFiles = classFiles;
+        this.pattern = pattern;
+        this.reflectionPattern = reflectionPattern;
+        this.mergeInnerClasses = mergeInnerClasses;
+        roots = new File[classFiles.length];
+        for (int i = 0; i < classFiles.length; i++) {
+            roots[i] = normalize(new File(classFiles[i]));
+        }
+    }
+
+    private static File normalize(File file) {
+        return file.toPath().toAbsolutePath().normalize().toFile();
+    }
+
+    /** Returns the file names as delivered to the constructor. */
+    public String[] getClassFiles() {
+        return classFiles;
+    }
+
+    /** Returns the absolute and normalized files or folders as delivered to the constructor. */
+    public File[] getRoots() {
+        return roots.clone();
+    }
+
+    public StringPattern getPattern() {
+        return pattern;
+    }
+
+    public StringPattern getReflectionPattern() {
+        return reflectionPattern;
+    }
+
+    public boolean isMergeInnerClasses() {
+        return mergeInnerClasses;
+    }
+
+    /**
+     * Reads all class files and creates the class graph.
+     *
+     * @throws IOException
+     *             if a problem occured during reading or if a file is neither a class file, a zip/jar/war/ear file, nor
+     *             a folder.
+     */
+    public AtomicVertex[] readClassFiles() throws IOException {
+        nodesByFile.clear();
+        Parser.beginParse();
+        try {
+            for (int i = 0; i < roots.length; i++) {
+                final File root = roots[i];
+                if (Parser.isRuntimeImage(classFiles[i])) {
+                    final List<UnresolvedNode> list = new ArrayList<>();
+                    Parser.analyseRuntimeImage(classFiles[i], list, reflectionPattern);
+                    nodesByFile.put(root, list);
+                    continue;
+                }
+                if (!root.isDirectory() && !root.getName().endsWith(".class") && !Parser.isZipFile(root)
+                        && !Parser.isModuleFile(root)) {
+                    throw new IOException(classFiles[i] + " is an invalid file.");
+                }
+                read(i, root, nodesByFile);
+            }
+        } finally {
+            Parser.endParse();
+        }
+        final List<UnresolvedNode> unresolvedNodes = new ArrayList<>();
+        for (final List<UnresolvedNode> nodes : nodesByFile.values()) {
+            unresolvedNodes.addAll(nodes);
+        }
+        Parser.assignModules(unresolvedNodes, unresolvedNodes);
+        classGraph = new ClassGraph(unresolvedNodes, pattern, mergeInnerClasses);
+        return classGraph.getGraph();
+    }
+
+    /**
+     * Re-reads the specified files and updates the class graph incrementally. A file can be a class file, a
+     * zip/jar/war/ear file or a folder which is (or is part of) one of the files or folders this repository has been
+     * created for. All other files are ignored. Files which do no longer exist are removed from the repository. A
+     * folder is read again completely.
+     * <p>
+     * Vertices of unchanged classes are not touched. Vertices of changed classes keep their identity but get new
+     * attributes and outgoing arcs.
+     *
+     * @return the changes of the class graph. Use {@link #getGraph()} to get the updated graph.
+     * @throws IOException
+     *             if a problem occured during reading.
+     * @throws IllegalStateException
+     *             if {@link #readClassFiles()} has not been invoked.
+     */
+    public GraphChange refresh(Collection<File> files) throws IOException {
+        if (classGraph == null) {
+            throw new IllegalStateException("refresh() called before readClassFiles().");
+        }
+        // read everything before the repository is changed in order to stay consistent if reading fails
+        final Map<File, Map<File, List<UnresolvedNode>>> newNodesByFile = new LinkedHashMap<>();
+        Parser.beginParse();
+        try {
+            for (final File f : files) {
+                final File file = normalize(f);
+                final int rootIndex = getRootIndex(file);
+                if (rootIndex >= 0) {
+                    final Map<File, List<UnresolvedNode>> newNodes = new LinkedHashMap<>();
+                    if (file.exists()) {
+                        read(rootIndex, file, newNodes);
+                    }
+                    newNodesByFile.put(file, newNodes);
+                }
+            }
+        } finally {
+            Parser.endParse();
+        }
+        final List<UnresolvedNode> removedNodes = new ArrayList<>();
+        final List<UnresolvedNode> addedNodes = new ArrayList<>();
+        for (final Map.Entry<File, Map<File, List<UnresolvedNode>>> fileEntry : newNodesByFile.entrySet()) {
+            final Map<File, List<UnresolvedNode>> newNodes = fileEntry.getValue();
+            removeNodes(fileEntry.getKey(), newNodes, removedNodes);
+            for (final Map.Entry<File, List<UnresolvedNode>> entry : newNodes.entrySet()) {
+                final List<UnresolvedNode> oldNodes = nodesByFile.put(entry.getKey(), entry.getValue());
+                if (oldNodes != null) {
+                    removedNodes.addAll(oldNodes);
+                }
+                addedNodes.addAll(entry.getValue());
+            }
+        }
+        final List<UnresolvedNode> allNodes = new ArrayList<>();
+        for (final List<UnresolvedNode> nodes : nodesByFile.values()) {
+            allNodes.addAll(nodes);
+        }
+        Parser.assignModules(allNodes, addedNodes);
+        return classGraph.update(removedNodes, addedNodes);
+    }
+
+    /**
+     * Returns the current class graph.
+     *
+     * @throws IllegalStateException
+     *             if {@link #readClassFiles()} has not been invoked.
+     */
+    public AtomicVertex[] getGraph() {
+        if (classGraph == null) {
+            throw new IllegalStateException("getGraph() called before readClassFiles().");
+        }
+        return classGraph.getGraph();
+    }
+
+    private int getRootIndex(File file) {
+        final String path = file.getPath();
+        for (int i = 0; i < roots.length; i++) {
+            final String rootPath = roots[i].getPath();
+            if (path.equals(rootPath)
+                    || (path.startsWith(rootPath) && path.charAt(rootPath.length()) == File.separatorChar)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void removeNodes(File file, Map<File, List<UnresolvedNode>> newNodes, List<UnresolvedNode> removedNodes) {
+        final String prefix = file.getPath() + File.separatorChar;
+        for (final Iterator<Map.Entry<File, List<UnresolvedNode>>> iterator = nodesByFile.entrySet().iterator();
+                iterator.hasNext();) {
+            final Map.Entry<File, List<UnresolvedNode>> entry = iterator.next();
+            final File key = entry.getKey();
+            if (!newNodes.containsKey(key) && (key.equals(file) || key.getPath().startsWith(prefix))) {
+                removedNodes.addAll(entry.getValue());
+                iterator.remove();
+            }
+        }
+    }
+
+    private void read(int rootIndex, File file, Map<File, List<UnresolvedNode>> nodes) throws IOException {
+        final File root = roots[rootIndex];
+        final String classFile = classFiles[rootIndex];
+        if (root.isDirectory()) {
+            if (file.isDirectory()) {
+                readFolder(file, classFile, nodes);
+                if (file.equals(root)) {
+                    final File[] files = file.listFiles(Parser::isZipFile);
+                    for (int i = 0; i < files.length; i++) {
+                        readZipFile(files[i], Parser.createSourceName(classFile, files[i].getName()), nodes);
+                    }
+                    for (final File moduleFile : file.listFiles(Parser::isModuleFile)) {
+                        nodes.put(moduleFile, Parser.analyseModuleFile(moduleFile, reflectionPattern, false));
+                    }
+                }
+            } else if (file.getName().endsWith(".class")) {
+                readClassFile(file, classFile, nodes);
+            } else if (Parser.isZipFile(file) && root.equals(file.getParentFile())) {
+                readZipFile(file, Parser.createSourceName(classFile, file.getName()), nodes);
+            } else if (Parser.isModuleFile(file) && root.equals(file.getParentFile())) {
+                nodes.put(file, Parser.analyseModuleFile(file, reflectionPattern, false));
+            }
+        } else if (file.equals(root)) {
+            if (file.getName().endsWith(".class")) {
+                readClassFile(file, null, nodes);
+            } else if (Parser.isZipFile(file)) {
+                readZipFile(file, classFile, nodes);
+            } else if (Parser.isModuleFile(file)) {
+                nodes.put(file, Parser.analyseModuleFile(file, reflectionPattern, false));
+            }
+        }
+    }
+
+    private void readClassFile(File file, String source, Map<File, List<UnresolvedNode>> nodes) throws IOException {
+        final List<UnresolvedNode> list = new ArrayList<>(1);
+        list.add(Parser.extractNode(file, source, reflectionPattern));
+        nodes.put(file, list);
+    }
+
+    private void readFolder(File folder, String source, Map<File, List<UnresolvedNode>> nodes) throws IOException {
+        final String[] files = folder.list();
+        if (files != null) {
+            for (int i = 0; i < files.length; i++) {
+                final File child = new File(folder, files[i]);
+                if (child.isDirectory()) {
+                    readFolder(child, source, nodes);
+                } else if (files[i].endsWith(".class")) {
+                    readClassFile(child, source, nodes);
+                }
+            }
+        }
+    }
+
+    private void readZipFile(File file, String source, Map<File, List<UnresolvedNode>> nodes) throws IOException {
+        final List<UnresolvedNode> list = new ArrayList<>();
+        Parser.analyseClassFiles(file, source, list, reflectionPattern, false);
+        nodes.put(file, list);
+    }
+
+}
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import classycle.graph.AtomicVertex;
+import classycle.graph.GraphChange;
+import classycle.graph.Vertex;
+import classycle.util.StringPattern;
+
+/**
+ * Class graph which can be updated incrementally. Unresolved nodes can be added and removed. Only the vertices of the
+ * affected classes are updated. All other vertices and arcs are left untouched. Vertices keep their identity as long
+ * as the class (or an external reference to it) exists. The initial graph is identical to the graph created by
+ * {@link Parser#readClassFiles}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+class ClassGraph {
+
+    private final StringPattern pattern;
+    private final boolean mergeInnerClasses;
+    /** Unresolved nodes of all graph vertices, keyed by the normalized class name. */
+    private final Map<String, List<UnresolvedNode>> nodesByName = new HashMap<>();
+    /** All vertices including the external ones. */
+    private final Map<String, AtomicVertex> vertices = new HashMap<>();
+    private final Map<String, AtomicVertex> graphVertices = new LinkedHashMap<>();
+    private AtomicVertex[] graph;
+
+    /**
+     * Creates an instance for the specified unresolved nodes.
+     *
+     * @param unresolvedNodes
+     *            All nodes with unresolved references.
+     * @param pattern
+     *            Pattern fully qualified class names have to match in order to be added to the graph.
+     * @param mergeInnerClasses
+     *            Merge inner class nodes with their outer class if <code>true</code>.
+     */
+    ClassGraph(List<UnresolvedNode> unresolvedNodes, StringPattern pattern, boolean mergeInnerClasses) {
+        this.pattern = pattern;
+        this.mergeInnerClasses = mergeInnerClasses;
+        graph = Parser.createGraph(unresolvedNodes, pattern, mergeInnerClasses);
+        for (int i = 0, n = unresolvedNodes.size(); i < n; i++) {
+            final UnresolvedNode node = unresolvedNodes.get(i);
+            if (node.isMatchedBy(pattern)) {
+                getNodes(normalize(node)).add(node);
+            }
+        }
+        for (int i = 0; i < graph.length; i++) {
+            final AtomicVertex vertex = graph[i];
+            vertex.reset();
+            graphVertices.put(getName(vertex), vertex);
+            vertices.put(getName(vertex), vertex);
+            for (int j = 0, n = vertex.getNumberOfOutgoingArcs(); j < n; j++) {
+                final AtomicVertex head = (AtomicVertex) vertex.getHeadVertex(j);
+                vertices.put(getName(head), head);
+            }
+        }
+    }
+
+    /** Returns the current graph. External vertices are not part of the array. */
+    AtomicVertex[] getGraph() {
+        if (graph == null) {
+            graph = graphVertices.values().toArray(new AtomicVertex[0]);
+        }
+        return graph;
+    }
+
+    /**
+     * Updates the graph. Nodes not matching the pattern are ignored.
+     *
+     * @param removedNodes
+     *            Nodes which have been part of this graph.
+     * @param addedNodes
+     *            New nodes. A changed class appears as a removed and as an added node.
+     * @return the changes. All vertices and arcs have already been updated.
+     */
+    GraphChange update(Collection<UnresolvedNode> removedNodes, Collection<UnresolvedNode> addedNodes) {
+        final Set<String> names = new LinkedHashSet<>();
+        for (final UnresolvedNode node : removedNodes) {
+            final String name = normalize(node);
+            final List<UnresolvedNode> nodes = nodesByName.get(name);
+            if (node.isMatchedBy(pattern) && nodes != null && removeNode(nodes, node)) {
+                if (nodes.isEmpty()) {
+                    nodesByName.remove(name);
+                }
+                names.add(name);
+            }
+        }
+        for (final UnresolvedNode node : addedNodes) {
+            if (node.isMatchedBy(pattern)) {
+                final String name = normalize(node);
+                getNodes(name).add(node);
+                names.add(name);
+            }
+        }
+
+        final GraphChange change = new GraphChange();
+        final List<String> deletedNames = new ArrayList<>();
+        for (final String name : names) {
+            final List<UnresolvedNode> nodes = nodesByName.get(name);
+            AtomicVertex vertex = vertices.get(name);
+            if (nodes == null) {
+                if (vertex != null && graphVertices.containsKey(name)) {
+                    removeOutgoingArcs(vertex, change);
+                    deletedNames.add(name);
+                }
+            } else {
+                nodes.sort(UnresolvedNode.comparatorByClassName());
+                ClassAttributes attributes = null;
+                for (int i = 0, n = nodes.size(); i < n; i++) {
+                    attributes = GraphBuilder.mergeAttributes(name, attributes, nodes.get(i).getAttributes());
+                }
+                if (vertex == null) {
+                    vertex = new AtomicVertex(attributes);
+                    vertices.put(name, vertex);
+                } else {
+                    vertex.setAttributes(attributes);
+                }
+                if (graphVertices.containsKey(name)) {
+                    change.vertexModified(vertex);
+                } else {
+                    vertex.reset();
+                    graphVertices.put(name, vertex);
+                    change.vertexAdded(vertex);
+                }
+            }
+        }
+        for (final String name : names) {
+            final List<UnresolvedNode> nodes = nodesByName.get(name);
+            if (nodes != null) {
+                updateOutgoingArcs(vertices.get(name), nodes, change);
+            }
+        }
+        for (int i = 0, n = deletedNames.size(); i < n; i++) {
+            final String name = deletedNames.get(i);
+            final AtomicVertex vertex = graphVertices.remove(name);
+            change.vertexRemoved(vertex);
+            if (vertex.getNumberOfIncomingArcs() > 0) {
+                vertex.setAttributes(ClassAttributes.createUnknownClass(name, 0));
+                vertex.setGraphVertex(false);
+            } else {
+                vertices.remove(name);
+            }
+        }
+        for (final GraphChange.Arc arc : change.getRemovedArcs()) {
+            final AtomicVertex head = arc.getHead();
+            final String name = getName(head);
+            if (head.getNumberOfIncomingArcs() == 0 && !graphVertices.containsKey(name)
+                    && vertices.get(name) == head) {
+                vertices.remove(name);
+            }
+        }
+        if (change.getAddedVertices().size() > 0 || change.getRemovedVertices().size() > 0) {
+            graph = null;
+        }
+        return change;
+    }
+
+    private void updateOutgoingArcs(AtomicVertex vertex, List<UnresolvedNode> nodes, GraphChange change) {
+        final Set<AtomicVertex> heads = new LinkedHashSet<>();
+        for (int i = 0, n = nodes.size(); i < n; i++) {
+            for (final Iterator<String> iterator = nodes.get(i).linkIterator(); iterator.hasNext();) {
+                final String name = GraphBuilder.normalize(iterator.next(), mergeInnerClasses);
+                AtomicVertex head = vertices.get(name);
+                if (head == null) {
+                    head = new AtomicVertex(ClassAttributes.createUnknownClass(name, 0));
+                    vertices.put(name, head);
+                }
+                if (vertex != head) {
+                    heads.add(head);
+                }
+            }
+        }
+        final List<AtomicVertex> obsoleteHeads = new ArrayList<>();
+        for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
+            final AtomicVertex head = (AtomicVertex) vertex.getHeadVertex(i);
+            if (!heads.remove(head)) {
+                obsoleteHeads.add(head);
+            }
+        }
+        for (int i = 0, n = obsoleteHeads.size(); i < n; i++) {
+            final AtomicVertex head = obsoleteHeads.get(i);
+            vertex.removeOutgoingArcTo(head);
+            change.arcRemoved(vertex, head);
+        }
+        for (final AtomicVertex head : heads) {
+            vertex.addOutgoingArcTo(head);
+            change.arcAdded(vertex, head);
+        }
+    }
+
+    private static void removeOutgoingArcs(AtomicVertex vertex, GraphChange change) {
+        for (int i = vertex.getNumberOfOutgoingArcs() - 1; i >= 0; i--) {
+            final AtomicVertex head = (AtomicVertex) vertex.getHeadVertex(i);
+            vertex.removeOutgoingArcTo(head);
+            change.arcRemoved(vertex, head);
+        }
+    }
+
+    private static boolean removeNode(List<UnresolvedNode> nodes, UnresolvedNode node) {
+        for (final Iterator<UnresolvedNode> iterator = nodes.iterator(); iterator.hasNext();) {
+            if (iterator.next() == node) {
+                iterator.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<UnresolvedNode> getNodes(String name) {
+        return nodesByName.computeIfAbsent(name, key -> new ArrayList<>(1));
+    }
+
+    private String normalize(UnresolvedNode node) {
+        return GraphBuilder.normalize(node.getAttributes().getName(), mergeInnerClasses);
+    }
+
+    private static String getName(Vertex vertex) {
+        return ((ClassAttributes) vertex.getAttributes()).getName();
+    }
+
+}
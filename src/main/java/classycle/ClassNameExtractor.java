@@ -25,30 +25,38 @@
  ******************************************************************************/
 package classycle;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedHashSet;
-import java.util.Set;
-import classycle.classfile.UTF8Constant;
+import java.util.List;
 
+/**
+ * Extracts the names of the classes referred by a field or method descriptor or a signature. An instance can be reused
+ * for any number of descriptors but it isn't thread-safe.
+ */
 class ClassNameExtractor {
 
-    private final String constant;
-
+    private final List<String> classNames = new ArrayList<>();
+    private String constant;
     private int index;
     private int endIndex;
-    private final Set<String> classNames = new LinkedHashSet<>();
-    private boolean valid = true;
-
-    ClassNameExtractor(UTF8Constant utf8Constant) {
-        constant = utf8Constant.getString();
-        endIndex = constant.length();
-    }
+    private boolean valid;
 
     private boolean endOfTypes() {
         return index >= endIndex || constant.charAt(index) == '>';
     }
 
-    Set<String> extract() {
+    /**
+     * Extracts the class names of the specified descriptor or signature.
+     *
+     * @return the class names in the order of their appearance. The list is empty if <tt>constant</tt> isn't a valid
+     *         descriptor. It is reused by the next call of this method.
+     */
+    List<String> extract(String constant) {
+        this.constant = constant;
+        index = 0;
+        endIndex = constant.length();
+        valid = true;
+        classNames.clear();
         if (getCurrentCharacter() == '<') {
             final int ddIndex = constant.indexOf("::", index);
             if (ddIndex > 0) {
@@ -81,13 +89,16 @@ class ClassNameExtractor {
                 setInvalid();
             }
         }
-        return valid ? classNames : Collections.emptySet();
+        this.constant = null;
+        return valid ? classNames : Collections.emptyList();
     }
 
     private void extractClassName(int endIndex) {
         String className = constant.substring(index, endIndex);
         className = className.replace('/', '.');
-        classNames.add(className);
+        if (!classNames.contains(className)) {
+            classNames.add(className);
+        }
         index = endIndex + 1;
         if (isValid(className) == false) {
             setInvalid();
@@ -41,12 +41,18 @@ public abstract class CommandLine {
     private static final String INCLUDING_CLASSES = "-includingClasses=";
     private static final String EXCLUDING_CLASSES = "-excludingClasses=";
     private static final String REFLECTION_PATTERN = "-reflectionPattern=";
+    private static final String SNAPSHOT = "-snapshot=";
+    private static final String SAVE_SNAPSHOT = "-saveSnapshot=";
+    private static final String DESCRIPTOR_CACHE_SIZE = "-descriptorCacheSize=";
 
     private boolean mergeInnerClasses;
     protected boolean valid = true;
     protected StringPatternSequence pattern = new AndStringPattern();
     protected StringPattern reflectionPattern;
     protected String[] classFiles;
+    private String snapshot;
+    private String saveSnapshot;
+    private int descriptorCacheSize = -1;
 
     public CommandLine(String[] args) {
         int index = 0;
@@ -55,7 +61,7 @@ public abstract class CommandLine {
         }
         classFiles = new String[args.length - index];
         System.arraycopy(args, index, classFiles, 0, classFiles.length);
-        if (classFiles.length == 0) {
+        if (classFiles.length == 0 && snapshot == null) {
             valid = false;
         }
     }
@@ -83,11 +89,44 @@ public abstract class CommandLine {
         return reflectionPattern;
     }
 
+    /**
+     * Returns the snapshot file as defined by the option <tt>-snapshot</tt>. If defined the analysis is loaded from
+     * this file instead of reading class files.
+     *
+     * @return <tt>null</tt> if undefined.
+     */
+    public String getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the file as defined by the option <tt>-saveSnapshot</tt> into which a snapshot of the analysis should be
+     * saved.
+     *
+     * @return <tt>null</tt> if undefined.
+     */
+    public String getSaveSnapshot() {
+        return saveSnapshot;
+    }
+
+    /**
+     * Returns the maximum number of descriptors cached by the parser as defined by the option
+     * <tt>-descriptorCacheSize</tt> (see {@link Parser#setDescriptorCacheSize(int)}). The setting is global for the
+     * JVM.
+     *
+     * @return <tt>-1</tt> if undefined.
+     */
+    public int getDescriptorCacheSize() {
+        return descriptorCacheSize;
+    }
+
     /** Returns the usage of correct command line arguments and options. */
     public String getUsage() {
         return "[" + MERGE_INNER_CLASSES + "] " + "[" + INCLUDING_CLASSES + "<pattern1>,<pattern2>,...] " + "["
                 + EXCLUDING_CLASSES + "<pattern1>,<pattern2>,...] " + "[" + REFLECTION_PATTERN
-                + "<pattern1>,<pattern2>,...] " + "<class files, zip/jar/war/ear files, or folders>";
+                + "<pattern1>,<pattern2>,...] " + "[" + SNAPSHOT + "<file>] " + "[" + SAVE_SNAPSHOT + "<file>] "
+                + "[" + DESCRIPTOR_CACHE_SIZE + "<number>] "
+                + "<class files, zip/jar/war/ear files, jmod files, folders, or jrt:/[<module>]>";
     }
 
     protected void handleOption(String argument) {
@@ -107,6 +146,19 @@ public abstract class CommandLine {
             } else {
                 reflectionPattern = WildCardPattern.createFromsPatterns(patterns, ",");
             }
+        } else if (argument.startsWith(SNAPSHOT)) {
+            snapshot = argument.substring(SNAPSHOT.length());
+        } else if (argument.startsWith(SAVE_SNAPSHOT)) {
+            saveSnapshot = argument.substring(SAVE_SNAPSHOT.length());
+        } else if (argument.startsWith(DESCRIPTOR_CACHE_SIZE)) {
+            try {
+                descriptorCacheSize = Integer.parseInt(argument.substring(DESCRIPTOR_CACHE_SIZE.length()));
+            } catch (final NumberFormatException e) {
+                descriptorCacheSize = -1;
+            }
+            if (descriptorCacheSize < 0) {
+                valid = false;
+            }
         } else {
             valid = false;
         }
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of the class names extracted from field and method descriptors and signatures. Descriptors like
+ * <tt>(Ljava/lang/String;)V</tt> are found in many class files. They are parsed only once as long as they are in the
+ * cache. The cache is thread-safe. It is split into segments which are locked independently. Each segment evicts its
+ * least recently used entry if it is full. An instance lives only while class files are parsed (see
+ * {@link Parser#beginParse()}).
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class DescriptorCache {
+
+    /** Default maximum number of cached descriptors. */
+    static final int DEFAULT_SIZE = 16 * 1024;
+
+    private static final int NUMBER_OF_SEGMENTS = 16;
+    private static final String[] NO_CLASS_NAMES = new String[0];
+
+    private static final class Segment extends LinkedHashMap<String, String[]> {
+
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String[]> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    private final Segment[] segments;
+
+    /**
+     * Creates an instance for the specified maximum number of descriptors.
+     *
+     * @param size
+     *            A positive number.
+     */
+    DescriptorCache(int size) {
+        final int numberOfSegments = Math.min(NUMBER_OF_SEGMENTS, size);
+        segments = new Segment[numberOfSegments];
+        for (int i = 0; i < numberOfSegments; i++) {
+            segments[i] = new Segment((size + numberOfSegments - 1 - i) / numberOfSegments);
+        }
+    }
+
+    /**
+     * Returns the class names of the specified descriptor. They are extracted by the specified extractor if the
+     * descriptor isn't cached.
+     *
+     * @return the class names in the order of their appearance. The array must not be modified. It is empty if
+     *         <tt>descriptor</tt> isn't a valid descriptor.
+     */
+    String[] getClassNames(String descriptor, ClassNameExtractor extractor) {
+        final Segment segment = segments[(descriptor.hashCode() & 0x7fffffff) % segments.length];
+        String[] classNames;
+        synchronized (segment) {
+            classNames = segment.get(descriptor);
+        }
+        if (classNames != null) {
+            ParserCounters.increment(Metrics.Counter.DESCRIPTOR_CACHE_HITS);
+            return classNames;
+        }
+        final List<String> extractedNames = extractor.extract(descriptor);
+        classNames = extractedNames.isEmpty() ? NO_CLASS_NAMES : extractedNames.toArray(NO_CLASS_NAMES);
+        synchronized (segment) {
+            segment.put(descriptor, classNames);
+        }
+        return classNames;
+    }
+
+}
@@ -45,17 +45,19 @@ class GraphBuilder {
      *         result array.
      */
     static AtomicVertex[] createGraph(UnresolvedNode[] unresolvedNodes, boolean mergeInnerClasses) {
+        final BuildGraphEvent event = new BuildGraphEvent();
+        event.begin();
         Arrays.sort(unresolvedNodes, UnresolvedNode.comparatorByClassName());
-        final Map<String, AtomicVertex> vertices = createVertices(unresolvedNodes, mergeInnerClasses);
+        final String[] names = new String[unresolvedNodes.length];
+        final Map<String, AtomicVertex> vertices = createVertices(unresolvedNodes, names, mergeInnerClasses);
         final AtomicVertex[] result = vertices.values().toArray(new AtomicVertex[0]);
 
         // Add arces to vertices
         for (int i = 0; i < unresolvedNodes.length; i++) {
             final UnresolvedNode node = unresolvedNodes[i];
-            String name = normalize(node.getAttributes().getName(), mergeInnerClasses);
-            final AtomicVertex vertex = vertices.get(name);
+            final AtomicVertex vertex = vertices.get(names[i]);
             for (final Iterator<String> iterator = node.linkIterator(); iterator.hasNext();) {
-                name = normalize(iterator.next(), mergeInnerClasses);
+                final String name = normalize(iterator.next(), mergeInnerClasses);
                 AtomicVertex head = vertices.get(name);
                 if (head == null) {
                     head = new AtomicVertex(ClassAttributes.createUnknownClass(name, 0));
@@ -67,36 +69,75 @@ class GraphBuilder {
             }
         }
 
+        if (event.shouldCommit()) {
+            event.nodes = unresolvedNodes.length;
+            event.vertices = vertices.size();
+            for (int i = 0; i < result.length; i++) {
+                event.arcs += result[i].getNumberOfOutgoingArcs();
+            }
+            event.mergeInnerClasses = mergeInnerClasses;
+            event.commit();
+        }
         return result;
     }
 
-    private static Map<String, AtomicVertex> createVertices(UnresolvedNode[] unresolvedNodes,
+    /**
+     * Creates the vertices of the specified nodes. The (normalized) name of each node is stored in <tt>names</tt>, so
+     * it is created only once.
+     */
+    private static Map<String, AtomicVertex> createVertices(UnresolvedNode[] unresolvedNodes, String[] names,
             boolean mergeInnerClasses) {
         final Map<String, AtomicVertex> vertices = new HashMap<>();
         for (int i = 0; i < unresolvedNodes.length; i++) {
             final ClassAttributes attributes = unresolvedNodes[i].getAttributes();
-            String type = attributes.getType();
-            final String originalName = attributes.getName();
-            int size = attributes.getSize();
-            final String name = normalize(originalName, mergeInnerClasses);
-            AtomicVertex vertex = vertices.get(name);
-            if (vertex != null) {
-                final ClassAttributes vertexAttributes = (ClassAttributes) vertex.getAttributes();
-                size += vertexAttributes.getSize();
-                if (name.equals(originalName) == false) {
-                    type = vertexAttributes.getType();
-                }
-                attributes.addSourcesOf(vertexAttributes);
-            }
-            final ClassAttributes newAttributes = new ClassAttributes(name, null, type, size);
-            newAttributes.addSourcesOf(attributes);
-            vertex = new AtomicVertex(newAttributes);
-            vertices.put(name, vertex);
+            final String name = normalize(attributes.getName(), mergeInnerClasses);
+            names[i] = name;
+            final AtomicVertex vertex = vertices.get(name);
+            final ClassAttributes vertexAttributes = vertex == null ? null : (ClassAttributes) vertex.getAttributes();
+            vertices.put(name, new AtomicVertex(mergeAttributes(name, vertexAttributes, attributes)));
         }
         return vertices;
     }
 
-    private static String normalize(String name, boolean mergeInnerClasses) {
+    /**
+     * Merges the attributes of an unresolved node into the attributes of the vertex with the specified (normalized)
+     * name. Nodes have to be merged in the order defined by {@link UnresolvedNode#comparatorByClassName()}.
+     *
+     * @param name
+     *            Normalized class name of <tt>attributes</tt>.
+     * @param vertexAttributes
+     *            Attributes of the nodes merged so far. <tt>null</tt> for the first node.
+     * @param attributes
+     *            Attributes of the node to be merged. They are left untouched because the unresolved nodes might be
+     *            used again for rebuilding the graph.
+     * @return new attributes.
+     */
+    static ClassAttributes mergeAttributes(String name, ClassAttributes vertexAttributes,
+            ClassAttributes attributes) {
+        String type = attributes.getType();
+        int size = attributes.getSize();
+        String module = attributes.getModule();
+        if (vertexAttributes != null) {
+            size += vertexAttributes.getSize();
+            if (name.length() != attributes.getNameLength()) {
+                type = vertexAttributes.getType();
+            }
+            if (vertexAttributes.getModule() != null) {
+                module = vertexAttributes.getModule();
+            }
+        }
+        // The normalized name is a prefix of the class name. If both are equal package and simple name are shared.
+        final ClassAttributes newAttributes = name.length() == attributes.getNameLength()
+                ? new ClassAttributes(attributes, type, size, module)
+                : new ClassAttributes(name, null, type, size, module);
+        if (vertexAttributes != null) {
+            newAttributes.addSourcesOf(vertexAttributes);
+        }
+        newAttributes.addSourcesOf(attributes);
+        return newAttributes;
+    }
+
+    static String normalize(String name, boolean mergeInnerClasses) {
         if (mergeInnerClasses) {
             final int index = name.indexOf('$');
             if (index >= 0) {
@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.PrintWriter;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Snapshot of the performance metrics of an {@link Analyser} (see {@link Analyser#getMetrics()}). It contains
+ * <ul>
+ * <li>the durations of the phases of the analysis in nanoseconds. Phases may be nested, e.g. <tt>saveSnapshot</tt>
+ * includes <tt>createPackageGraph</tt> if the package graph has not been created before.
+ * <li>the {@link Counter counters} of the parser accumulated while the class graph has been created or refreshed.
+ * <li>the size of class graph and package graph and the size histogram of the strong components of the class graph.
+ * <li>estimates of the peak heap usage: the maximum used heap sampled at the end of each phase and the sum of the
+ * peak usages of the heap memory pools of the JVM.
+ * </ul>
+ * Values which have not been calculated are <tt>-1</tt>.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class Metrics {
+
+    /**
+     * Counters of the parser. Each analyser counts only its own parses.
+     */
+    public enum Counter {
+        /** Number of class files read. */
+        CLASS_FILES("classFiles"),
+        /** Number of bytes of the class files read. */
+        BYTES("bytes"),
+        /** Number of zip/jar/war/ear files opened. */
+        ARCHIVES("archives"),
+        /** Number of constant pool entries decoded. */
+        CONSTANTS("constants"),
+        /** Number of UTF8 constants parsed as field or method descriptors. */
+        DESCRIPTORS("descriptors"),
+        /** Number of descriptors whose class names have been found in the descriptor cache. */
+        DESCRIPTOR_CACHE_HITS("descriptorCacheHits");
+
+        private final String key;
+
+        private Counter(String key) {
+            this.key = key;
+        }
+
+        /** Returns the key of this counter in the JSON representation. */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final Map<String, Long> phaseDurations;
+    private final Map<Counter, Long> counters;
+    private final int numberOfClasses;
+    private final int numberOfExternalClasses;
+    private final int numberOfArcs;
+    private final int numberOfClassComponents;
+    private final SortedMap<Integer, Integer> componentSizeHistogram;
+    private final int numberOfPackages;
+    private final int numberOfPackageArcs;
+    private final int numberOfPackageComponents;
+    private final long sampledPeakHeap;
+    private final long poolPeakHeap;
+
+    Metrics(Map<String, Long> phaseDurations, Map<Counter, Long> counters, int numberOfClasses,
+            int numberOfExternalClasses, int numberOfArcs, int[] componentSizes, int numberOfPackages,
+            int numberOfPackageArcs, int numberOfPackageComponents, long sampledPeakHeap, long poolPeakHeap) {
+        this.phaseDurations = Collections.unmodifiableMap(new LinkedHashMap<>(phaseDurations));
+        this.counters = Collections.unmodifiableMap(new EnumMap<>(counters));
+        this.numberOfClasses = numberOfClasses;
+        this.numberOfExternalClasses = numberOfExternalClasses;
+        this.numberOfArcs = numberOfArcs;
+        final TreeMap<Integer, Integer> histogram = new TreeMap<>();
+        if (componentSizes != null) {
+            for (int i = 0; i < componentSizes.length; i++) {
+                histogram.merge(componentSizes[i], 1, Integer::sum);
+            }
+        }
+        numberOfClassComponents = componentSizes == null ? -1 : componentSizes.length;
+        componentSizeHistogram = Collections.unmodifiableSortedMap(histogram);
+        this.numberOfPackages = numberOfPackages;
+        this.numberOfPackageArcs = numberOfPackageArcs;
+        this.numberOfPackageComponents = numberOfPackageComponents;
+        this.sampledPeakHeap = sampledPeakHeap;
+        this.poolPeakHeap = poolPeakHeap;
+    }
+
+    /** Returns the durations of the phases in nanoseconds in the order of their first invocation. */
+    public Map<String, Long> getPhaseDurations() {
+        return phaseDurations;
+    }
+
+    /** Returns the duration of the specified phase in nanoseconds or <tt>-1</tt> if it has not been invoked. */
+    public long getPhaseDuration(String phase) {
+        final Long duration = phaseDurations.get(phase);
+        return duration == null ? -1 : duration.longValue();
+    }
+
+    /** Returns the value of the specified counter accumulated by the analyser. */
+    public long getCounter(Counter counter) {
+        final Long value = counters.get(counter);
+        return value == null ? 0 : value.longValue();
+    }
+
+    /** Returns the number of classes of the class graph. */
+    public int getNumberOfClasses() {
+        return numberOfClasses;
+    }
+
+    /** Returns the number of external classes used by the classes of the class graph. */
+    public int getNumberOfExternalClasses() {
+        return numberOfExternalClasses;
+    }
+
+    /** Returns the number of arcs of the class graph including arcs to external classes. */
+    public int getNumberOfArcs() {
+        return numberOfArcs;
+    }
+
+    /** Returns the number of strong components of the class graph. */
+    public int getNumberOfClassComponents() {
+        return numberOfClassComponents;
+    }
+
+    /**
+     * Returns the histogram of the sizes of the strong components of the class graph. The keys are the numbers of
+     * classes, the values the numbers of strong components of that size. The histogram is empty if the class graph has
+     * not been condensed.
+     */
+    public SortedMap<Integer, Integer> getComponentSizeHistogram() {
+        return componentSizeHistogram;
+    }
+
+    /** Returns the number of packages. */
+    public int getNumberOfPackages() {
+        return numberOfPackages;
+    }
+
+    /** Returns the number of arcs of the package graph including arcs to external packages. */
+    public int getNumberOfPackageArcs() {
+        return numberOfPackageArcs;
+    }
+
+    /** Returns the number of strong components of the package graph. */
+    public int getNumberOfPackageComponents() {
+        return numberOfPackageComponents;
+    }
+
+    /** Returns the maximum used heap in bytes sampled at the end of each phase. */
+    public long getSampledPeakHeap() {
+        return sampledPeakHeap;
+    }
+
+    /** Returns the sum of the peak usages of the heap memory pools of the JVM in bytes. */
+    public long getPoolPeakHeap() {
+        return poolPeakHeap;
+    }
+
+    /**
+     * Prints these metrics as a JSON object into the specified writer. Durations are in nanoseconds, heap usages in
+     * bytes.
+     */
+    public void printJSON(PrintWriter writer) {
+        writer.println("{");
+        writer.print("  \"phases\": {");
+        String separator = "";
+        for (final Map.Entry<String, Long> entry : phaseDurations.entrySet()) {
+            writer.print(separator + "\n    \"" + entry.getKey() + "\": " + entry.getValue());
+            separator = ",";
+        }
+        writer.println(separator.length() == 0 ? "}," : "\n  },");
+        writer.print("  \"counters\": {");
+        separator = "";
+        for (final Counter counter : Counter.values()) {
+            writer.print(separator + "\n    \"" + counter.getKey() + "\": " + getCounter(counter));
+            separator = ",";
+        }
+        writer.println("\n  },");
+        writer.println("  \"graph\": {");
+        writer.println("    \"classes\": " + numberOfClasses + ",");
+        writer.println("    \"externalClasses\": " + numberOfExternalClasses + ",");
+        writer.println("    \"arcs\": " + numberOfArcs + ",");
+        writer.println("    \"classComponents\": " + numberOfClassComponents + ",");
+        writer.println("    \"packages\": " + numberOfPackages + ",");
+        writer.println("    \"packageArcs\": " + numberOfPackageArcs + ",");
+        writer.println("    \"packageComponents\": " + numberOfPackageComponents);
+        writer.println("  },");
+        writer.print("  \"componentSizes\": {");
+        separator = "";
+        for (final Map.Entry<Integer, Integer> entry : componentSizeHistogram.entrySet()) {
+            writer.print(separator + "\n    \"" + entry.getKey() + "\": " + entry.getValue());
+            separator = ",";
+        }
+        writer.println(separator.length() == 0 ? "}," : "\n  },");
+        writer.println("  \"heap\": {");
+        writer.println("    \"sampledPeak\": " + sampledPeakHeap + ",");
+        writer.println("    \"poolPeak\": " + poolPeakHeap);
+        writer.println("  }");
+        writer.println("}");
+        writer.close();
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import classycle.Metrics.Counter;
+import classycle.graph.AtomicVertex;
+import classycle.graph.StrongComponent;
+
+/**
+ * Records durations of phases and the parser counters of an {@link Analyser}. Durations are measured with
+ * {@link System#nanoTime()}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+class MetricsRecorder {
+
+    private final Map<String, Long> phaseDurations = new LinkedHashMap<>();
+    private final ParserCounters counters = new ParserCounters();
+    private long sampledPeakHeap;
+
+    /** Returns the start time of a phase. */
+    long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the end of a phase. Durations of repeated invocations of the same phase are accumulated.
+     *
+     * @param phase
+     *            Name of the phase.
+     * @param startTime
+     *            Value returned by {@link #start()}.
+     * @return the duration of the phase in milliseconds.
+     */
+    synchronized long stop(String phase, long startTime) {
+        final long duration = System.nanoTime() - startTime;
+        phaseDurations.merge(phase, duration, Long::sum);
+        final Runtime runtime = Runtime.getRuntime();
+        sampledPeakHeap = Math.max(sampledPeakHeap, runtime.totalMemory() - runtime.freeMemory());
+        return duration / 1000000;
+    }
+
+    /**
+     * Binds the parser counters of the analyser to the current thread. Parses of the current thread (and of the
+     * threads started by them) are counted until {@link #stopCounting(ParserCounters)}.
+     *
+     * @return the counters bound before.
+     */
+    ParserCounters startCounting() {
+        return ParserCounters.bind(counters);
+    }
+
+    /**
+     * Stops counting the parses of the current thread.
+     *
+     * @param previous
+     *            Value returned by {@link #startCounting()}.
+     */
+    void stopCounting(ParserCounters previous) {
+        ParserCounters.bind(previous);
+    }
+
+    /**
+     * Creates a snapshot of the recorded metrics together with the sizes of the specified graphs.
+     *
+     * @param classGraph
+     *            Class graph or <tt>null</tt> if not created.
+     * @param classComponents
+     *            Condensed class graph or <tt>null</tt> if not calculated.
+     * @param packageGraph
+     *            Package graph or <tt>null</tt> if not created.
+     * @param packageComponents
+     *            Condensed package graph or <tt>null</tt> if not calculated.
+     */
+    synchronized Metrics createMetrics(AtomicVertex[] classGraph, int numberOfExternalClasses,
+            StrongComponent[] classComponents, AtomicVertex[] packageGraph, StrongComponent[] packageComponents) {
+        int[] componentSizes = null;
+        if (classComponents != null) {
+            componentSizes = new int[classComponents.length];
+            for (int i = 0; i < componentSizes.length; i++) {
+                componentSizes[i] = classComponents[i].getNumberOfVertices();
+            }
+        }
+        long poolPeakHeap = 0;
+        for (final MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                poolPeakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        final Map<Counter, Long> counterValues = new EnumMap<>(Counter.class);
+        for (final Counter counter : Counter.values()) {
+            counterValues.put(counter, counters.get(counter));
+        }
+        return new Metrics(phaseDurations, counterValues, classGraph == null ? -1 : classGraph.length,
+                numberOfExternalClasses, countArcs(classGraph), componentSizes,
+                packageGraph == null ? -1 : packageGraph.length, countArcs(packageGraph),
+                packageComponents == null ? -1 : packageComponents.length, sampledPeakHeap, poolPeakHeap);
+    }
+
+    private static int countArcs(AtomicVertex[] graph) {
+        if (graph == null) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = 0; i < graph.length; i++) {
+            result += graph[i].getNumberOfOutgoingArcs();
+        }
+        return result;
+    }
+}
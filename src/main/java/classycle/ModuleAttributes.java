@@ -0,0 +1,77 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Attributes of a vertex of the module graph. A module is either a JPMS module (named by its module descriptor) or the
+ * source of classes without module descriptor, e.g. a jar file. The size of a module is its number of classes.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class ModuleAttributes extends NameAndSourceAttributes {
+
+    private final Set<ClassAttributes> classes = new LinkedHashSet<>();
+
+    public ModuleAttributes(String name) {
+        super(name);
+    }
+
+    public void addClass(ClassAttributes classAttributes) {
+        if (classes.add(classAttributes)) {
+            addSourcesOf(classAttributes);
+        }
+    }
+
+    public String[] getClasses() {
+        final String[] result = new String[classes.size()];
+        int index = 0;
+        for (final ClassAttributes classAttributes : classes) {
+            result[index++] = classAttributes.getName();
+        }
+        return result;
+    }
+
+    @Override
+    public int getSize() {
+        return classes.size();
+    }
+
+    /** Returns the attributes as a string for pretty printing. */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("module ").append(getName());
+        builder.append(" (").append(classes.size()).append(classes.size() == 1 ? " class)" : " classes)");
+        final String sources = getSources();
+        if (sources.length() > 0 && !sources.equals(getName())) {
+            builder.append(" sources: ").append(sources);
+        }
+        return builder.toString();
+    }
+
+}
@@ -25,9 +25,7 @@
  ******************************************************************************/
 package classycle;
 
-import java.util.Iterator;
 import java.util.Set;
-import java.util.TreeSet;
 import classycle.graph.Attributes;
 import classycle.graph.NameAttributes;
 
@@ -38,7 +36,8 @@ import classycle.graph.NameAttributes;
  */
 public abstract class NameAndSourceAttributes extends NameAttributes {
 
-    private final Set<String> sources = new TreeSet<>();
+    /** Interned set of sources. It is replaced when sources are added. */
+    private SourceSet sources = SourceSet.EMPTY;
 
     /**
      * Creates an instance for the specified name. Initially there are no sources.
@@ -47,34 +46,35 @@ public abstract class NameAndSourceAttributes extends NameAttributes {
         super(name);
     }
 
+    /** Creates an instance for a subclass which doesn't store the name but creates it in {@link #getName()}. */
+    protected NameAndSourceAttributes() {
+    }
+
     /**
      * Adds the specified source.
      */
     protected void addSource(String source) {
-        sources.add(source);
+        sources = sources.union(SourceSet.of(source));
     }
 
     /**
      * Adds the source of the specified attributes.
      */
     protected void addSourcesOf(NameAndSourceAttributes attributes) {
-        sources.addAll(attributes.sources);
+        sources = sources.union(attributes.sources);
+    }
+
+    /**
+     * Returns all sources including empty ones in ascending order. The returned set is unmodifiable.
+     */
+    public Set<String> getSourceSet() {
+        return sources.toSet();
     }
 
     /**
      * Returns a comma separated list of sources.
      */
     public String getSources() {
-        final StringBuilder builder = new StringBuilder();
-        for (final Iterator<String> iterator = sources.iterator(); iterator.hasNext();) {
-            final String source = iterator.next();
-            if (source.length() > 0) {
-                if (builder.length() > 0) {
-                    builder.append(", ");
-                }
-                builder.append(source);
-            }
-        }
-        return builder.toString();
+        return sources.toString();
     }
 }
@@ -34,21 +34,29 @@ import java.util.List;
 public class PackageAttributes extends NameAndSourceAttributes {
 
     private final List<String> classes = new ArrayList<>();
+    private PackageName packageName;
 
     public PackageAttributes(String name) {
         super(name);
     }
 
+    /** Adds the specified class of this package. Only its simple name is stored. */
     public void addClass(ClassAttributes classAttributes) {
-        final String className = classAttributes.getName();
-        if (classes.contains(className) == false) {
-            classes.add(className);
+        packageName = classAttributes.getPackageName();
+        final String simpleName = classAttributes.getSimpleName();
+        if (classes.contains(simpleName) == false) {
+            classes.add(simpleName);
         }
         addSourcesOf(classAttributes);
     }
 
     public String[] getClasses() {
-        return classes.toArray(new String[classes.size()]);
+        final String[] result = new String[classes.size()];
+        int index = 0;
+        for (final String simpleName : classes) {
+            result[index++] = packageName.createClassName(simpleName);
+        }
+        return result;
     }
 
     @Override
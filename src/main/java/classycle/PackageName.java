@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+/**
+ * Name of a package. There is only one instance per package name in use. It is shared by all classes of the package:
+ * The name of a class is stored as its package and its simple name (see {@link ClassAttributes}), so the package
+ * prefix isn't duplicated for each class. Packages which aren't used anymore are dropped from the global
+ * {@link WeakInterner weak table}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class PackageName {
+
+    /** The default package. Its name is the empty string. */
+    static final PackageName DEFAULT_PACKAGE = new PackageName("");
+
+    /** All package names except of the default package. */
+    private static final WeakInterner<String, PackageName> PACKAGES = new WeakInterner<>();
+
+    private final String name;
+
+    private PackageName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the package of the specified fully-qualified class name.
+     *
+     * @param index
+     *            Index of the last '.' in <tt>className</tt> or <tt>-1</tt> if there is none.
+     */
+    static PackageName of(String className, int index) {
+        if (index < 0) {
+            return DEFAULT_PACKAGE;
+        }
+        return PACKAGES.intern(className.substring(0, index), PackageName::new);
+    }
+
+    /** Returns the fully-qualified name of this package. */
+    String getName() {
+        return name;
+    }
+
+    /** Returns <tt>true</tt> if this is the default package. */
+    boolean isDefaultPackage() {
+        return this == DEFAULT_PACKAGE;
+    }
+
+    /** Creates the fully-qualified name of the class of this package with the specified simple name. */
+    String createClassName(String simpleName) {
+        return isDefaultPackage() ? simpleName : name + '.' + simpleName;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -34,7 +34,10 @@ import classycle.graph.GraphProcessor;
 import classycle.graph.Vertex;
 
 /**
- * Processor which extracts the package dependency graph from the class dependency graph.
+ * Processor which extracts the package dependency graph from the class dependency graph. In the same pass it extracts
+ * the module dependency graph. The module of a class is the module declared by the module descriptor of its source
+ * (see {@link ClassAttributes#getModule()}) or its source if there is no module descriptor. Only classes of the graph
+ * are assigned to modules. Thus the module graph has no external vertices and arcs between different modules only.
  *
  * @author Franz-Josef Elmer
  */
@@ -62,6 +65,8 @@ public class PackageProcessor extends GraphProcessor {
     private final HashMap<String, PackageVertex> packageVertices = new HashMap<>();
     private final List<Arc> arcs = new ArrayList<>();
     private AtomicVertex[] packageGraph;
+    private final HashMap<String, ModuleVertex> moduleVertices = new HashMap<>();
+    private AtomicVertex[] moduleGraph;
 
     @Override
     protected void finishProcessing(Vertex[] graph) {
@@ -78,6 +83,7 @@ public class PackageProcessor extends GraphProcessor {
             }
         }
         packageGraph = list.toArray(new AtomicVertex[list.size()]);
+        moduleGraph = moduleVertices.values().toArray(new AtomicVertex[moduleVertices.size()]);
     }
 
     /**
@@ -89,15 +95,44 @@ public class PackageProcessor extends GraphProcessor {
         return packageGraph;
     }
 
+    /**
+     * Returns the module graph after processing.
+     *
+     * @return can be <tt>null</tt> before processing.
+     */
+    public AtomicVertex[] getModuleGraph() {
+        return moduleGraph;
+    }
+
+    private ModuleVertex getModuleVertex(Vertex vertex) {
+        final ClassAttributes classAttributes = (ClassAttributes) vertex.getAttributes();
+        String moduleName = classAttributes.getModule();
+        if (moduleName == null) {
+            moduleName = "(no source)";
+            for (final String source : classAttributes.getSourceSet()) {
+                if (source.length() > 0) {
+                    moduleName = source;
+                    break;
+                }
+            }
+        }
+        ModuleVertex result = moduleVertices.get(moduleName);
+        if (result == null) {
+            result = new ModuleVertex(moduleName);
+            result.reset();
+            moduleVertices.put(moduleName, result);
+        }
+        return result;
+    }
+
     private PackageVertex getPackageVertex(Vertex vertex) {
         final ClassAttributes classAttributes = (ClassAttributes) vertex.getAttributes();
-        final String className = classAttributes.getName();
-        final int index = className.lastIndexOf('.');
-        final String packageName = index < 0 ? "(default package)" : className.substring(0, index);
-        PackageVertex result = packageVertices.get(packageName);
+        final PackageName packageName = classAttributes.getPackageName();
+        final String name = packageName.isDefaultPackage() ? "(default package)" : packageName.getName();
+        PackageVertex result = packageVertices.get(name);
         if (result == null) {
-            result = new PackageVertex(packageName);
-            packageVertices.put(packageName, result);
+            result = new PackageVertex(name);
+            packageVertices.put(name, result);
         }
         if (isVertexFromGraph(vertex)) {
             // not an external package
@@ -110,6 +145,7 @@ public class PackageProcessor extends GraphProcessor {
     @Override
     protected void initializeProcessing(Vertex[] graph) {
         packageVertices.clear();
+        moduleVertices.clear();
     }
 
     private boolean isVertexFromGraph(Vertex vertex) {
@@ -126,10 +162,20 @@ public class PackageProcessor extends GraphProcessor {
         final PackageVertex headPackage = getPackageVertex(head);
         final boolean internalHeadClass = ((AtomicVertex) head).isGraphVertex();
         arcs.add(new Arc(tailPackage, headPackage, internalHeadClass));
+        if (internalHeadClass) {
+            final ModuleVertex tailModule = getModuleVertex(tail);
+            final ModuleVertex headModule = getModuleVertex(head);
+            if (tailModule != headModule) {
+                tailModule.addOutgoingArcTo(headModule);
+            }
+        }
     }
 
     @Override
     protected void processBefore(Vertex vertex) {
+        if (isVertexFromGraph(vertex)) {
+            getModuleVertex(vertex).addClass((ClassAttributes) vertex.getAttributes());
+        }
     }
 
 }
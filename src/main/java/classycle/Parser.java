@@ -25,21 +25,43 @@
  ******************************************************************************/
 package classycle;
 
-import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Iterator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
 import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
 import classycle.classfile.ClassConstant;
 import classycle.classfile.Constant;
+import classycle.classfile.ModuleConstant;
 import classycle.classfile.StringConstant;
 import classycle.classfile.UTF8Constant;
 import classycle.graph.AtomicVertex;
@@ -54,8 +76,32 @@ import classycle.util.TrueStringPattern;
  */
 public class Parser {
 
-    private static final int ACC_INTERFACE = 0x200, ACC_ABSTRACT = 0x400;
+    private static final int ACC_INTERFACE = 0x200, ACC_ABSTRACT = 0x400, ACC_MODULE = 0x8000;
+    private static final String MODULE_DESCRIPTOR = "module-info";
     private static final String[] ZIP_FILE_TYPES = new String[] { ".zip", ".jar", ".war", ".ear" };
+    private static final String MODULE_FILE_TYPE = ".jmod";
+    private static final String RUNTIME_IMAGE_PREFIX = "jrt:/";
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    /** Buffer into which class files are read. It is reused for all class files read by the same thread. */
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal
+            .withInitial(() -> ByteBuffer.allocate(INITIAL_BUFFER_SIZE));
+
+    /** Extractor of class names from descriptors. It is reused for all class files parsed by the same thread. */
+    private static final ThreadLocal<ClassNameExtractor> EXTRACTOR = ThreadLocal.withInitial(ClassNameExtractor::new);
+
+    /** Maximum number of cached descriptors. 0 disables the cache. */
+    private static int descriptorCacheSize = DescriptorCache.DEFAULT_SIZE;
+
+    /** Number of parses between {@link #beginParse()} and {@link #endParse()}. */
+    private static int runningParses;
+
+    /**
+     * Cache of the class names of descriptors shared by all threads of the running parses. It is created by the first
+     * parse and dropped when the last running parse has finished. <tt>null</tt> if no parse is running or if the cache
+     * is disabled.
+     */
+    private static volatile DescriptorCache descriptorCache;
 
     /** Private constructor to prohibit instanciation. */
     private Parser() {
@@ -76,42 +122,565 @@ public class Parser {
         }
     }
 
-    private static void analyseClassFiles(ZipFile zipFile, String source, ArrayList<UnresolvedNode> unresolvedNodes,
+    /**
+     * Content of an archive nested in another archive (e.g. a jar file in <tt>WEB-INF/lib</tt> of a war file) together
+     * with the result of its analysis. The content is dropped after the analysis.
+     */
+    private static final class NestedArchive {
+
+        private final String source;
+        private ByteBuffer content;
+        private final List<UnresolvedNode> unresolvedNodes = new ArrayList<>();
+        private final NestedArchives nestedArchives;
+        private Future<?> future;
+
+        NestedArchive(String source, ByteBuffer content, NestedArchivePool pool) {
+            this.source = source;
+            this.content = content;
+            nestedArchives = new NestedArchives(pool, true);
+        }
+
+        void analyse(StringPattern reflectionPattern) throws IOException {
+            try (ZipArchive archive = ZipArchive.wrap(content)) {
+                if (archive != null) {
+                    analyseClassFiles(archive, source, source, unresolvedNodes, nestedArchives, reflectionPattern);
+                } else {
+                    analyseClassFiles(new ZipInputStream(new ByteBufferInputStream(content)), source,
+                            unresolvedNodes, nestedArchives, reflectionPattern);
+                }
+            } catch (final ZipException e) {
+                throw new IOException("Invalid nested archive " + source + ": " + e.getMessage(), e);
+            } finally {
+                content = null;
+            }
+        }
+    }
+
+    /** Supplier of the content of a nested archive. */
+    private interface Content {
+
+        ByteBuffer get() throws IOException;
+    }
+
+    /**
+     * Nested archives found while an archive is scanned. Each of them is handed over to the pool as soon as it is
+     * found.
+     */
+    private static final class NestedArchives {
+
+        private final NestedArchivePool pool;
+        private final boolean poolThread;
+        private final List<NestedArchive> archives = new ArrayList<>();
+
+        /**
+         * @param poolThread
+         *            <tt>true</tt> if the archive containing the nested archives is scanned by a thread of the pool.
+         */
+        NestedArchives(NestedArchivePool pool, boolean poolThread) {
+            this.pool = pool;
+            this.poolThread = poolThread;
+        }
+
+        void add(String source, Content content) throws IOException {
+            archives.add(pool.analyse(source, content, poolThread));
+        }
+    }
+
+    /**
+     * Thread pool analysing nested archives while the archives containing them are still scanned. The content of a
+     * nested archive is held in memory until it has been analysed. The number of contents held at the same time is
+     * limited to the number of threads: The thread scanning the outermost archive waits for a free permit. A thread of
+     * the pool doesn't wait, because waiting pool threads could block each other. If there is no free permit it
+     * analyses the nested archive itself.
+     */
+    private static final class NestedArchivePool {
+
+        private final StringPattern reflectionPattern;
+        private final int numberOfThreads = Runtime.getRuntime().availableProcessors();
+        private final Semaphore permits = new Semaphore(numberOfThreads);
+        private ExecutorService executor;
+
+        NestedArchivePool(StringPattern reflectionPattern) {
+            this.reflectionPattern = reflectionPattern;
+        }
+
+        /** Creates the nested archive of the specified content and starts its analysis. */
+        NestedArchive analyse(String source, Content content, boolean poolThread) throws IOException {
+            if (poolThread && !permits.tryAcquire()) {
+                final NestedArchive nestedArchive = new NestedArchive(source, content.get(), this);
+                nestedArchive.analyse(reflectionPattern);
+                return nestedArchive;
+            }
+            if (!poolThread) {
+                try {
+                    permits.acquire();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while analysing nested archives.");
+                }
+            }
+            try {
+                final NestedArchive nestedArchive = new NestedArchive(source, content.get(), this);
+                if (executor == null) {
+                    executor = Executors.newFixedThreadPool(numberOfThreads);
+                }
+                nestedArchive.future = executor.submit(ParserCounters.propagate(() -> {
+                    try {
+                        nestedArchive.analyse(reflectionPattern);
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+                return nestedArchive;
+            } catch (final IOException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        /**
+         * Waits until the specified nested archives and all archives nested in them have been analysed. The
+         * unresolved nodes are added in the order of the archives, depth first.
+         */
+        void collect(NestedArchives nestedArchives, List<UnresolvedNode> unresolvedNodes) throws IOException {
+            try {
+                collect(nestedArchives.archives, unresolvedNodes);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while analysing nested archives.");
+            }
+        }
+
+        private static void collect(List<NestedArchive> nestedArchives, List<UnresolvedNode> unresolvedNodes)
+                throws IOException, InterruptedException {
+            for (final NestedArchive nestedArchive : nestedArchives) {
+                try {
+                    if (nestedArchive.future != null) {
+                        nestedArchive.future.get();
+                    }
+                } catch (final ExecutionException e) {
+                    final Throwable failure = e.getCause();
+                    if (failure instanceof IOException) {
+                        throw (IOException) failure;
+                    } else if (failure instanceof RuntimeException) {
+                        throw (RuntimeException) failure;
+                    } else if (failure instanceof Error) {
+                        throw (Error) failure;
+                    }
+                    throw new IOException(failure);
+                }
+                unresolvedNodes.addAll(nestedArchive.unresolvedNodes);
+                collect(nestedArchive.nestedArchives.archives, unresolvedNodes);
+            }
+        }
+
+        /** Stops the threads. Nested archives still being analysed are interrupted. */
+        void shutdown() {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    /** Input stream of the remaining bytes of a buffer. */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer.duplicate();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+            return n;
+        }
+    }
+
+    /**
+     * Analyses all class files of the specified zip archive. The archive is memory-mapped and read by
+     * {@link ZipArchive}. Archives not supported by it (e.g. ZIP64 archives) are read by {@link ZipFile}. Archives
+     * nested in the archive (e.g. jar files of a war or ear file) are read from memory and analysed in parallel while
+     * the archive is still scanned. Only about one nested archive per thread is held in memory at a time. The source
+     * of their classes is the source of the archive followed by <tt>!/</tt> and the path of the nested archive.
+     */
+    static void analyseClassFiles(File file, String source, List<UnresolvedNode> unresolvedNodes,
+            StringPattern reflectionPattern) throws IOException {
+        analyseClassFiles(file, source, unresolvedNodes, reflectionPattern, true);
+    }
+
+    /**
+     * Analyses all class files of the specified zip archive like
+     * {@link #analyseClassFiles(File, String, List, StringPattern)}.
+     *
+     * @param mapFile
+     *            If <tt>false</tt> the archive is read into the heap instead of being memory-mapped, so the file isn't
+     *            locked after reading (see {@link ZipArchive#read(File)}).
+     */
+    static void analyseClassFiles(File file, String source, List<UnresolvedNode> unresolvedNodes,
+            StringPattern reflectionPattern, boolean mapFile) throws IOException {
+        final NestedArchivePool pool = new NestedArchivePool(reflectionPattern);
+        final NestedArchives nestedArchives = new NestedArchives(pool, false);
+        try {
+            try (ZipArchive archive = mapFile ? ZipArchive.open(file) : ZipArchive.read(file)) {
+                if (archive != null) {
+                    analyseClassFiles(archive, file.getPath(), source, unresolvedNodes, nestedArchives,
+                            reflectionPattern);
+                } else {
+                    try (ZipFile zipFile = new ZipFile(file)) {
+                        analyseClassFiles(zipFile, source, unresolvedNodes, nestedArchives, reflectionPattern);
+                    }
+                }
+            }
+            pool.collect(nestedArchives, unresolvedNodes);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Analyses all class files of the specified zip file. Nested archives are analysed like in
+     * {@link #analyseClassFiles(File, String, List, StringPattern)}.
+     */
+    static void analyseClassFiles(ZipFile zipFile, String source, List<UnresolvedNode> unresolvedNodes,
             StringPattern reflectionPattern) throws IOException {
+        final NestedArchivePool pool = new NestedArchivePool(reflectionPattern);
+        final NestedArchives nestedArchives = new NestedArchives(pool, false);
+        try {
+            analyseClassFiles(zipFile, source, unresolvedNodes, nestedArchives, reflectionPattern);
+            pool.collect(nestedArchives, unresolvedNodes);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void analyseClassFiles(ZipArchive archive, String archiveName, String source,
+            List<UnresolvedNode> unresolvedNodes, NestedArchives nestedArchives,
+            StringPattern reflectionPattern) throws IOException {
+        ParserCounters.increment(Metrics.Counter.ARCHIVES);
+        final ParseArchiveEvent event = new ParseArchiveEvent();
+        event.begin();
+        for (int i = 0, n = archive.getNumberOfEntries(); i < n; i++) {
+            if (archive.nameEndsWith(i, ".class")) {
+                final ByteBuffer buffer = archive.getContent(i);
+                event.classFiles++;
+                event.bytes += buffer.remaining();
+                unresolvedNodes.add(createNode(buffer, source, reflectionPattern));
+            } else if (isZipFile(archive, i)) {
+                final String nestedSource = createNestedSourceName(source == null ? archiveName : source,
+                        archive.getName(i));
+                final int index = i;
+                nestedArchives.add(nestedSource, () -> archive.getDetachedContent(index));
+            }
+        }
+        if (event.shouldCommit()) {
+            event.archive = archiveName;
+            event.commit();
+        }
+    }
+
+    private static void analyseClassFiles(ZipFile zipFile, String source, List<UnresolvedNode> unresolvedNodes,
+            NestedArchives nestedArchives, StringPattern reflectionPattern) throws IOException {
+        ParserCounters.increment(Metrics.Counter.ARCHIVES);
+        final ParseArchiveEvent event = new ParseArchiveEvent();
+        event.begin();
         final Enumeration<? extends ZipEntry> entries = zipFile.entries();
         while (entries.hasMoreElements()) {
             final ZipEntry entry = entries.nextElement();
+            if (!entry.isDirectory() && (entry.getName().endsWith(".class") || isZipFile(entry.getName()))) {
+                final ByteBuffer buffer;
+                try (InputStream stream = zipFile.getInputStream(entry)) {
+                    buffer = read(stream, (int) entry.getSize());
+                }
+                if (entry.getName().endsWith(".class")) {
+                    event.classFiles++;
+                    event.bytes += buffer.remaining();
+                    unresolvedNodes.add(createNode(buffer, source, reflectionPattern));
+                } else {
+                    final String nestedSource = createNestedSourceName(source == null ? zipFile.getName() : source,
+                            entry.getName());
+                    nestedArchives.add(nestedSource, () -> copy(buffer));
+                }
+            }
+        }
+        if (event.shouldCommit()) {
+            event.archive = zipFile.getName();
+            event.commit();
+        }
+    }
+
+    private static void analyseClassFiles(ZipInputStream stream, String archiveName,
+            List<UnresolvedNode> unresolvedNodes, NestedArchives nestedArchives,
+            StringPattern reflectionPattern) throws IOException {
+        ParserCounters.increment(Metrics.Counter.ARCHIVES);
+        final ParseArchiveEvent event = new ParseArchiveEvent();
+        event.begin();
+        for (ZipEntry entry; (entry = stream.getNextEntry()) != null;) {
             if (!entry.isDirectory() && entry.getName().endsWith(".class")) {
-                final InputStream stream = zipFile.getInputStream(entry);
-                final int size = (int) entry.getSize();
-                unresolvedNodes.add(Parser.createNode(stream, source, size, reflectionPattern));
+                final ByteBuffer buffer = read(stream, (int) entry.getSize());
+                event.classFiles++;
+                event.bytes += buffer.remaining();
+                unresolvedNodes.add(createNode(buffer, archiveName, reflectionPattern));
+            } else if (!entry.isDirectory() && isZipFile(entry.getName())) {
+                final ByteBuffer buffer = read(stream, (int) entry.getSize());
+                nestedArchives.add(createNestedSourceName(archiveName, entry.getName()), () -> copy(buffer));
+            }
+        }
+        if (event.shouldCommit()) {
+            event.archive = archiveName;
+            event.commit();
+        }
+    }
+
+    /**
+     * Analyses the class files of the run-time image of the running JDK. <tt>classFile</tt> is either <tt>jrt:/</tt>
+     * for all modules or <tt>jrt:/&lt;module&gt;</tt> for a single module. Modules are scanned in parallel. The source
+     * of a class is the name of its module. Module descriptors (<tt>module-info.class</tt>) are ignored.
+     */
+    static void analyseRuntimeImage(String classFile, List<UnresolvedNode> unresolvedNodes,
+            StringPattern reflectionPattern) throws IOException {
+        final FileSystem fileSystem;
+        try {
+            fileSystem = FileSystems.getFileSystem(URI.create(RUNTIME_IMAGE_PREFIX));
+        } catch (final ProviderNotFoundException | FileSystemNotFoundException e) {
+            throw new IOException("No run-time image available for " + classFile + ".", e);
+        }
+        final Path modules = fileSystem.getPath("/modules");
+        final List<String> moduleNames = new ArrayList<>();
+        final String name = classFile.substring(RUNTIME_IMAGE_PREFIX.length());
+        if (name.isEmpty()) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(modules)) {
+                for (final Path module : stream) {
+                    moduleNames.add(module.getFileName().toString());
+                }
             }
+            Collections.sort(moduleNames);
+        } else if (Files.isDirectory(modules.resolve(name))) {
+            moduleNames.add(name);
+        } else {
+            throw new IOException(classFile + " is an unknown module.");
+        }
+        final List<Callable<List<UnresolvedNode>>> tasks = new ArrayList<>();
+        for (final String moduleName : moduleNames) {
+            tasks.add(() -> analyseModule(modules.resolve(moduleName), moduleName, reflectionPattern));
         }
+        analyseModules(tasks, unresolvedNodes);
+    }
+
+    private static List<UnresolvedNode> analyseModule(Path module, String moduleName, StringPattern reflectionPattern)
+            throws IOException {
+        ParserCounters.increment(Metrics.Counter.ARCHIVES);
+        final ParseArchiveEvent event = new ParseArchiveEvent();
+        event.begin();
+        final List<Path> files;
+        try (Stream<Path> paths = Files.walk(module)) {
+            files = paths.filter(path -> isModuleClassFile(path.toString())).collect(Collectors.toList());
+        }
+        final List<UnresolvedNode> unresolvedNodes = new ArrayList<>(files.size());
+        for (final Path file : files) {
+            final ByteBuffer buffer;
+            try (InputStream stream = Files.newInputStream(file)) {
+                buffer = read(stream, -1);
+            }
+            event.classFiles++;
+            event.bytes += buffer.remaining();
+            unresolvedNodes.add(createNode(buffer, moduleName, reflectionPattern));
+        }
+        if (event.shouldCommit()) {
+            event.archive = RUNTIME_IMAGE_PREFIX + moduleName;
+            event.commit();
+        }
+        return unresolvedNodes;
+    }
+
+    /**
+     * Analyses the specified jmod files in parallel. The source of a class is the name of its module, i.e. the name of
+     * the jmod file without extension. Module descriptors and all files outside of <tt>classes/</tt> are ignored.
+     */
+    static void analyseModuleFiles(File[] files, List<UnresolvedNode> unresolvedNodes,
+            StringPattern reflectionPattern) throws IOException {
+        final List<Callable<List<UnresolvedNode>>> tasks = new ArrayList<>();
+        for (final File file : files) {
+            tasks.add(() -> analyseModuleFile(file, reflectionPattern));
+        }
+        analyseModules(tasks, unresolvedNodes);
+    }
+
+    static List<UnresolvedNode> analyseModuleFile(File file, StringPattern reflectionPattern) throws IOException {
+        return analyseModuleFile(file, reflectionPattern, true);
+    }
+
+    /**
+     * Analyses the specified jmod file. The source of its classes is the name of the module.
+     *
+     * @param mapFile
+     *            If <tt>false</tt> the file is read into the heap instead of being memory-mapped, so it isn't locked
+     *            after reading (see {@link ZipArchive#read(File)}).
+     */
+    static List<UnresolvedNode> analyseModuleFile(File file, StringPattern reflectionPattern, boolean mapFile)
+            throws IOException {
+        final String name = file.getName();
+        final String moduleName = name.substring(0, name.length() - MODULE_FILE_TYPE.length());
+        final List<UnresolvedNode> unresolvedNodes = new ArrayList<>();
+        ParserCounters.increment(Metrics.Counter.ARCHIVES);
+        final ParseArchiveEvent event = new ParseArchiveEvent();
+        event.begin();
+        try (ZipArchive archive = mapFile ? ZipArchive.open(file) : ZipArchive.read(file)) {
+            if (archive == null) {
+                throw new ZipException("Unsupported jmod file " + file);
+            }
+            for (int i = 0, n = archive.getNumberOfEntries(); i < n; i++) {
+                if (archive.nameEndsWith(i, ".class") && isModuleClassFile("/" + archive.getName(i))) {
+                    final ByteBuffer buffer = archive.getContent(i);
+                    event.classFiles++;
+                    event.bytes += buffer.remaining();
+                    unresolvedNodes.add(createNode(buffer, moduleName, reflectionPattern));
+                }
+            }
+        }
+        if (event.shouldCommit()) {
+            event.archive = file.getPath();
+            event.commit();
+        }
+        return unresolvedNodes;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the specified path of a file in the run-time image or in a jmod file (with leading
+     * <tt>/</tt>) denotes a class file of a module but not its descriptor.
+     */
+    private static boolean isModuleClassFile(String path) {
+        return path.endsWith(".class") && !path.endsWith("/module-info.class")
+                && (path.startsWith("/modules/") || path.startsWith("/classes/"));
+    }
+
+    /**
+     * Runs the specified tasks on a thread pool and adds their results to <tt>unresolvedNodes</tt> in the order of
+     * the tasks. The first failure is rethrown.
+     */
+    private static void analyseModules(List<Callable<List<UnresolvedNode>>> tasks,
+            List<UnresolvedNode> unresolvedNodes) throws IOException {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        final int numberOfThreads = Math.min(tasks.size(), Runtime.getRuntime().availableProcessors());
+        final List<Callable<List<UnresolvedNode>>> countedTasks = new ArrayList<>(tasks.size());
+        for (final Callable<List<UnresolvedNode>> task : tasks) {
+            countedTasks.add(ParserCounters.propagate(task));
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            Throwable failure = null;
+            for (final Future<List<UnresolvedNode>> future : executor.invokeAll(countedTasks)) {
+                try {
+                    unresolvedNodes.addAll(future.get());
+                } catch (final ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while analysing modules.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        return ByteBuffer.allocate(buffer.remaining()).put(buffer).flip();
+    }
+
+    /**
+     * Reads the specified stream completely into the buffer of the current thread. The buffer is enlarged if
+     * necessary.
+     *
+     * @param size
+     *            Expected number of bytes or <tt>-1</tt> if unknown.
+     * @return the buffer of the current thread. Its remaining bytes are the bytes read.
+     */
+    private static ByteBuffer read(InputStream stream, int size) throws IOException {
+        ByteBuffer buffer = BUFFER.get();
+        if (buffer.capacity() < size) {
+            buffer = ByteBuffer.allocate(size);
+            BUFFER.set(buffer);
+        }
+        byte[] bytes = buffer.array();
+        int length = 0;
+        for (int n; (n = stream.read(bytes, length, bytes.length - length)) >= 0;) {
+            length += n;
+            if (length == bytes.length) {
+                // Buffer full: Either stream is finished or buffer is too small
+                final int b = stream.read();
+                if (b < 0) {
+                    break;
+                }
+                buffer = ByteBuffer.allocate(2 * bytes.length);
+                System.arraycopy(bytes, 0, buffer.array(), 0, length);
+                BUFFER.set(buffer);
+                bytes = buffer.array();
+                bytes[length++] = (byte) b;
+            }
+        }
+        buffer.clear();
+        buffer.limit(length);
+        return buffer;
     }
 
     /**
      * Creates a new node with unresolved references.
      *
-     * @param stream
-     *            A just opended byte stream of a class file. If this method finishes succefully the internal pointer of
-     *            the stream will point onto the superclass index.
+     * @param buffer
+     *            Buffer with the class file starting at the position of the buffer and ending at its limit. The bytes
+     *            are not referred by the returned node. Thus the buffer can be reused. The position is changed.
      * @param source
      *            Optional source of the class file. Can be <code>null</code>.
-     * @param size
-     *            Number of bytes of the class file.
      * @param reflectionPattern
      *            Pattern used to check whether a {@link StringConstant} refer to a class. Can be <tt>null</tt>.
      * @return a node with unresolved link of all classes used by the analysed class.
      */
-    private static UnresolvedNode createNode(InputStream stream, String source, int size,
-            StringPattern reflectionPattern) throws IOException {
+    private static UnresolvedNode createNode(ByteBuffer buffer, String source, StringPattern reflectionPattern)
+            throws IOException {
+        final ParseClassEvent event = new ParseClassEvent();
+        event.begin();
+        final int size = buffer.remaining();
         // Reads constant pool, accessFlags, and class name
-        final DataInputStream dataStream = new DataInputStream(stream);
-        final Constant[] pool = Constant.extractConstantPool(dataStream);
-        final int accessFlags = dataStream.readUnsignedShort();
-        final String name = ((ClassConstant) pool[dataStream.readUnsignedShort()]).getName();
+        final Constant[] pool = Constant.extractConstantPool(buffer);
+        ParserCounters.increment(Metrics.Counter.CLASS_FILES);
+        ParserCounters.add(Metrics.Counter.BYTES, size);
+        final int index = buffer.position();
+        if (index + 4 > buffer.limit()) {
+            throw new EOFException("Unexpected end of class file after constant pool.");
+        }
+        final int accessFlags = getUnsignedShort(buffer, index);
+        final String name = ((ClassConstant) pool[getUnsignedShort(buffer, index + 2)]).getName();
         ClassAttributes attributes = null;
-        if ((accessFlags & ACC_INTERFACE) != 0) {
+        if ((accessFlags & ACC_MODULE) != 0) {
+            attributes = new ClassAttributes(name, source, ClassAttributes.CLASS, size,
+                    readModuleName(buffer, index, pool));
+        } else if ((accessFlags & ACC_INTERFACE) != 0) {
             attributes = ClassAttributes.createInterface(name, source, size);
         } else {
             if ((accessFlags & ACC_ABSTRACT) != 0) {
@@ -124,15 +693,20 @@ public class Parser {
         // Creates a new node with unresolved references
         final UnresolvedNode node = new UnresolvedNode();
         node.setAttributes(attributes);
+        final ClassNameExtractor extractor = EXTRACTOR.get();
+        int numberOfConstants = 0;
         for (int i = 0; i < pool.length; i++) {
             final Constant constant = pool[i];
+            if (constant != null) {
+                numberOfConstants++;
+            }
             if (constant instanceof ClassConstant) {
                 final ClassConstant cc = (ClassConstant) constant;
                 if (!cc.getName().startsWith("[") && !cc.getName().equals(name)) {
                     node.addLinkTo(cc.getName());
                 }
-            } else if (constant instanceof UTF8Constant) {
-                parseUTF8Constant((UTF8Constant) constant, node, name);
+            } else if (constant instanceof UTF8Constant && ((UTF8Constant) constant).isDescriptorCandidate()) {
+                parseUTF8Constant((UTF8Constant) constant, extractor, node, name);
             } else if (reflectionPattern != null && constant instanceof StringConstant) {
                 final String str = ((StringConstant) constant).getString();
                 if (ClassNameExtractor.isValid(str) && reflectionPattern.matches(str)) {
@@ -140,32 +714,143 @@ public class Parser {
                 }
             }
         }
+        ParserCounters.add(Metrics.Counter.CONSTANTS, numberOfConstants);
+        if (event.shouldCommit()) {
+            event.className = name;
+            event.source = source;
+            event.bytes = size;
+            event.constants = numberOfConstants;
+            event.commit();
+        }
         return node;
     }
 
-    private static String createSourceName(String classFile, String name) {
-        return classFile + (classFile.endsWith(File.separator) ? name : File.separatorChar + name);
+    private static int getUnsignedShort(ByteBuffer buffer, int index) {
+        return (buffer.get(index) & 0xff) << 8 | buffer.get(index + 1) & 0xff;
     }
 
-    private static UnresolvedNode extractNode(File file, String source, StringPattern reflectionPattern)
-            throws IOException {
-        InputStream stream = null;
-        UnresolvedNode result = null;
+    private static int getInt(ByteBuffer buffer, int index) {
+        return getUnsignedShort(buffer, index) << 16 | getUnsignedShort(buffer, index + 2);
+    }
+
+    /**
+     * Reads the name of the module declared by the <tt>Module</tt> attribute of a module descriptor.
+     *
+     * @param index
+     *            Index of the access flags, i.e. the first byte after the constant pool.
+     * @return <tt>null</tt> if there is no <tt>Module</tt> attribute.
+     */
+    private static String readModuleName(ByteBuffer buffer, int index, Constant[] pool) throws EOFException {
         try {
-            stream = new FileInputStream(file);
-            result = Parser.createNode(stream, source, (int) file.length(), reflectionPattern);
-        } finally {
-            try {
-                stream.close();
-            } catch (final IOException e) {
+            int position = index + 6;
+            position += 2 + 2 * getUnsignedShort(buffer, position);
+            // Skip fields and methods. Usually there are none.
+            for (int i = 0; i < 2; i++) {
+                final int numberOfMembers = getUnsignedShort(buffer, position);
+                position += 2;
+                for (int j = 0; j < numberOfMembers; j++) {
+                    position = skipAttributes(buffer, position + 6);
+                }
             }
+            final int numberOfAttributes = getUnsignedShort(buffer, position);
+            position += 2;
+            for (int i = 0; i < numberOfAttributes; i++) {
+                final Constant attributeName = pool[getUnsignedShort(buffer, position)];
+                if (attributeName instanceof UTF8Constant
+                        && ((UTF8Constant) attributeName).getString().equals("Module")) {
+                    final Constant module = pool[getUnsignedShort(buffer, position + 6)];
+                    return module instanceof ModuleConstant ? ((ModuleConstant) module).getName() : null;
+                }
+                position += 6 + getInt(buffer, position + 2);
+            }
+            return null;
+        } catch (final IndexOutOfBoundsException e) {
+            throw new EOFException("Unexpected end of module descriptor.");
         }
-        return result;
     }
 
-    private static boolean isZipFile(File file) {
+    /** Skips the attributes starting with their number at the specified index and returns the index after them. */
+    private static int skipAttributes(ByteBuffer buffer, int index) {
+        final int numberOfAttributes = getUnsignedShort(buffer, index);
+        int position = index + 2;
+        for (int i = 0; i < numberOfAttributes; i++) {
+            position += 6 + getInt(buffer, position + 2);
+        }
+        return position;
+    }
+
+    /**
+     * Assigns a module to the specified nodes. The module of a node is the module declared by the module descriptor
+     * (<tt>module-info.class</tt>) of its source. Nodes of sources without module descriptor are left untouched.
+     *
+     * @param allNodes
+     *            All nodes, including the module descriptors.
+     * @param nodes
+     *            Nodes to which the modules are assigned.
+     */
+    static void assignModules(Collection<UnresolvedNode> allNodes, Collection<UnresolvedNode> nodes) {
+        final Map<String, String> modules = new HashMap<>();
+        for (final UnresolvedNode node : allNodes) {
+            final ClassAttributes attributes = node.getAttributes();
+            if (attributes.getModule() != null && attributes.getName().equals(MODULE_DESCRIPTOR)) {
+                modules.put(attributes.getSources(), attributes.getModule());
+            }
+        }
+        if (modules.isEmpty()) {
+            return;
+        }
+        for (final UnresolvedNode node : nodes) {
+            final ClassAttributes attributes = node.getAttributes();
+            final String source = attributes.getSources();
+            final String module = modules.get(source);
+            if (module != null && !module.equals(attributes.getModule())) {
+                node.setAttributes(new ClassAttributes(attributes.getName(), source.isEmpty() ? null : source,
+                        attributes.getType(), attributes.getSize(), module));
+            }
+        }
+    }
+
+    static String createSourceName(String classFile, String name) {
+        return classFile + (classFile.endsWith(File.separator) ? name : File.separatorChar + name);
+    }
+
+    private static boolean isZipFile(ZipArchive archive, int index) {
+        for (int i = 0; i < ZIP_FILE_TYPES.length; i++) {
+            if (archive.nameEndsWith(index, ZIP_FILE_TYPES[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String createNestedSourceName(String source, String name) {
+        return source + "!/" + name;
+    }
+
+    static UnresolvedNode extractNode(File file, String source, StringPattern reflectionPattern)
+            throws IOException {
+        final ByteBuffer buffer;
+        try (InputStream stream = new FileInputStream(file)) {
+            buffer = read(stream, (int) file.length());
+        }
+        return createNode(buffer, source, reflectionPattern);
+    }
+
+    /** Returns <tt>true</tt> if the specified class file descriptor denotes the run-time image (<tt>jrt:/</tt>). */
+    static boolean isRuntimeImage(String classFile) {
+        return classFile.startsWith(RUNTIME_IMAGE_PREFIX);
+    }
+
+    static boolean isModuleFile(File file) {
+        return file.getName().endsWith(MODULE_FILE_TYPE);
+    }
+
+    static boolean isZipFile(File file) {
+        return isZipFile(file.getName());
+    }
+
+    private static boolean isZipFile(String name) {
         boolean result = false;
-        final String name = file.getName();
         for (int i = 0; i < ZIP_FILE_TYPES.length; i++) {
             if (name.endsWith(ZIP_FILE_TYPES[i])) {
                 result = true;
@@ -177,17 +862,74 @@ public class Parser {
 
     /**
      * Parses an UFT8Constant and picks class names if it has the correct syntax of a field or method descirptor.
+     * Constants which aren't {@link UTF8Constant#isDescriptorCandidate() descriptor candidates} don't have to be
+     * parsed.
      */
-    static void parseUTF8Constant(UTF8Constant constant, UnresolvedNode node, String className) {
-        final Set<String> classNames = new ClassNameExtractor(constant).extract();
-        for (final Iterator<String> iter = classNames.iterator(); iter.hasNext();) {
-            final String element = iter.next();
-            if (className.equals(element) == false) {
-                node.addLinkTo(element);
+    static void parseUTF8Constant(UTF8Constant constant, ClassNameExtractor extractor, UnresolvedNode node,
+            String className) {
+        ParserCounters.increment(Metrics.Counter.DESCRIPTORS);
+        final DescriptorCache cache = descriptorCache;
+        if (cache == null) {
+            final List<String> classNames = extractor.extract(constant.getString());
+            for (int i = 0, n = classNames.size(); i < n; i++) {
+                addLinkTo(node, classNames.get(i), className);
+            }
+        } else {
+            final String[] classNames = cache.getClassNames(constant.getString(), extractor);
+            for (int i = 0; i < classNames.length; i++) {
+                addLinkTo(node, classNames[i], className);
             }
         }
     }
 
+    private static void addLinkTo(UnresolvedNode node, String element, String className) {
+        if (className.equals(element) == false) {
+            node.addLinkTo(element);
+        }
+    }
+
+    /**
+     * Sets the maximum number of descriptors whose class names are cached. This setting is global for all parsers and
+     * analysers of the JVM. The cache itself exists only while class files are parsed: it is created when a parse
+     * starts and shared by all parses running at the same time. It is dropped when the last of them has finished.
+     * Setting a new size while parsers are running replaces their cache by an empty one. Hits are counted by
+     * {@link Metrics.Counter#DESCRIPTOR_CACHE_HITS} for the analyser of the parse. Default is 16384.
+     *
+     * @param size
+     *            Maximum number of cached descriptors. 0 disables the cache.
+     */
+    public static synchronized void setDescriptorCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative descriptor cache size: " + size);
+        }
+        if (size != descriptorCacheSize) {
+            descriptorCacheSize = size;
+            if (runningParses > 0) {
+                descriptorCache = size == 0 ? null : new DescriptorCache(size);
+            }
+        }
+    }
+
+    /**
+     * Starts a parse. The descriptor cache is created if no other parse is running. Each call has to be followed by a
+     * call of {@link #endParse()}, usually in a <tt>finally</tt> block.
+     */
+    static synchronized void beginParse() {
+        if (runningParses++ == 0 && descriptorCacheSize > 0) {
+            descriptorCache = new DescriptorCache(descriptorCacheSize);
+        }
+    }
+
+    /**
+     * Ends a parse started by {@link #beginParse()}. The descriptor cache is dropped if no other parse is running, so
+     * that it doesn't keep its entries after parsing.
+     */
+    static synchronized void endParse() {
+        if (--runningParses == 0) {
+            descriptorCache = null;
+        }
+    }
+
     /**
      * Reads and parses class files and creates a direct graph. Short-cut of
      * <tt>readClassFiles(classFiles, new {@link TrueStringPattern}(),
@@ -205,10 +947,14 @@ public class Parser {
      * <li>name of a class file (file type <tt>.class</tt>)
      * <li>name of a file of type <code>.zip</code>, <code>.jar</code>, <code>.war</code>, or <code>.ear</code>
      * containing class file
-     * <li>name of a folder containing class files or zip/jar/war/ear files
+     * <li>name of a jmod file (file type <tt>.jmod</tt>)
+     * <li>name of a folder containing class files, zip/jar/war/ear files or jmod files
+     * <li><tt>jrt:/</tt> for all modules of the run-time image of the running JDK or <tt>jrt:/&lt;module&gt;</tt> for
+     * a single module
      * </ul>
      * Folders and zip/jar/war/ear files are searched recursively for class files. If a folder is specified only the
-     * top-level zip/jar/war/ear files of that folder are analysed.
+     * top-level zip/jar/war/ear and jmod files of that folder are analysed. The source of classes of jmod files and of
+     * the run-time image is the name of their module.
      *
      * @param classFiles
      *            Array of file names.
@@ -226,25 +972,86 @@ public class Parser {
     public static AtomicVertex[] readClassFiles(String[] classFiles, StringPattern pattern,
             StringPattern reflectionPattern, boolean mergeInnerClasses) throws IOException {
         final ArrayList<UnresolvedNode> unresolvedNodes = new ArrayList<>();
-        for (int i = 0; i < classFiles.length; i++) {
-            final String classFile = classFiles[i];
-            final File file = new File(classFile);
-            if (file.isDirectory()) {
-                analyseClassFile(file, classFile, unresolvedNodes, reflectionPattern);
-                final File[] files = file.listFiles((FileFilter) file1 -> isZipFile(file1));
-                for (int j = 0; j < files.length; j++) {
-                    final String source = createSourceName(classFile, files[j].getName());
-                    analyseClassFiles(new ZipFile(files[j].getAbsoluteFile()), source, unresolvedNodes,
+        beginParse();
+        try {
+            for (int i = 0; i < classFiles.length; i++) {
+                final String classFile = classFiles[i];
+                final File file = new File(classFile);
+                if (isRuntimeImage(classFile)) {
+                    analyseRuntimeImage(classFile, unresolvedNodes, reflectionPattern);
+                } else if (file.isDirectory()) {
+                    analyseClassFile(file, classFile, unresolvedNodes, reflectionPattern);
+                    final File[] files = file.listFiles((FileFilter) file1 -> isZipFile(file1));
+                    for (int j = 0; j < files.length; j++) {
+                        final String source = createSourceName(classFile, files[j].getName());
+                        analyseClassFiles(files[j].getAbsoluteFile(), source, unresolvedNodes, reflectionPattern);
+                    }
+                    analyseModuleFiles(file.listFiles((FileFilter) Parser::isModuleFile), unresolvedNodes,
                             reflectionPattern);
+                } else if (file.getName().endsWith(".class")) {
+                    analyseClassFile(file, null, unresolvedNodes, reflectionPattern);
+                } else if (isZipFile(file)) {
+                    analyseClassFiles(file.getAbsoluteFile(), classFile, unresolvedNodes, reflectionPattern);
+                } else if (isModuleFile(file)) {
+                    unresolvedNodes.addAll(analyseModuleFile(file, reflectionPattern));
+                } else {
+                    throw new IOException(classFile + " is an invalid file.");
                 }
-            } else if (file.getName().endsWith(".class")) {
-                analyseClassFile(file, null, unresolvedNodes, reflectionPattern);
-            } else if (isZipFile(file)) {
-                analyseClassFiles(new ZipFile(file.getAbsoluteFile()), classFile, unresolvedNodes, reflectionPattern);
-            } else {
-                throw new IOException(classFile + " is an invalid file.");
             }
+        } finally {
+            endParse();
+        }
+        return createGraph(unresolvedNodes, pattern, mergeInnerClasses);
+    }
+
+    /**
+     * Parses the specified class files held in memory and creates a directed graph where each vertex represents a
+     * class. The graph is the same as the one created by {@link #readClassFiles(String[], StringPattern, StringPattern,
+     * boolean)} for the same class files. Nothing is read from or written to the file system. A stream of class files
+     * can be passed as <tt>stream::iterator</tt>.
+     *
+     * @param classes
+     *            Contents of class files.
+     * @param pattern
+     *            Pattern fully qualified class names have to match in order to be added to the graph. Otherwise they
+     *            count as 'external'.
+     * @param reflectionPattern
+     *            Pattern ordinary string constants of a class file have to fullfill in order to be handled as class
+     *            references. If <tt>null</tt> ordinary string constants will not be checked.
+     * @param mergeInnerClasses
+     *            If <code>true</code> merge inner classes with its outer class
+     * @return directed graph.
+     * @throws IOException
+     *             if a class file is invalid.
+     */
+    public static AtomicVertex[] readClasses(Iterable<ClassBytes> classes, StringPattern pattern,
+            StringPattern reflectionPattern, boolean mergeInnerClasses) throws IOException {
+        final ArrayList<UnresolvedNode> unresolvedNodes = new ArrayList<>();
+        beginParse();
+        try {
+            for (final ClassBytes classBytes : classes) {
+                unresolvedNodes.add(extractNode(classBytes, reflectionPattern));
+            }
+        } finally {
+            endParse();
         }
+        return createGraph(unresolvedNodes, pattern, mergeInnerClasses);
+    }
+
+    static UnresolvedNode extractNode(ClassBytes classBytes, StringPattern reflectionPattern) throws IOException {
+        try {
+            return createNode(classBytes.getBytes(), classBytes.getSource(), reflectionPattern);
+        } catch (final IOException | RuntimeException e) {
+            throw new IOException("Invalid class file " + classBytes.getNameHint() + ": " + e, e);
+        }
+    }
+
+    /**
+     * Creates a directed graph from the specified unresolved nodes. Only nodes matching <tt>pattern</tt> become graph
+     * vertices.
+     */
+    static AtomicVertex[] createGraph(List<UnresolvedNode> unresolvedNodes, StringPattern pattern,
+            boolean mergeInnerClasses) {
         final List<UnresolvedNode> filteredNodes = new ArrayList<>();
         for (int i = 0, n = unresolvedNodes.size(); i < n; i++) {
             final UnresolvedNode node = unresolvedNodes.get(i);
@@ -252,6 +1059,7 @@ public class Parser {
                 filteredNodes.add(node);
             }
         }
+        assignModules(unresolvedNodes, filteredNodes);
         UnresolvedNode[] nodes = new UnresolvedNode[filteredNodes.size()];
         nodes = filteredNodes.toArray(nodes);
         return GraphBuilder.createGraph(nodes, mergeInnerClasses);
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import classycle.Metrics.Counter;
+
+/**
+ * The {@link Counter counters} of the parses of one {@link Analyser}. The parser adds to the counters bound to the
+ * current thread (see {@link #bind(ParserCounters)}). Tasks of the parser running on other threads are wrapped by
+ * {@link #propagate(Callable)}. Parses without bound counters are not counted. Thus analysers running concurrently in
+ * the same JVM do not see each other's counts.
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class ParserCounters {
+
+    private static final ThreadLocal<ParserCounters> CURRENT = new ThreadLocal<>();
+
+    private final LongAdder[] values = new LongAdder[Counter.values().length];
+
+    ParserCounters() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Binds the specified counters to the current thread.
+     *
+     * @param counters
+     *            Counters or <tt>null</tt> to stop counting.
+     * @return the counters bound before, to be restored by another invocation of this method.
+     */
+    static ParserCounters bind(ParserCounters counters) {
+        final ParserCounters previous = CURRENT.get();
+        if (counters == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(counters);
+        }
+        return previous;
+    }
+
+    /**
+     * Returns a task which runs the specified task with the counters bound to the current thread.
+     */
+    static <T> Callable<T> propagate(Callable<T> task) {
+        final ParserCounters counters = CURRENT.get();
+        return () -> {
+            final ParserCounters previous = bind(counters);
+            try {
+                return task.call();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+    /** Increments the specified counter of the counters bound to the current thread. */
+    static void increment(Counter counter) {
+        add(counter, 1);
+    }
+
+    /** Adds the specified value to the specified counter of the counters bound to the current thread. */
+    static void add(Counter counter, long value) {
+        final ParserCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.values[counter.ordinal()].add(value);
+        }
+    }
+
+    /** Returns the value of the specified counter. */
+    long get(Counter counter) {
+        return values[counter.ordinal()].sum();
+    }
+}
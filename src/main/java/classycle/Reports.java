@@ -0,0 +1,186 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import classycle.renderer.GraphExporter;
+
+/**
+ * Creates several reports of one {@link Analyser} concurrently. First everything the reports need (condensed graphs,
+ * layer maps, vertex-to-component maps, number of external classes) is calculated once. After that the graphs are
+ * only read. Thus the reports are printed in parallel by a thread pool with at most one thread per report.
+ * <p>
+ * Each report needs its own writer. The writers are closed after printing.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class Reports {
+
+    private interface Report {
+        void print() throws IOException;
+    }
+
+    private final Analyser analyser;
+    private final List<Report> reports = new ArrayList<>();
+    private boolean classesNeeded;
+    private boolean packagesNeeded;
+    private boolean modulesNeeded;
+    private boolean externalClassesNeeded;
+    private int numberOfExternalClasses;
+
+    /** Creates an instance for the specified analyser. */
+    public Reports(Analyser analyser) {
+        this.analyser = analyser;
+    }
+
+    /** Adds an XML report (see {@link Analyser#printXML(String, boolean, PrintWriter)}). */
+    public void addXML(String title, boolean packagesOnly, PrintWriter writer) {
+        classesNeeded |= !packagesOnly;
+        externalClassesNeeded |= !packagesOnly;
+        packagesNeeded = true;
+        reports.add(() -> analyser.printXML(title, packagesOnly, numberOfExternalClasses, writer));
+    }
+
+    /** Adds a CSV report (see {@link Analyser#printCSV(PrintWriter)}). */
+    public void addCSV(PrintWriter writer) {
+        classesNeeded = true;
+        reports.add(() -> analyser.printCSV(writer));
+    }
+
+    /** Adds a raw report (see {@link Analyser#printRaw(PrintWriter)}). */
+    public void addRaw(PrintWriter writer) {
+        reports.add(() -> analyser.printRaw(writer));
+    }
+
+    /** Adds a report of strong components (see {@link Analyser#printComponents(PrintWriter, int)}). */
+    public void addComponents(PrintWriter writer, int minSize) {
+        classesNeeded = true;
+        reports.add(() -> analyser.printComponents(writer, minSize));
+    }
+
+    /** Adds an export of the class graph or package graph (see {@link Analyser#printGraph}). */
+    public void addGraph(GraphExporter exporter, boolean packages, PrintWriter writer) {
+        packagesNeeded |= packages;
+        reports.add(() -> analyser.printGraph(exporter, packages, writer));
+    }
+
+    /** Adds an export of the module graph (see {@link Analyser#printModuleGraph}). */
+    public void addModuleGraph(GraphExporter exporter, PrintWriter writer) {
+        modulesNeeded = true;
+        reports.add(() -> analyser.printModuleGraph(exporter, writer));
+    }
+
+    /** Adds a binary class graph file (see {@link Analyser#writeBinaryGraph(File)}). */
+    public void addBinaryGraph(File file) {
+        classesNeeded = true;
+        reports.add(() -> analyser.writeBinaryGraph(file));
+    }
+
+    /**
+     * Prints all added reports. Returns after all reports have been printed.
+     *
+     * @return the duration of this operation in milliseconds.
+     * @throws IOException
+     *             if a report could not be written. The other reports are printed anyway.
+     */
+    public long print() throws IOException {
+        final long time = System.currentTimeMillis();
+        if (reports.isEmpty()) {
+            return 0;
+        }
+        prepare();
+        if (reports.size() == 1) {
+            reports.get(0).print();
+        } else {
+            printConcurrently();
+        }
+        return System.currentTimeMillis() - time;
+    }
+
+    private void prepare() {
+        analyser.getClassGraph();
+        if (classesNeeded) {
+            analyser.getClassLayerMap();
+            analyser.getClassComponentMap();
+        }
+        if (packagesNeeded) {
+            analyser.getPackageGraph();
+            analyser.getPackageLayerMap();
+            analyser.getPackageComponentMap();
+        }
+        if (modulesNeeded) {
+            analyser.getModuleGraph();
+        }
+        if (externalClassesNeeded) {
+            numberOfExternalClasses = analyser.getNumberOfExternalClasses();
+        }
+    }
+
+    private void printConcurrently() throws IOException {
+        final int numberOfThreads = Math.min(reports.size(), Runtime.getRuntime().availableProcessors());
+        final ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>();
+            for (final Report report : reports) {
+                tasks.add(() -> {
+                    report.print();
+                    return null;
+                });
+            }
+            Throwable failure = null;
+            for (final Future<Void> future : executor.invokeAll(tasks)) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                }
+            }
+            if (failure instanceof IOException) {
+                throw (IOException) failure;
+            } else if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            } else if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while printing reports.");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable set of sources (e.g. jar files or folders) of a class, package, or module. Source sets are interned into a
+ * global {@link WeakInterner weak table}: Equal sets in use are the same instance, so the few distinct combinations of
+ * sources are shared by all vertices. Sets which aren't used anymore are dropped from the table. The set view and the
+ * string representation are created on demand and cached.
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class SourceSet {
+
+    /** The set without sources. */
+    static final SourceSet EMPTY = new SourceSet(new String[0]);
+
+    private static final WeakInterner<String, SourceSet> SINGLETONS = new WeakInterner<>();
+    private static final WeakInterner<SourceSet, SourceSet> SETS = new WeakInterner<>();
+
+    /** Sources in ascending order. */
+    private final String[] sources;
+    private final int hashCode;
+    private Set<String> set;
+    private String string;
+
+    private SourceSet(String[] sources) {
+        this.sources = sources;
+        hashCode = Arrays.hashCode(sources);
+    }
+
+    /** Returns the set containing only the specified source. */
+    static SourceSet of(String source) {
+        return SINGLETONS.intern(source, s -> new SourceSet(new String[] { s }));
+    }
+
+    /** Returns the union of this set and the specified set. */
+    SourceSet union(SourceSet other) {
+        if (this == other || other.sources.length == 0) {
+            return this;
+        }
+        if (sources.length == 0) {
+            return other;
+        }
+        final String[] merged = new String[sources.length + other.sources.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < sources.length && j < other.sources.length) {
+            final int comparison = sources[i].compareTo(other.sources[j]);
+            if (comparison < 0) {
+                merged[n++] = sources[i++];
+            } else if (comparison > 0) {
+                merged[n++] = other.sources[j++];
+            } else {
+                merged[n++] = sources[i++];
+                j++;
+            }
+        }
+        while (i < sources.length) {
+            merged[n++] = sources[i++];
+        }
+        while (j < other.sources.length) {
+            merged[n++] = other.sources[j++];
+        }
+        if (n == sources.length) {
+            return this;
+        }
+        if (n == other.sources.length) {
+            return other;
+        }
+        return SETS.intern(new SourceSet(Arrays.copyOf(merged, n)), set -> set);
+    }
+
+    /** Returns the sources in ascending order as an unmodifiable set. */
+    Set<String> toSet() {
+        Set<String> result = set;
+        if (result == null) {
+            result = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(sources)));
+            set = result;
+        }
+        return result;
+    }
+
+    /** Returns the comma separated list of the non-empty sources. */
+    @Override
+    public String toString() {
+        String result = string;
+        if (result == null) {
+            final StringBuilder builder = new StringBuilder();
+            for (final String source : sources) {
+                if (source.length() > 0) {
+                    if (builder.length() > 0) {
+                        builder.append(", ");
+                    }
+                    builder.append(source);
+                }
+            }
+            result = builder.toString();
+            string = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof SourceSet && Arrays.equals(sources, ((SourceSet) object).sources);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+}
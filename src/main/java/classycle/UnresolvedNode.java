@@ -80,7 +80,7 @@ class UnresolvedNode {
     }
 
     public static Comparator<UnresolvedNode> comparatorByClassName() {
-        return (o1, o2) -> o1.getAttributes().getName().compareTo(o2.getAttributes().getName());
+        return (o1, o2) -> o1.getAttributes().compareNameTo(o2.getAttributes());
     }
 
 }
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Thread-safe table of canonical instances which doesn't keep them alive. A value has to reference its key strongly:
+ * The entry is dropped by the garbage collector as soon as the value isn't used anymore. Thus the table doesn't grow in
+ * long-running processes like the {@link classycle.daemon.AnalyserDaemon daemon}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class WeakInterner<K, V> {
+
+    private final WeakHashMap<K, WeakReference<V>> table = new WeakHashMap<>();
+
+    /**
+     * Returns the canonical value of the specified key.
+     *
+     * @param factory
+     *            Creates the value if there is none. The value has to reference the key passed to the factory.
+     */
+    synchronized V intern(K key, Function<K, V> factory) {
+        final WeakReference<V> reference = table.get(key);
+        V value = reference == null ? null : reference.get();
+        if (value == null) {
+            value = factory.apply(key);
+            // replaces a stale key too, so the key of the entry is the one referenced by the value
+            table.remove(key);
+            table.put(key, new WeakReference<>(value));
+        }
+        return value;
+    }
+}
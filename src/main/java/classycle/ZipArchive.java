@@ -0,0 +1,315 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Reader of a zip archive (e.g. a jar file) held in a {@link ByteBuffer}. Usually the buffer is a memory-mapped
+ * file. The central directory is parsed directly. Stored entries are returned as slices of the buffer without
+ * copying. Deflated entries are inflated into a buffer which is reused for all entries of the archive.
+ * <p>
+ * Archives may be preceded by other data, e.g. the header of a jmod file. ZIP64 archives, encrypted entries and
+ * compression methods other than stored and deflated are not supported. {@link #open(File)} returns <tt>null</tt> for
+ * archives which can not be read by this class. They have to be read by {@link java.util.zip.ZipFile}.
+ * <p>
+ * The mapping of a file opened by {@link #open(File)} isn't released by {@link #close()} but only when the buffer is
+ * garbage collected. Until then the file stays locked on Windows, i.e. it can not be replaced or deleted. Files which
+ * may change while the JVM is running (e.g. those watched by the {@link classycle.daemon.AnalyserDaemon daemon}) have
+ * to be read by {@link #read(File)}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+class ZipArchive implements Closeable {
+
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int END_SIZE = 22;
+    private static final int MAX_COMMENT_LENGTH = 0xffff;
+    private static final int CENTRAL_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final int ENCRYPTED_FLAG = 1;
+    private static final int ZIP64_MARKER = 0xffffffff;
+
+    private final ByteBuffer archive;
+    private final int prefixLength;
+    private final int[] headers;
+    private Inflater inflater;
+    private ByteBuffer inflated;
+
+    /**
+     * Creates an instance for the remaining bytes of the specified buffer.
+     *
+     * @throws ZipException
+     *             if the buffer does not contain a valid zip archive or if the archive is not supported.
+     */
+    ZipArchive(ByteBuffer archive) throws ZipException {
+        this.archive = archive.slice().order(ByteOrder.LITTLE_ENDIAN);
+        headers = readCentralDirectory(this.archive);
+        final int end = findEnd(this.archive);
+        prefixLength = end - this.archive.getInt(end + 12) - this.archive.getInt(end + 16);
+    }
+
+    /**
+     * Memory-maps the specified file.
+     *
+     * @return <tt>null</tt> if the file is too large to be mapped or if it is a ZIP64 archive.
+     * @throws ZipException
+     *             if the file is not a valid zip archive.
+     */
+    static ZipArchive open(File file) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        return wrap(buffer);
+    }
+
+    /**
+     * Reads the specified file into a heap buffer. In contrast to {@link #open(File)} the file isn't locked after
+     * reading.
+     *
+     * @return <tt>null</tt> if the file is too large to be read into a buffer or if it is a ZIP64 archive.
+     * @throws ZipException
+     *             if the file is not a valid zip archive.
+     */
+    static ZipArchive read(File file) throws IOException {
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read until the buffer is full or the end of the file is reached
+            }
+            buffer.flip();
+        }
+        return wrap(buffer);
+    }
+
+    /**
+     * Creates an instance for the remaining bytes of the specified buffer, e.g. an archive nested in another archive.
+     *
+     * @return <tt>null</tt> if the buffer contains a ZIP64 archive.
+     * @throws ZipException
+     *             if the buffer does not contain a valid zip archive.
+     */
+    static ZipArchive wrap(ByteBuffer buffer) throws ZipException {
+        return isZip64(buffer.slice().order(ByteOrder.LITTLE_ENDIAN)) ? null : new ZipArchive(buffer);
+    }
+
+    private static boolean isZip64(ByteBuffer archive) {
+        final int end = findEnd(archive);
+        return end >= 0 && (archive.getShort(end + 10) == -1 || archive.getInt(end + 12) == ZIP64_MARKER
+                || archive.getInt(end + 16) == ZIP64_MARKER);
+    }
+
+    /** Returns the index of the end of central directory record or <tt>-1</tt> if not found. */
+    private static int findEnd(ByteBuffer archive) {
+        final int last = archive.limit() - END_SIZE;
+        for (int i = last, min = Math.max(0, last - MAX_COMMENT_LENGTH); i >= min; i--) {
+            final int commentLength = archive.getShort(i + 20) & 0xffff;
+            if (archive.getInt(i) == END_SIGNATURE && i + END_SIZE + commentLength <= archive.limit()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] readCentralDirectory(ByteBuffer archive) throws ZipException {
+        final int end = findEnd(archive);
+        if (end < 0) {
+            throw new ZipException("End of central directory not found");
+        }
+        if (isZip64(archive)) {
+            throw new ZipException("ZIP64 archives are not supported");
+        }
+        final int numberOfEntries = archive.getShort(end + 10) & 0xffff;
+        final int size = archive.getInt(end + 12);
+        final int offset = archive.getInt(end + 16);
+        if (offset < 0 || size < 0 || offset + (long) size > end) {
+            throw new ZipException("Invalid central directory");
+        }
+        // The central directory precedes the end record. Offsets are relative to the start of the zip data which
+        // follows a prefix like the header of a jmod file or the launcher script of an executable jar.
+        final int[] result = new int[numberOfEntries];
+        for (int i = 0, header = end - size; i < numberOfEntries; i++) {
+            if (header + CENTRAL_HEADER_SIZE > end || archive.getInt(header) != CENTRAL_SIGNATURE) {
+                throw new ZipException("Invalid central directory header of entry " + i);
+            }
+            result[i] = header;
+            header += CENTRAL_HEADER_SIZE + (archive.getShort(header + 28) & 0xffff)
+                    + (archive.getShort(header + 30) & 0xffff) + (archive.getShort(header + 32) & 0xffff);
+        }
+        return result;
+    }
+
+    /** Returns the number of entries. */
+    int getNumberOfEntries() {
+        return headers.length;
+    }
+
+    /** Returns the name of the specified entry. */
+    String getName(int index) {
+        final int header = headers[index];
+        final byte[] bytes = new byte[archive.getShort(header + 28) & 0xffff];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = archive.get(header + CENTRAL_HEADER_SIZE + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the name of the specified entry ends with the specified ASCII suffix. The name is
+     * not decoded.
+     */
+    boolean nameEndsWith(int index, String suffix) {
+        final int header = headers[index];
+        final int length = archive.getShort(header + 28) & 0xffff;
+        if (length < suffix.length()) {
+            return false;
+        }
+        for (int i = 0, start = header + CENTRAL_HEADER_SIZE + length - suffix.length(); i < suffix.length(); i++) {
+            if (archive.get(start + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the uncompressed content of the specified entry. Stored entries are slices of the archive. Deflated
+     * entries are inflated into a buffer which is overwritten by the next call of this method.
+     *
+     * @return a buffer with the content between its position and its limit.
+     * @throws ZipException
+     *             if the entry is invalid, encrypted or compressed by an unsupported method.
+     */
+    ByteBuffer getContent(int index) throws ZipException {
+        final int header = headers[index];
+        if ((archive.getShort(header + 8) & ENCRYPTED_FLAG) != 0) {
+            throw new ZipException("Encrypted entry " + getName(index));
+        }
+        final int method = archive.getShort(header + 10) & 0xffff;
+        final int compressedSize = archive.getInt(header + 20);
+        final int size = archive.getInt(header + 24);
+        final int local = prefixLength + archive.getInt(header + 42);
+        if (local < prefixLength || local + LOCAL_HEADER_SIZE > archive.limit()
+                || archive.getInt(local) != LOCAL_SIGNATURE) {
+            throw new ZipException("Invalid local header of entry " + getName(index));
+        }
+        final int data = local + LOCAL_HEADER_SIZE + (archive.getShort(local + 26) & 0xffff)
+                + (archive.getShort(local + 28) & 0xffff);
+        if (compressedSize < 0 || size < 0 || data + (long) compressedSize > archive.limit()) {
+            throw new ZipException("Invalid size of entry " + getName(index));
+        }
+        final ByteBuffer compressed = archive.duplicate();
+        compressed.limit(data + compressedSize).position(data);
+        switch (method) {
+            case STORED:
+                return compressed.slice();
+            case DEFLATED:
+                return inflate(compressed, size, index);
+            default:
+                throw new ZipException("Unsupported compression method " + method + " of entry " + getName(index));
+        }
+    }
+
+    /**
+     * Returns the uncompressed content of the specified entry like {@link #getContent(int)}. But deflated entries are
+     * inflated into a new buffer. Thus the content stays valid after further calls, e.g. for a nested archive.
+     */
+    ByteBuffer getDetachedContent(int index) throws ZipException {
+        final ByteBuffer content = getContent(index);
+        if (content != inflated) {
+            return content;
+        }
+        return ByteBuffer.allocate(content.remaining()).put(content).flip();
+    }
+
+    private ByteBuffer inflate(ByteBuffer compressed, int size, int index) throws ZipException {
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        } else {
+            inflater.reset();
+        }
+        if (inflated == null || inflated.capacity() < size) {
+            inflated = ByteBuffer.allocate(Math.max(size, 1024));
+        }
+        inflated.clear();
+        inflater.setInput(compressed);
+        try {
+            while (!inflater.finished()) {
+                if (!inflated.hasRemaining()) {
+                    // Size in the central directory was wrong
+                    final ByteBuffer larger = ByteBuffer.allocate(2 * inflated.capacity());
+                    inflated.flip();
+                    inflated = larger.put(inflated);
+                }
+                if (inflater.inflate(inflated) == 0 && !inflater.finished()
+                        && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("Truncated entry " + getName(index));
+                }
+            }
+        } catch (final DataFormatException e) {
+            throw new ZipException("Invalid deflated entry " + getName(index) + ": " + e.getMessage());
+        }
+        inflated.flip();
+        return inflated;
+    }
+
+    /**
+     * Releases the inflater. The mapping of an archive opened by {@link #open(File)} is released by the garbage
+     * collector.
+     */
+    @Override
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+    }
+
+}
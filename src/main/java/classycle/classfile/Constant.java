@@ -26,7 +26,10 @@
 package classycle.classfile;
 
 import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
 
 /**
  * Abstract super class of all type of constants in the constant pool of a class file.
@@ -168,4 +171,184 @@ public abstract class Constant {
         throw new IOException("Not a class file: Magic number missing.");
     }
 
+    /**
+     * Extracts the constant pool from the specified buffer. Bytes are read by absolute index. No stream objects and no
+     * intermediate byte arrays are created. The byte order of the buffer is ignored.
+     *
+     * @param buffer
+     *            Buffer containing a class file which starts at the position of the buffer. After extraction the
+     *            position points onto the access flags, i.e.&nbsp;the first byte after the constant pool.
+     * @return extracted array of constants.
+     * @throws IOException
+     *             in case of an invalid or truncated class file.
+     */
+    public static Constant[] extractConstantPool(ByteBuffer buffer) throws IOException {
+        int index = buffer.position();
+        try {
+            if (getInt(buffer, index) != MAGIC) {
+                throw new IOException("Not a class file: Magic number missing.");
+            }
+            final int constantPoolCount = getUnsignedShort(buffer, index + 8);
+            index += 10;
+            final Constant[] pool = new Constant[constantPoolCount];
+            char[] chars = new char[256];
+            for (int i = 1; i < constantPoolCount;) {
+                boolean skipIndex = false;
+                Constant c = null;
+                final int type = buffer.get(index++) & 0xff;
+                switch (type) {
+                    case CONSTANT_CLASS:
+                        c = new ClassConstant(pool, getUnsignedShort(buffer, index));
+                        index += 2;
+                        break;
+                    case CONSTANT_FIELDREF:
+                        c = new FieldRefConstant(pool, getUnsignedShort(buffer, index),
+                                getUnsignedShort(buffer, index + 2));
+                        index += 4;
+                        break;
+                    case CONSTANT_METHODREF:
+                        c = new MethodRefConstant(pool, getUnsignedShort(buffer, index),
+                                getUnsignedShort(buffer, index + 2));
+                        index += 4;
+                        break;
+                    case CONSTANT_INTERFACE_METHODREF:
+                        c = new InterfaceMethodRefConstant(pool, getUnsignedShort(buffer, index),
+                                getUnsignedShort(buffer, index + 2));
+                        index += 4;
+                        break;
+                    case CONSTANT_STRING:
+                        c = new StringConstant(pool, getUnsignedShort(buffer, index));
+                        index += 2;
+                        break;
+                    case CONSTANT_INTEGER:
+                        c = new IntConstant(pool, getInt(buffer, index));
+                        index += 4;
+                        break;
+                    case CONSTANT_FLOAT:
+                        c = new FloatConstant(pool, Float.intBitsToFloat(getInt(buffer, index)));
+                        index += 4;
+                        break;
+                    case CONSTANT_LONG:
+                        c = new LongConstant(pool, getLong(buffer, index));
+                        index += 8;
+                        skipIndex = true;
+                        break;
+                    case CONSTANT_DOUBLE:
+                        c = new DoubleConstant(pool, Double.longBitsToDouble(getLong(buffer, index)));
+                        index += 8;
+                        skipIndex = true;
+                        break;
+                    case CONSTANT_NAME_AND_TYPE:
+                        c = new NameAndTypeConstant(pool, getUnsignedShort(buffer, index),
+                                getUnsignedShort(buffer, index + 2));
+                        index += 4;
+                        break;
+                    case CONSTANT_UTF8:
+                        final int length = getUnsignedShort(buffer, index);
+                        if (chars.length < length) {
+                            chars = new char[length];
+                        }
+                        c = new UTF8Constant(pool, decodeUTF(buffer, index + 2, length, chars),
+                                isDescriptorCandidate(buffer, index + 2, length));
+                        index += 2 + length;
+                        break;
+                    // Java 7
+                    case CONSTANT_METHOD_HANDLE:
+                        c = new MethodHandleConstant(pool, buffer.get(index) & 0xff,
+                                getUnsignedShort(buffer, index + 1));
+                        index += 3;
+                        break;
+                    case CONSTANT_METHOD_TYPE:
+                        c = new MethodTypeConstant(pool, getUnsignedShort(buffer, index));
+                        index += 2;
+                        break;
+                    case CONSTANT_INVOKE_DYNAMIC:
+                        c = new InvokeDynamicConstant(pool, getUnsignedShort(buffer, index),
+                                getUnsignedShort(buffer, index + 2));
+                        index += 4;
+                        break;
+                    // Java 9
+                    case CONSTANT_MODULE:
+                        c = new ModuleConstant(pool, getUnsignedShort(buffer, index));
+                        index += 2;
+                        break;
+                    case CONSTANT_PACKAGE:
+                        c = new PackageConstant(pool, getUnsignedShort(buffer, index));
+                        index += 2;
+                        break;
+                    default:
+                        throw new IOException("Unknown constant pool tag. New Java version (10+) came out?");
+                }
+                pool[i] = c;
+                // double and long constants occupy two entries
+                i += skipIndex ? 2 : 1;
+            }
+            buffer.position(index);
+            return pool;
+        } catch (final IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new EOFException("Unexpected end of class file at byte " + (index - buffer.position()) + ".");
+        }
+    }
+
+    private static int getUnsignedShort(ByteBuffer buffer, int index) {
+        return (buffer.get(index) & 0xff) << 8 | buffer.get(index + 1) & 0xff;
+    }
+
+    private static int getInt(ByteBuffer buffer, int index) {
+        return getUnsignedShort(buffer, index) << 16 | getUnsignedShort(buffer, index + 2);
+    }
+
+    private static long getLong(ByteBuffer buffer, int index) {
+        return (long) getInt(buffer, index) << 32 | getInt(buffer, index + 4) & 0xffffffffL;
+    }
+
+    /**
+     * Classifies an UTF8 constant on its raw bytes (see {@link UTF8Constant#isDescriptorCandidate()}). This works on
+     * the encoded bytes because all bytes of multi-byte characters in modified UTF-8 are greater than <tt>0x7f</tt>.
+     */
+    private static boolean isDescriptorCandidate(ByteBuffer buffer, int index, int length) {
+        if (length == 0 || !UTF8Constant.isDescriptorStart(buffer.get(index))) {
+            return false;
+        }
+        for (int i = index + 1, end = index + length; i < end; i++) {
+            if (buffer.get(i) == ';') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Decodes a string in the modified UTF-8 format of class files (see {@link DataInputStream#readUTF()}).
+     *
+     * @param chars
+     *            Buffer for the decoded characters. It has at least <tt>length</tt> elements.
+     */
+    private static String decodeUTF(ByteBuffer buffer, int index, int length, char[] chars)
+            throws UTFDataFormatException {
+        int n = 0;
+        for (int i = index, end = index + length; i < end;) {
+            final int b = buffer.get(i++) & 0xff;
+            if (b < 0x80) {
+                chars[n++] = (char) b;
+            } else if ((b & 0xe0) == 0xc0 && i < end) {
+                final int b2 = buffer.get(i++);
+                if ((b2 & 0xc0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + (i - index));
+                }
+                chars[n++] = (char) ((b & 0x1f) << 6 | b2 & 0x3f);
+            } else if ((b & 0xf0) == 0xe0 && i + 1 < end) {
+                final int b2 = buffer.get(i++);
+                final int b3 = buffer.get(i++);
+                if ((b2 & 0xc0) != 0x80 || (b3 & 0xc0) != 0x80) {
+                    throw new UTFDataFormatException("Malformed input around byte " + (i - index));
+                }
+                chars[n++] = (char) ((b & 0x0f) << 12 | (b2 & 0x3f) << 6 | b3 & 0x3f);
+            } else {
+                throw new UTFDataFormatException("Malformed input around byte " + (i - index));
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
 }
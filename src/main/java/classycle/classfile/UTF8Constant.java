@@ -32,7 +32,11 @@ package classycle.classfile;
  */
 public final class UTF8Constant extends Constant {
 
+    /** Characters a field or method descriptor or a signature can start with. */
+    private static final String DESCRIPTOR_START = "<([LTBCDFIJSVZ";
+
     private final String string;
+    private final boolean descriptorCandidate;
 
     /**
      * Creates an instance for the specified string.
@@ -43,8 +47,19 @@ public final class UTF8Constant extends Constant {
      *            wrapped string.
      */
     public UTF8Constant(Constant[] pool, String string) {
+        this(pool, string, !string.isEmpty() && isDescriptorStart(string.charAt(0)) && string.indexOf(';') > 0);
+    }
+
+    /**
+     * Creates an instance for the specified string which has already been classified.
+     *
+     * @param descriptorCandidate
+     *            Result of the classification. See {@link #isDescriptorCandidate()}.
+     */
+    UTF8Constant(Constant[] pool, String string, boolean descriptorCandidate) {
         super(pool);
         this.string = string;
+        this.descriptorCandidate = descriptorCandidate;
     }
 
     /** Returns the wrapped string. */
@@ -52,6 +67,20 @@ public final class UTF8Constant extends Constant {
         return string;
     }
 
+    /**
+     * Returns <tt>true</tt> if the wrapped string may be a field or method descriptor or a signature referring to a
+     * class. That is, it starts with a character a descriptor can start with and it contains a <tt>;</tt>. Method
+     * names, field names, attribute names and class names (except of array classes) never contain a <tt>;</tt>.
+     */
+    public boolean isDescriptorCandidate() {
+        return descriptorCandidate;
+    }
+
+    /** Returns <tt>true</tt> if a descriptor or signature can start with the specified character or byte. */
+    static boolean isDescriptorStart(int c) {
+        return c > 0 && c < 0x80 && DESCRIPTOR_START.indexOf(c) >= 0;
+    }
+
     /** Returns the constant type and the wrapped string. */
     @Override
     public String toString() {
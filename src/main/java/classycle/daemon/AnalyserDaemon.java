@@ -0,0 +1,433 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.daemon;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.AclEntry;
+import java.nio.file.attribute.AclEntryPermission;
+import java.nio.file.attribute.AclEntryType;
+import java.nio.file.attribute.AclFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import classycle.Analyser;
+import classycle.ClassFileRepository;
+import classycle.Parser;
+import classycle.dependency.DefaultResultRenderer;
+import classycle.dependency.DependencyChecker;
+import classycle.graph.GraphChange;
+import classycle.util.Text;
+
+/**
+ * Long-running analyser which keeps the class and package graph in memory. The class files are watched for changes
+ * and only changed files are read again. Requests are answered over a local socket. Thus, a dependency check does not
+ * pay JVM startup and parsing of all class files.
+ * <p>
+ * The port is bound to the loopback address, but every local user can connect to it. Therefore the daemon creates a
+ * random token on start-up and writes it into a token file which is readable only by its owner (see
+ * {@link #getDefaultTokenFile(int)}). The protocol is line based: A client connects, sends the token line and one
+ * request line and reads the response until the socket is closed. Requests with a wrong token are rejected. The last
+ * line of the response is either <tt>#OK</tt>, <tt>#FAILED</tt> (a dependency check found unwanted dependencies), or
+ * <tt>#ERROR</tt> followed by an error message. The requests are
+ * <table border=1 cellpadding=5>
+ * <tr>
+ * <th>Request</th>
+ * <th>Description</th>
+ * </tr>
+ * <tr>
+ * <td><tt>status</tt></td>
+ * <td>Number of classes and packages of the current graphs.</td>
+ * </tr>
+ * <tr>
+ * <td><tt>check</tt> <i>ddf file</i></td>
+ * <td>Checks the class graph against the dependency definition file like {@link DependencyChecker}. The checker is
+ * kept as long as the file does not change. Only statements affected by changed classes are evaluated again.</td>
+ * </tr>
+ * <tr>
+ * <td><tt>xml</tt> <i>file</i></td>
+ * <td>Writes the XML report into the specified file. It has to be in the output directory.</td>
+ * </tr>
+ * <tr>
+ * <td><tt>csv</tt> <i>file</i></td>
+ * <td>Writes the CSV report into the specified file. It has to be in the output directory.</td>
+ * </tr>
+ * <tr>
+ * <td><tt>cycles</tt>, <tt>strong</tt></td>
+ * <td>Prints all cycles or strong components of the class graph.</td>
+ * </tr>
+ * <tr>
+ * <td><tt>refresh</tt></td>
+ * <td>Reads all class files again.</td>
+ * </tr>
+ * <tr>
+ * <td><tt>shutdown</tt></td>
+ * <td>Stops the daemon.</td>
+ * </tr>
+ * </table>
+ * File names should be absolute because they are resolved by the daemon. Reports are written only if the daemon has
+ * been created with an output directory.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class AnalyserDaemon implements Closeable {
+
+    /** Last line of the response of a successful request. */
+    public static final String OK = "#OK";
+    /** Last line of the response of a dependency check which found unwanted dependencies. */
+    public static final String FAILED = "#FAILED";
+    /** Prefix of the last line of the response of an erroneous request. */
+    public static final String ERROR = "#ERROR";
+
+    private static final int MAX_NUMBER_OF_CHECKERS = 16;
+    private static final int TOKEN_LENGTH = 32;
+
+    private final ClassFileRepository repository;
+    private final Analyser analyser;
+    private final String title;
+    private final File tokenFile;
+    private final byte[] token;
+    private final File outputDirectory;
+    private final ServerSocket serverSocket;
+    private final ClassFileWatcher watcher;
+    private final Set<File> pendingFiles = new LinkedHashSet<>();
+    private final Map<String, DependencyChecker> checkers = new LinkedHashMap<String, DependencyChecker>() {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, DependencyChecker> eldest) {
+            return size() > MAX_NUMBER_OF_CHECKERS;
+        }
+    };
+    private volatile boolean running = true;
+
+    /**
+     * Creates an instance with the default token file and without output directory, i.e. reports can not be written.
+     *
+     * @see #AnalyserDaemon(ClassFileRepository, int, File, File)
+     */
+    public AnalyserDaemon(ClassFileRepository repository, int port) throws IOException {
+        this(repository, port, getDefaultTokenFile(port), null);
+    }
+
+    /**
+     * Creates an instance which reads all class files of the specified repository, writes a new token into the
+     * specified token file, and starts listening on the specified local port. Requests will be processed after
+     * {@link #run(long)} has been invoked.
+     *
+     * @param tokenFile
+     *            File the token is written into. An existing file is replaced. It is deleted by {@link #close()}.
+     * @param outputDirectory
+     *            Directory of the files written by the requests <tt>xml</tt> and <tt>csv</tt>. If <tt>null</tt> these
+     *            requests are rejected.
+     * @throws IOException
+     *             if the class files could not be read, the token file could not be written, or the port is not
+     *             available.
+     */
+    public AnalyserDaemon(ClassFileRepository repository, int port, File tokenFile, File outputDirectory)
+            throws IOException {
+        this.repository = repository;
+        this.tokenFile = tokenFile;
+        this.outputDirectory = outputDirectory;
+        analyser = new Analyser(repository);
+        title = repository.getClassFiles()[0];
+        analyser.readAndAnalyse(true);
+        token = createToken();
+        watcher = new ClassFileWatcher(repository.getRoots());
+        serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        try {
+            writeToken(tokenFile, token);
+        } catch (final IOException e) {
+            watcher.close();
+            serverSocket.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the default token file of the daemon listening on the specified port: <tt>.classycle/daemon-</tt>
+     * <i>port</i><tt>.token</tt> in the home directory of the user.
+     */
+    public static File getDefaultTokenFile(int port) {
+        return new File(System.getProperty("user.home"), ".classycle" + File.separator + "daemon-" + port + ".token");
+    }
+
+    private static byte[] createToken() {
+        final byte[] bytes = new byte[TOKEN_LENGTH];
+        new SecureRandom().nextBytes(bytes);
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : bytes) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes the token into a new file which is readable and writable only by its owner. The access is restricted
+     * before the token is written, so the token is never readable by others.
+     */
+    private static void writeToken(File tokenFile, byte[] token) throws IOException {
+        final Path path = tokenFile.toPath().toAbsolutePath();
+        final Path folder = path.getParent();
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createDirectories(folder,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+            Files.deleteIfExists(path);
+            Files.createFile(path, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            // e.g. Windows: the access control list of the still empty file allows access only for its owner
+            Files.createDirectories(folder);
+            Files.deleteIfExists(path);
+            Files.createFile(path);
+            final AclFileAttributeView view = Files.getFileAttributeView(path, AclFileAttributeView.class);
+            if (view == null) {
+                Files.delete(path);
+                throw new IOException("Access to the token file " + tokenFile + " can not be restricted.");
+            }
+            view.setAcl(Collections.singletonList(AclEntry.newBuilder().setType(AclEntryType.ALLOW)
+                    .setPrincipal(view.getOwner()).setPermissions(AclEntryPermission.values()).build()));
+        }
+        Files.write(path, token);
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watcher.close();
+        serverSocket.close();
+        Files.deleteIfExists(tokenFile.toPath());
+    }
+
+    /**
+     * Returns the analyser. Access to it has to be synchronized on the returned object.
+     */
+    public Analyser getAnalyser() {
+        return analyser;
+    }
+
+    /**
+     * Processes a request and writes the response.
+     *
+     * @param request
+     *            Request line.
+     * @param writer
+     *            Writer for the response. The status line will be written too.
+     */
+    public void handleRequest(String request, PrintWriter writer) {
+        final String trimmed = request == null ? "" : request.trim();
+        final int index = trimmed.indexOf(' ');
+        final String command = index < 0 ? trimmed : trimmed.substring(0, index);
+        final String argument = index < 0 ? "" : trimmed.substring(index + 1).trim();
+        String status = OK;
+        try {
+            synchronized (analyser) {
+                if (command.equals("status")) {
+                    writer.println(analyser.getClassGraph().length + " classes, " + analyser.getPackageGraph().length
+                            + " packages.");
+                } else if (command.equals("check")) {
+                    status = check(argument, writer) ? OK : FAILED;
+                } else if (command.equals("xml")) {
+                    analyser.printXML(title, false, createOutputWriter(argument));
+                } else if (command.equals("csv")) {
+                    analyser.printCSV(createOutputWriter(argument));
+                } else if (command.equals("cycles") || command.equals("strong")) {
+                    final StringWriter output = new StringWriter();
+                    analyser.printComponents(new PrintWriter(output), command.equals("cycles") ? 2 : 1);
+                    writer.print(output);
+                } else if (command.equals("refresh")) {
+                    writer.println("done after " + refresh(Arrays.asList(repository.getRoots())) + " ms.");
+                } else if (command.equals("shutdown")) {
+                    close();
+                } else {
+                    status = ERROR + " Unknown request: " + trimmed;
+                }
+            }
+        } catch (final Exception e) {
+            status = ERROR + " " + e;
+        }
+        writer.println(status);
+        writer.flush();
+    }
+
+    private boolean check(String ddfFile, PrintWriter writer) throws IOException {
+        final File file = checkFile(ddfFile);
+        final String dependencyDefinition = Text.readTextFile(file);
+        final String key = file.getAbsolutePath() + '\n' + dependencyDefinition;
+        DependencyChecker checker = checkers.get(key);
+        if (checker == null) {
+            final Map<String, String> properties = new HashMap<>();
+            for (final String name : System.getProperties().stringPropertyNames()) {
+                properties.put(name, System.getProperty(name));
+            }
+            checker = new DependencyChecker(analyser, dependencyDefinition, properties, new DefaultResultRenderer());
+            checkers.put(key, checker);
+        }
+        return checker.check(writer);
+    }
+
+    /** Refreshes the class graph and invalidates the affected results of the cached dependency checkers. */
+    private long refresh(Collection<File> changedFiles) throws IOException {
+        final long duration = analyser.refreshClassGraph(changedFiles);
+        final GraphChange change = analyser.getLastClassGraphChange();
+        for (final DependencyChecker checker : checkers.values()) {
+            checker.update(change);
+        }
+        return duration;
+    }
+
+    private static File checkFile(String fileName) {
+        if (fileName.length() == 0) {
+            throw new IllegalArgumentException("Missing file name.");
+        }
+        return new File(fileName);
+    }
+
+    /**
+     * Creates a writer for the specified file in the output directory (or one of its subfolders). Symbolic links of the
+     * folders are resolved before the check. The file itself must not be a symbolic link.
+     */
+    private PrintWriter createOutputWriter(String fileName) throws IOException {
+        if (outputDirectory == null) {
+            throw new IllegalArgumentException("Reports can not be written because no output directory is defined.");
+        }
+        final Path path = checkFile(fileName).toPath().toAbsolutePath().normalize();
+        final Path folder = path.getParent();
+        if (folder == null || !folder.toRealPath().startsWith(outputDirectory.toPath().toRealPath())) {
+            throw new IllegalArgumentException(fileName + " is not in the output directory " + outputDirectory + ".");
+        }
+        final Path file = folder.toRealPath().resolve(path.getFileName());
+        return new PrintWriter(new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE,
+                LinkOption.NOFOLLOW_LINKS))));
+    }
+
+    /** Returns <tt>true</tt> if the specified line is the token. The comparison takes the same time for all lines. */
+    private boolean isToken(String line) {
+        return line != null && MessageDigest.isEqual(token, line.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Processes requests until {@link #close()} is invoked or a <tt>shutdown</tt> request has been received. Changes
+     * of class files are processed in a separated thread.
+     *
+     * @param quietPeriod
+     *            Time in milliseconds without file changes before the class graph will be updated.
+     */
+    public void run(long quietPeriod) {
+        final Thread watcherThread = new Thread(() -> watch(quietPeriod), "classycle-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        while (running) {
+            try (Socket socket = serverSocket.accept()) {
+                final BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                final PrintWriter writer = new PrintWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                if (isToken(reader.readLine())) {
+                    handleRequest(reader.readLine(), writer);
+                } else {
+                    writer.println(ERROR + " Invalid token. It is read from the token file of the daemon.");
+                    writer.flush();
+                }
+            } catch (final IOException e) {
+                if (running) {
+                    System.err.println("Error in processing request: " + e);
+                }
+            }
+        }
+    }
+
+    private void watch(long quietPeriod) {
+        try {
+            while (running) {
+                final Set<File> changedFiles = watcher.waitForChanges(quietPeriod);
+                synchronized (analyser) {
+                    pendingFiles.addAll(changedFiles);
+                    try {
+                        final long duration = refresh(pendingFiles);
+                        System.out.println(pendingFiles.size() + " changed file(s) processed after " + duration
+                                + " ms: " + analyser.getClassGraph().length + " classes.");
+                        pendingFiles.clear();
+                    } catch (final IOException e) {
+                        // Probably a file which is still being written. Try again with the next change.
+                        System.err.println("Error in reading changed files: " + e);
+                    }
+                }
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException e) {
+            // stop watching
+        }
+    }
+
+    /**
+     * Runs the daemon. Prints on the console its usage if some invalid command line argument occurs or is missed.
+     */
+    public static void main(String[] args) throws IOException {
+        final AnalyserDaemonCommandLine commandLine = new AnalyserDaemonCommandLine(args);
+        if (!commandLine.isValid()) {
+            System.out.println(
+                    "Usage: java -cp classycle.jar " + "classycle.daemon.AnalyserDaemon " + commandLine.getUsage());
+            System.exit(1);
+        }
+        if (commandLine.getDescriptorCacheSize() >= 0) {
+            Parser.setDescriptorCacheSize(commandLine.getDescriptorCacheSize());
+        }
+        final ClassFileRepository repository = new ClassFileRepository(commandLine.getClassFiles(),
+                commandLine.getPattern(), commandLine.getReflectionPattern(), commandLine.isMergeInnerClasses());
+        try (AnalyserDaemon daemon = new AnalyserDaemon(repository, commandLine.getPort(),
+                commandLine.getTokenFile(), commandLine.getOutputDirectory())) {
+            System.out.println("listening on port " + commandLine.getPort());
+            daemon.run(commandLine.getQuietPeriod());
+        }
+    }
+
+}
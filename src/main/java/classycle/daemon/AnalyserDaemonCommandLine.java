@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.daemon;
+
+import java.io.File;
+import classycle.CommandLine;
+
+/**
+ * Process command line arguments and options for the {@link AnalyserDaemon}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class AnalyserDaemonCommandLine extends CommandLine {
+
+    /** Default port of the daemon. */
+    public static final int DEFAULT_PORT = 7437;
+    private static final int DEFAULT_QUIET_PERIOD = 300;
+
+    private static final String PORT = "-port=";
+    private static final String QUIET_PERIOD = "-quietPeriod=";
+    private static final String TOKEN_FILE = "-tokenFile=";
+    private static final String OUTPUT_DIRECTORY = "-outputDirectory=";
+
+    // no initializers because the fields are set by handleOption() during super constructor call
+    private int port;
+    private int quietPeriod;
+    private File tokenFile;
+    private File outputDirectory;
+
+    public AnalyserDaemonCommandLine(String[] args) {
+        super(args);
+        // the daemon has to watch class files, a snapshot is not sufficient
+        if (classFiles.length == 0) {
+            valid = false;
+        }
+        if (port == 0) {
+            port = DEFAULT_PORT;
+        }
+        if (quietPeriod == 0) {
+            quietPeriod = DEFAULT_QUIET_PERIOD;
+        }
+        if (tokenFile == null) {
+            tokenFile = AnalyserDaemon.getDefaultTokenFile(port);
+        }
+    }
+
+    /** Returns the port as defined by the option <tt>-port</tt>. Default is {@link #DEFAULT_PORT}. */
+    public int getPort() {
+        return port;
+    }
+
+    /**
+     * Returns the time in milliseconds without file changes before the class graph will be updated as defined by the
+     * option <tt>-quietPeriod</tt>. Default is 300.
+     */
+    public int getQuietPeriod() {
+        return quietPeriod;
+    }
+
+    /**
+     * Returns the file into which the daemon writes the token clients have to send, as defined by the option
+     * <tt>-tokenFile</tt>. Default is {@link AnalyserDaemon#getDefaultTokenFile(int)}.
+     */
+    public File getTokenFile() {
+        return tokenFile;
+    }
+
+    /**
+     * Returns the directory of the files written by the requests <tt>xml</tt> and <tt>csv</tt> as defined by the
+     * option <tt>-outputDirectory</tt>.
+     *
+     * @return <tt>null</tt> if undefined. Then these requests are rejected.
+     */
+    public File getOutputDirectory() {
+        return outputDirectory;
+    }
+
+    /** Returns the usage of correct command line arguments and options. */
+    @Override
+    public String getUsage() {
+        return "[" + PORT + "<port>] [" + QUIET_PERIOD + "<milliseconds>] [" + TOKEN_FILE + "<file>] ["
+                + OUTPUT_DIRECTORY + "<folder>] " + super.getUsage();
+    }
+
+    @Override
+    protected void handleOption(String argument) {
+        if (argument.startsWith(PORT)) {
+            port = parseNumber(argument.substring(PORT.length()));
+        } else if (argument.startsWith(QUIET_PERIOD)) {
+            quietPeriod = parseNumber(argument.substring(QUIET_PERIOD.length()));
+        } else if (argument.startsWith(TOKEN_FILE)) {
+            tokenFile = parseFile(argument.substring(TOKEN_FILE.length()));
+        } else if (argument.startsWith(OUTPUT_DIRECTORY)) {
+            outputDirectory = parseFile(argument.substring(OUTPUT_DIRECTORY.length()));
+        } else {
+            super.handleOption(argument);
+        }
+    }
+
+    private int parseNumber(String number) {
+        int result = -1;
+        try {
+            result = Integer.parseInt(number);
+        } catch (final NumberFormatException e) {
+        }
+        if (result <= 0) {
+            valid = false;
+        }
+        return result;
+    }
+
+    private File parseFile(String fileName) {
+        if (fileName.length() == 0) {
+            valid = false;
+            return null;
+        }
+        return new File(fileName).getAbsoluteFile();
+    }
+
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.daemon;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Watches folders, class files and zip/jar/war/ear files for changes by a {@link WatchService}. Folders are watched
+ * recursively. Files are watched by watching their parent folder.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class ClassFileWatcher implements Closeable {
+
+    private static final String[] WATCHED_FILE_TYPES = new String[] { ".class", ".zip", ".jar", ".war", ".ear" };
+
+    private final File[] roots;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedFolders = new HashMap<>();
+
+    /**
+     * Creates an instance which watches the specified folders and files.
+     *
+     * @param roots
+     *            Absolute folders or files.
+     * @throws IOException
+     *             if a folder can not be registered.
+     */
+    public ClassFileWatcher(File[] roots) throws IOException {
+        this.roots = roots;
+        watchService = FileSystems.getDefault().newWatchService();
+        for (int i = 0; i < roots.length; i++) {
+            final Path root = roots[i].toPath();
+            if (Files.isDirectory(root)) {
+                registerRecursively(root);
+            } else {
+                register(root.getParent());
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * Waits until some files have been changed. Returns after no further change has been noticed within the specified
+     * quiet period. Thus, a bunch of files written by a compiler will be returned by one invocation.
+     *
+     * @param quietPeriod
+     *            Quiet period in milliseconds.
+     * @return created, modified, or deleted files and created folders. If events have been lost all roots are returned.
+     * @throws InterruptedException
+     *             if interrupted while waiting.
+     */
+    public Set<File> waitForChanges(long quietPeriod) throws InterruptedException {
+        final Set<File> changedFiles = new LinkedHashSet<>();
+        WatchKey key = watchService.take();
+        while (key != null) {
+            final Path folder = watchedFolders.get(key);
+            for (final WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == OVERFLOW) {
+                    changedFiles.addAll(Arrays.asList(roots));
+                } else if (folder != null) {
+                    handleEvent(folder.resolve((Path) event.context()), event.kind(), changedFiles);
+                }
+            }
+            if (!key.reset()) {
+                watchedFolders.remove(key);
+            }
+            key = watchService.poll(quietPeriod, TimeUnit.MILLISECONDS);
+        }
+        return changedFiles;
+    }
+
+    private void handleEvent(Path path, WatchEvent.Kind<?> kind, Set<File> changedFiles) {
+        if (Files.isDirectory(path)) {
+            if (kind == ENTRY_CREATE) {
+                try {
+                    registerRecursively(path);
+                } catch (final IOException e) {
+                    System.err.println("Error in watching " + path + ": " + e);
+                }
+                changedFiles.add(path.toFile());
+            }
+        } else if (kind == ENTRY_DELETE || isWatchedFileType(path)) {
+            changedFiles.add(path.toFile());
+        }
+    }
+
+    private static boolean isWatchedFileType(Path path) {
+        final String name = path.getFileName().toString();
+        for (int i = 0; i < WATCHED_FILE_TYPES.length; i++) {
+            if (name.endsWith(WATCHED_FILE_TYPES[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void register(Path folder) throws IOException {
+        watchedFolders.put(folder.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), folder);
+    }
+
+    private void registerRecursively(Path folder) throws IOException {
+        try (Stream<Path> folders = Files.walk(folder)) {
+            for (final Path path : (Iterable<Path>) folders.filter(Files::isDirectory)::iterator) {
+                register(path);
+            }
+        }
+    }
+
+}
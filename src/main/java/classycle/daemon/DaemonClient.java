@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.daemon;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Client of the {@link AnalyserDaemon}. Sends the token of the daemon and a request and prints the response on the
+ * console. Exit code is 0 if the response is {@link AnalyserDaemon#OK}, 1 if it is {@link AnalyserDaemon#FAILED}, and
+ * 2 in case of an error.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class DaemonClient {
+
+    private static final String PORT = "-port=";
+    private static final String TOKEN_FILE = "-tokenFile=";
+
+    private final int port;
+    private final File tokenFile;
+
+    /**
+     * Creates an instance for the daemon listening on the specified local port. The token is read from the
+     * {@link AnalyserDaemon#getDefaultTokenFile(int) default token file}.
+     */
+    public DaemonClient(int port) {
+        this(port, AnalyserDaemon.getDefaultTokenFile(port));
+    }
+
+    /** Creates an instance for the daemon listening on the specified local port which has written the token file. */
+    public DaemonClient(int port, File tokenFile) {
+        this.port = port;
+        this.tokenFile = tokenFile;
+    }
+
+    /**
+     * Sends the specified request and writes the response without the status line onto the specified writer.
+     *
+     * @return the status line.
+     * @throws IOException
+     *             if the token file could not be read or the daemon is not reachable.
+     */
+    public String send(String request, PrintWriter writer) throws IOException {
+        final String token = new String(Files.readAllBytes(tokenFile.toPath()), StandardCharsets.UTF_8).trim();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            final PrintWriter requestWriter = new PrintWriter(
+                    new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+            requestWriter.println(token);
+            requestWriter.println(request);
+            requestWriter.flush();
+            final BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String status = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (status != null) {
+                    writer.println(status);
+                }
+                status = line;
+            }
+            writer.flush();
+            return status == null ? AnalyserDaemon.ERROR + " No response." : status;
+        }
+    }
+
+    /**
+     * Runs the client. Arguments are the optional options <tt>-port=&lt;port&gt;</tt> and
+     * <tt>-tokenFile=&lt;file&gt;</tt> followed by the request. File names of the requests <tt>check</tt>,
+     * <tt>xml</tt>, and <tt>csv</tt> are made absolute.
+     */
+    public static void main(String[] args) {
+        int port = AnalyserDaemonCommandLine.DEFAULT_PORT;
+        File tokenFile = null;
+        int index = 0;
+        for (; index < args.length && args[index].startsWith("-"); index++) {
+            if (args[index].startsWith(PORT)) {
+                port = Integer.parseInt(args[index].substring(PORT.length()));
+            } else if (args[index].startsWith(TOKEN_FILE)) {
+                tokenFile = new File(args[index].substring(TOKEN_FILE.length()));
+            } else {
+                break;
+            }
+        }
+        if (index == args.length) {
+            System.out.println("Usage: java -cp classycle.jar classycle.daemon.DaemonClient [" + PORT + "<port>] ["
+                    + TOKEN_FILE + "<file>] "
+                    + "status|check <ddf file>|xml <file>|csv <file>|cycles|strong|refresh|shutdown");
+            System.exit(2);
+        }
+        final StringBuilder request = new StringBuilder(args[index]);
+        for (int i = index + 1; i < args.length; i++) {
+            request.append(' ').append(new File(args[i]).getAbsolutePath());
+        }
+        final PrintWriter writer = new PrintWriter(System.out);
+        String status;
+        try {
+            status = new DaemonClient(port, tokenFile == null ? AnalyserDaemon.getDefaultTokenFile(port) : tokenFile)
+                    .send(request.toString(), writer);
+        } catch (final IOException e) {
+            status = AnalyserDaemon.ERROR + " Daemon not reachable: " + e;
+        }
+        if (status.startsWith(AnalyserDaemon.ERROR)) {
+            System.err.println(status);
+        }
+        System.exit(status.equals(AnalyserDaemon.OK) ? 0 : status.equals(AnalyserDaemon.FAILED) ? 1 : 2);
+    }
+
+}
@@ -65,20 +65,41 @@ public class CheckCyclesStatement implements Statement {
 
     @Override
     public Result execute(AtomicVertex[] graph) {
+        return execute(graph, new StatementDependencies());
+    }
+
+    @Override
+    public Result execute(AtomicVertex[] graph, StatementDependencies dependencies) {
         final List<AtomicVertex> filteredGraph = new ArrayList<>();
+        final List<AtomicVertex> excludedVertices = new ArrayList<>();
         for (int i = 0; i < graph.length; i++) {
             if (set.matches(((NameAttributes) graph[i].getAttributes()).getName())) {
                 filteredGraph.add(graph[i]);
+            } else if (graph[i].isGraphVertex()) {
+                excludedVertices.add(graph[i]);
             }
         }
+        dependencies.addSet(set);
+        dependencies.addVertices(filteredGraph);
         graph = filteredGraph.toArray(new AtomicVertex[0]);
-        if (packageCycles) {
-            final PackageProcessor processor = new PackageProcessor();
-            processor.deepSearchFirst(graph);
-            graph = processor.getGraph();
+        // Vertices outside of the set are treated as external vertices. Otherwise the search would run into them
+        // depending on the state left by previous statements.
+        final Vertex[] condensedGraph;
+        for (int i = 0, n = excludedVertices.size(); i < n; i++) {
+            excludedVertices.get(i).setGraphVertex(false);
+        }
+        try {
+            if (packageCycles) {
+                final PackageProcessor processor = new PackageProcessor();
+                processor.deepSearchFirst(graph);
+                graph = processor.getGraph();
+            }
+            condensedGraph = new StrongComponentAnalyser(graph).getCondensedGraph();
+        } finally {
+            for (int i = 0, n = excludedVertices.size(); i < n; i++) {
+                excludedVertices.get(i).setGraphVertex(true);
+            }
         }
-        final StrongComponentAnalyser analyser = new StrongComponentAnalyser(graph);
-        final Vertex[] condensedGraph = analyser.getCondensedGraph();
         final CyclesResult result = new CyclesResult(createStatement(), packageCycles);
         for (int i = 0; i < condensedGraph.length; i++) {
             final StrongComponent strongComponent = (StrongComponent) condensedGraph[i];
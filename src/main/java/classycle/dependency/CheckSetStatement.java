@@ -41,6 +41,12 @@ public class CheckSetStatement implements Statement {
 
     @Override
     public Result execute(AtomicVertex[] graph) {
+        return execute(graph, new StatementDependencies());
+    }
+
+    @Override
+    public Result execute(AtomicVertex[] graph, StatementDependencies dependencies) {
+        dependencies.addSet(set);
         int size = 0;
         for (int i = 0; i < graph.length; i++) {
             if (set.matches(((NameAttributes) graph[i].getAttributes()).getName())) {
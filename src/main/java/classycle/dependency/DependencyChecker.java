@@ -25,11 +25,15 @@
  ******************************************************************************/
 package classycle.dependency;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.util.HashMap;
 import java.util.Map;
 import classycle.Analyser;
+import classycle.Parser;
 import classycle.graph.AtomicVertex;
+import classycle.graph.GraphChange;
 
 /**
  * Checks a class graph for unwanted dependencies. The dependencies are described by a dependency definition file
@@ -42,6 +46,8 @@ public class DependencyChecker {
     private final Analyser analyser;
     private final ResultRenderer renderer;
     private final DependencyProcessor processor;
+    private Result[] results;
+    private StatementDependencies[] dependencies;
 
     /**
      * Creates a new instance. Note, that the constructor does not create the graph. It only parses
@@ -64,17 +70,44 @@ public class DependencyChecker {
     }
 
     /**
-     * Checks the graph.
+     * Checks the graph. The results of a previous check are reused for all statements which have not been invalidated
+     * by {@link #update(GraphChange)}.
      */
     public Result check() {
         final AtomicVertex[] graph = analyser.getClassGraph();
+        final int n = processor.getNumberOfStatements();
+        if (results == null) {
+            results = new Result[n];
+            dependencies = new StatementDependencies[n];
+        }
         final ResultContainer result = new ResultContainer();
-        while (processor.hasMoreStatements()) {
-            result.add(processor.executeNextStatement(graph));
+        for (int i = 0; i < n; i++) {
+            if (results[i] == null || !dependencies[i].isReusable()) {
+                dependencies[i] = new StatementDependencies();
+                results[i] = processor.executeStatement(i, graph, dependencies[i]);
+            }
+            result.add(results[i]);
         }
         return result;
     }
 
+    /**
+     * Invalidates the results of all statements affected by the specified change of the class graph. Only these
+     * statements will be executed again by the next check.
+     *
+     * @param change
+     *            Change of the class graph as made by {@link Analyser#refreshClassGraph}.
+     */
+    public void update(GraphChange change) {
+        if (results != null) {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] != null && dependencies[i].isAffectedBy(change)) {
+                    results[i] = null;
+                }
+            }
+        }
+    }
+
     /**
      * Checks the graph and write unwanted dependencies onto the specified writer.
      *
@@ -89,16 +122,21 @@ public class DependencyChecker {
     /**
      * Runs the DependencyChecker application. Exit 0 if no unwanted dependency found otherwise 1 is returned.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
         final DependencyCheckerCommandLine commandLine = new DependencyCheckerCommandLine(args);
         if (!commandLine.isValid()) {
             System.out.println(
                     "Usage: java -cp classycle.jar " + "classycle.DependencyChecker " + commandLine.getUsage());
             System.exit(1);
         }
+        if (commandLine.getDescriptorCacheSize() >= 0) {
+            Parser.setDescriptorCacheSize(commandLine.getDescriptorCacheSize());
+        }
 
-        final Analyser analyser = new Analyser(commandLine.getClassFiles(), commandLine.getPattern(),
-                commandLine.getReflectionPattern(), commandLine.isMergeInnerClasses());
+        final Analyser analyser = commandLine.getSnapshot() != null
+                ? Analyser.loadSnapshot(new File(commandLine.getSnapshot()))
+                : new Analyser(commandLine.getClassFiles(), commandLine.getPattern(),
+                        commandLine.getReflectionPattern(), commandLine.isMergeInnerClasses());
 
         final HashMap<String, String> props = new HashMap<>();
         for (final String name : System.getProperties().stringPropertyNames()) {
@@ -109,6 +147,9 @@ public class DependencyChecker {
         final PrintWriter printWriter = new PrintWriter(System.out);
         final boolean ok = dependencyChecker.check(printWriter);
         printWriter.flush();
+        if (commandLine.getSaveSnapshot() != null) {
+            analyser.saveSnapshot(new File(commandLine.getSaveSnapshot()));
+        }
         System.exit(ok ? 0 : 1);
     }
 
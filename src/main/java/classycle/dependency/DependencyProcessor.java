@@ -63,7 +63,48 @@ public class DependencyProcessor {
      * @return <tt>null</tt> if there is no unprocessed statement.
      */
     public Result executeNextStatement(AtomicVertex[] graph) {
-        return hasMoreStatements() ? statements[index++].execute(graph) : null;
+        if (!hasMoreStatements()) {
+            return null;
+        }
+        final int statementIndex = index++;
+        final StatementEvent event = new StatementEvent();
+        event.begin();
+        final Result result = statements[statementIndex].execute(graph);
+        commit(event, statementIndex, result);
+        return result;
+    }
+
+    /**
+     * Executes the statement with the specified index independently of the statements already processed by
+     * {@link #executeNextStatement}.
+     *
+     * @param index
+     *            Index of the statement.
+     * @param graph
+     *            The graph to be checked by the statement.
+     * @param dependencies
+     *            Collector of the parts of the graph the result depends on.
+     */
+    public Result executeStatement(int index, AtomicVertex[] graph, StatementDependencies dependencies) {
+        final StatementEvent event = new StatementEvent();
+        event.begin();
+        final Result result = statements[index].execute(graph, dependencies);
+        commit(event, index, result);
+        return result;
+    }
+
+    private void commit(StatementEvent event, int index, Result result) {
+        if (event.shouldCommit()) {
+            event.statement = statements[index].toString();
+            event.index = index;
+            event.ok = result.isOk();
+            event.commit();
+        }
+    }
+
+    /** Returns the number of statements. */
+    public int getNumberOfStatements() {
+        return statements.length;
     }
 
     /**
@@ -93,6 +93,17 @@ public class DependencyStatement implements Statement {
 
     @Override
     public Result execute(AtomicVertex[] graph) {
+        return execute(graph, new StatementDependencies());
+    }
+
+    @Override
+    public Result execute(AtomicVertex[] graph, StatementDependencies dependencies) {
+        for (int i = 0; i < startSets.length; i++) {
+            dependencies.addSet(startSets[i]);
+        }
+        for (int i = 0; i < finalSets.length; i++) {
+            dependencies.addSet(finalSets[i]);
+        }
         final ResultContainer result = new ResultContainer();
         final boolean directPathsOnly = DIRECTLY_INDEPENDENT_OF_KEY_WORD.equals(dependencyType);
         final boolean dependsOnly = DependencyDefinitionParser.DEPENDENT_ONLY_ON_KEY_WORD.equals(dependencyType);
@@ -103,6 +114,7 @@ public class DependencyStatement implements Statement {
                 final Set<AtomicVertex> invalids = new HashSet<>();
                 for (final AtomicVertex vertex : graph) {
                     if (startCondition.isFulfilled(vertex)) {
+                        dependencies.addVertex(vertex);
                         for (int j = 0, n = vertex.getNumberOfOutgoingArcs(); j < n; j++) {
                             final Vertex headVertex = vertex.getHeadVertex(j);
                             if (finalCondition.isFulfilled(headVertex) == false
@@ -120,6 +132,7 @@ public class DependencyStatement implements Statement {
                     final PathsFinder finder = new PathsFinder(startCondition, finalConditions[j],
                             renderer.onlyShortestPaths(), directPathsOnly);
                     result.add(new DependencyResult(startSet, finalSets[j], toString(i, j), finder.findPaths(graph)));
+                    dependencies.addVertices(finder.getSearchedVertices());
                 }
             }
         }
@@ -49,7 +49,8 @@ public class LayeringStatement implements Statement {
         this.renderer = renderer;
     }
 
-    private void checkIntraLayerDependencies(ResultContainer result, StringPattern[] patterns, AtomicVertex[] graph) {
+    private void checkIntraLayerDependencies(ResultContainer result, StringPattern[] patterns, AtomicVertex[] graph,
+            StatementDependencies dependencies) {
         final StringPattern[] startSets = new StringPattern[1];
         final StringPattern[] endSets = new StringPattern[patterns.length - 1];
         for (int i = 0; i < patterns.length; i++) {
@@ -58,25 +59,30 @@ public class LayeringStatement implements Statement {
             System.arraycopy(patterns, i + 1, endSets, i, patterns.length - i - 1);
             final DependencyStatement s = new DependencyStatement(startSets, endSets, DIRECTLY_INDEPENDENT_OF_KEY_WORD,
                     repository, renderer);
-            result.add(s.execute(graph));
+            result.add(s.execute(graph, dependencies));
         }
     }
 
     @Override
     public Result execute(AtomicVertex[] graph) {
+        return execute(graph, new StatementDependencies());
+    }
+
+    @Override
+    public Result execute(AtomicVertex[] graph, StatementDependencies dependencies) {
         final ResultContainer result = new ResultContainer();
         for (int i = 0; i < layers.length; i++) {
-            checkIntraLayerDependencies(result, layers[i], graph);
+            checkIntraLayerDependencies(result, layers[i], graph, dependencies);
             for (int j = i + 1; j < layers.length; j++) {
                 final DependencyStatement s = new DependencyStatement(layers[i], layers[j],
                         DIRECTLY_INDEPENDENT_OF_KEY_WORD, repository, renderer);
-                result.add(s.execute(graph));
+                result.add(s.execute(graph, dependencies));
             }
             if (strictLayering) {
                 for (int j = i - 2; j >= 0; j--) {
                     final DependencyStatement s = new DependencyStatement(layers[i], layers[j],
                             DIRECTLY_INDEPENDENT_OF_KEY_WORD, repository, renderer);
-                    result.add(s.execute(graph));
+                    result.add(s.execute(graph, dependencies));
                 }
             }
         }
@@ -34,4 +34,18 @@ public interface Statement {
 
     Result execute(AtomicVertex[] graph);
 
+    /**
+     * Executes this statement and records on which parts of the graph the result depends. The default implementation
+     * marks the result as not reusable.
+     *
+     * @param graph
+     *            The graph to be checked.
+     * @param dependencies
+     *            Collector of the dependencies of the result.
+     */
+    default Result execute(AtomicVertex[] graph, StatementDependencies dependencies) {
+        dependencies.markNotReusable();
+        return execute(graph);
+    }
+
 }
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.dependency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import classycle.graph.AtomicVertex;
+import classycle.graph.GraphChange;
+import classycle.graph.NameAttributes;
+import classycle.util.StringPattern;
+
+/**
+ * Parts of a graph the result of a {@link Statement} depends on. A result has to be recalculated after a
+ * {@link GraphChange} only if
+ * <ul>
+ * <li>an arc has been added or removed whose tail is one of the vertices the statement has been looked at, or
+ * <li>a vertex has been added or removed which matches one of the sets of the statement, or
+ * <li>the statement is not reusable at all (e.g. because it has side effects).
+ * </ul>
+ * Changed attributes of a vertex do not matter because the name of a vertex never changes.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class StatementDependencies {
+
+    private final List<StringPattern> sets = new ArrayList<>();
+    private final Set<AtomicVertex> vertices = new HashSet<>();
+    private boolean reusable = true;
+
+    /** Records that the result depends on which vertices match the specified set. */
+    public void addSet(StringPattern set) {
+        sets.add(set);
+    }
+
+    /** Records that the result depends on the outgoing arcs of the specified vertex. */
+    public void addVertex(AtomicVertex vertex) {
+        vertices.add(vertex);
+    }
+
+    /** Records that the result depends on the outgoing arcs of the specified vertices. */
+    public void addVertices(Collection<AtomicVertex> vertices) {
+        this.vertices.addAll(vertices);
+    }
+
+    /** Records that the result must not be reused. */
+    public void markNotReusable() {
+        reusable = false;
+    }
+
+    /** Returns <tt>false</tt> if the result must always be recalculated. */
+    public boolean isReusable() {
+        return reusable;
+    }
+
+    /** Returns <tt>true</tt> if the result might be different after the specified change. */
+    public boolean isAffectedBy(GraphChange change) {
+        if (!reusable) {
+            return true;
+        }
+        for (final GraphChange.Arc arc : change.getAddedArcs()) {
+            if (vertices.contains(arc.getTail())) {
+                return true;
+            }
+        }
+        for (final GraphChange.Arc arc : change.getRemovedArcs()) {
+            if (vertices.contains(arc.getTail())) {
+                return true;
+            }
+        }
+        return isAffectedBy(change.getAddedVertices()) || isAffectedBy(change.getRemovedVertices());
+    }
+
+    private boolean isAffectedBy(Set<AtomicVertex> changedVertices) {
+        for (final AtomicVertex vertex : changedVertices) {
+            if (vertices.contains(vertex)) {
+                return true;
+            }
+            final String name = ((NameAttributes) vertex.getAttributes()).getName();
+            for (int i = 0, n = sets.size(); i < n; i++) {
+                if (sets.get(i).matches(name)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+}
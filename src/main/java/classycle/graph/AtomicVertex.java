@@ -76,6 +76,14 @@ public class AtomicVertex extends Vertex {
         low = -1;
     }
 
+    /**
+     * Sets the graph vertex flag. In contrast to {@link #setDefaultValueOfGraphVertexFlag} the flag is changed
+     * immediately and not by the next {@link #reset}.
+     */
+    public void setGraphVertex(boolean graphVertex) {
+        this.graphVertex = graphVertex;
+    }
+
     /**
      * Sets the default value of graphVertex flag.
      *
@@ -0,0 +1,435 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Strong components of a directed graph which are maintained under incremental changes of the graph (see
+ * {@link GraphChange}). Instead of running {@link StrongComponentProcessor} over the whole graph only the affected
+ * part is processed again:
+ * <ul>
+ * <li>Components without removed vertices or removed internal arcs remain strongly connected. They are kept as they
+ * are unless new arcs create a cycle through them.
+ * <li>An added arc between two components can only create a new cycle through components which are reachable from
+ * its head and from which its tail is reachable. These components are merged.
+ * <li>A component with removed vertices or removed internal arcs is split again by running Tarjan's algorithm on its
+ * vertices only.
+ * </ul>
+ * If the longest walks of the components are known (see {@link LongestWalkProcessor}) they are used to prune the
+ * search for new cycles and they are updated locally: Only new components and components reaching them or a component
+ * with changed outgoing arcs get a new longest walk.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class DynamicStrongComponents {
+
+    private final List<StrongComponent> components = new ArrayList<>();
+    private final Map<AtomicVertex, StrongComponent> vertexToComponents = new HashMap<>();
+
+    /**
+     * Creates an instance for the specified strong components as calculated by {@link StrongComponentProcessor}.
+     */
+    public DynamicStrongComponents(StrongComponent[] components) {
+        for (int i = 0; i < components.length; i++) {
+            final StrongComponent component = components[i];
+            this.components.add(component);
+            for (int j = 0, n = component.getNumberOfVertices(); j < n; j++) {
+                vertexToComponents.put(component.getVertex(j), component);
+            }
+        }
+    }
+
+    /** Returns the current strong components. */
+    public StrongComponent[] getStrongComponents() {
+        return components.toArray(new StrongComponent[components.size()]);
+    }
+
+    /** Returns the strong component containing the specified vertex or <tt>null</tt> if it is not a graph vertex. */
+    public StrongComponent getStrongComponent(AtomicVertex vertex) {
+        return vertexToComponents.get(vertex);
+    }
+
+    /**
+     * Returns <tt>true</tt> if the strong components might be affected by the specified change. This is the case if
+     * graph vertices have been added or removed or if arcs between graph vertices have been added or removed. Arcs to
+     * external vertices do not matter.
+     *
+     * @param change
+     *            Changes which have already been applied to the graph but not to this instance.
+     */
+    public boolean isAffectedBy(GraphChange change) {
+        return !change.getAddedVertices().isEmpty() || !change.getRemovedVertices().isEmpty()
+                || hasInternalArc(change.getAddedArcs(), change) || hasInternalArc(change.getRemovedArcs(), change);
+    }
+
+    private boolean hasInternalArc(List<GraphChange.Arc> arcs, GraphChange change) {
+        for (int i = 0, n = arcs.size(); i < n; i++) {
+            final GraphChange.Arc arc = arcs.get(i);
+            if (isGraphVertex(arc.getTail(), change) && isGraphVertex(arc.getHead(), change)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Updates the strong components after the graph has been changed. The arcs between components are updated and new
+     * components get their attributes calculated.
+     *
+     * @param change
+     *            Changes which have already been applied to the graph.
+     * @param layered
+     *            If <tt>true</tt> the longest walks of the components are valid and will be updated. The components
+     *            will be sorted by their longest walk in this case.
+     * @return all new components and all components whose longest walk has been changed.
+     */
+    public Set<StrongComponent> update(GraphChange change, boolean layered) {
+        final Set<StrongComponent> dirtyComponents = new LinkedHashSet<>();
+        final Set<StrongComponent> changedTails = new LinkedHashSet<>();
+        final List<GraphChange.Arc> crossArcs = new ArrayList<>();
+        for (final AtomicVertex vertex : change.getRemovedVertices()) {
+            final StrongComponent component = vertexToComponents.remove(vertex);
+            if (component != null) {
+                dirtyComponents.add(component);
+            }
+        }
+        for (final GraphChange.Arc arc : change.getRemovedArcs()) {
+            final StrongComponent tail = vertexToComponents.get(arc.getTail());
+            if (tail != null) {
+                if (tail == vertexToComponents.get(arc.getHead())) {
+                    dirtyComponents.add(tail);
+                } else {
+                    changedTails.add(tail);
+                }
+            }
+        }
+        final List<GraphChange.Arc> addedArcs = new ArrayList<>(change.getAddedArcs());
+        for (final AtomicVertex vertex : change.getAddedVertices()) {
+            // arcs from or to a vertex which has been external before are not necessarily reported as added arcs
+            for (int i = 0, n = vertex.getNumberOfIncomingArcs(); i < n; i++) {
+                addedArcs.add(new GraphChange.Arc((AtomicVertex) vertex.getTailVertex(i), vertex));
+            }
+            for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
+                addedArcs.add(new GraphChange.Arc(vertex, (AtomicVertex) vertex.getHeadVertex(i)));
+            }
+        }
+        for (int i = 0, n = addedArcs.size(); i < n; i++) {
+            final GraphChange.Arc arc = addedArcs.get(i);
+            if (isGraphVertex(arc.getTail(), change) && isGraphVertex(arc.getHead(), change)) {
+                final StrongComponent tail = vertexToComponents.get(arc.getTail());
+                if (tail != null && tail == vertexToComponents.get(arc.getHead())) {
+                    dirtyComponents.add(tail);
+                } else {
+                    crossArcs.add(arc);
+                    if (tail != null) {
+                        changedTails.add(tail);
+                    }
+                }
+            }
+        }
+
+        // Find the region which has to be processed again
+        final Set<Vertex> region = findCycleRegion(crossArcs, layered);
+        region.addAll(dirtyComponents);
+        final Set<AtomicVertex> vertices = new LinkedHashSet<>();
+        final Set<StrongComponent> removedComponents = new HashSet<>();
+        for (final Vertex node : region) {
+            if (node instanceof StrongComponent) {
+                final StrongComponent component = (StrongComponent) node;
+                removedComponents.add(component);
+                for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+                    final AtomicVertex vertex = component.getVertex(i);
+                    if (vertexToComponents.get(vertex) == component) {
+                        vertices.add(vertex);
+                    }
+                }
+            }
+        }
+        for (final AtomicVertex vertex : change.getAddedVertices()) {
+            if (!vertexToComponents.containsKey(vertex)) {
+                vertices.add(vertex);
+            }
+        }
+
+        // Replace the components of the region
+        for (final StrongComponent component : removedComponents) {
+            for (int i = component.getNumberOfIncomingArcs() - 1; i >= 0; i--) {
+                final StrongComponent tail = (StrongComponent) component.getTailVertex(i);
+                changedTails.add(tail);
+                tail.removeOutgoingArcTo(component);
+            }
+            for (int i = component.getNumberOfOutgoingArcs() - 1; i >= 0; i--) {
+                component.removeOutgoingArcTo(component.getHeadVertex(i));
+            }
+        }
+        changedTails.removeAll(removedComponents);
+        components.removeIf(removedComponents::contains);
+        final List<StrongComponent> newComponents = findStrongComponents(vertices);
+        for (int i = 0, n = newComponents.size(); i < n; i++) {
+            final StrongComponent component = newComponents.get(i);
+            component.calculateAttributes();
+            for (int j = 0, m = component.getNumberOfVertices(); j < m; j++) {
+                vertexToComponents.put(component.getVertex(j), component);
+            }
+            components.add(component);
+        }
+        for (int i = 0, n = newComponents.size(); i < n; i++) {
+            updateOutgoingArcs(newComponents.get(i));
+        }
+        for (final StrongComponent component : changedTails) {
+            updateOutgoingArcs(component);
+        }
+
+        final Set<StrongComponent> result = new LinkedHashSet<>(newComponents);
+        if (layered) {
+            updateLongestWalks(newComponents, changedTails, result);
+            final StrongComponent[] sorted = getStrongComponents();
+            Arrays.sort(sorted, StrongComponent.comparatorByLongestWalk());
+            components.clear();
+            components.addAll(Arrays.asList(sorted));
+        }
+        return result;
+    }
+
+    /**
+     * Returns all components (and new vertices) which are reachable from the head of a cross arc and from which the
+     * tail of a cross arc is reachable. Only these can be part of a new cycle.
+     */
+    private Set<Vertex> findCycleRegion(List<GraphChange.Arc> crossArcs, boolean layered) {
+        final Map<Vertex, List<Vertex>> successors = new HashMap<>();
+        final Map<Vertex, List<Vertex>> predecessors = new HashMap<>();
+        final List<Vertex> heads = new ArrayList<>();
+        final List<Vertex> tails = new ArrayList<>();
+        int minimumTailWalk = Integer.MAX_VALUE;
+        int maximumHeadWalk = Integer.MIN_VALUE;
+        for (int i = 0, n = crossArcs.size(); i < n; i++) {
+            final Vertex tail = getNode(crossArcs.get(i).getTail());
+            final Vertex head = getNode(crossArcs.get(i).getHead());
+            successors.computeIfAbsent(tail, key -> new ArrayList<>()).add(head);
+            predecessors.computeIfAbsent(head, key -> new ArrayList<>()).add(tail);
+            heads.add(head);
+            tails.add(tail);
+            if (tail instanceof StrongComponent) {
+                minimumTailWalk = Math.min(minimumTailWalk, ((StrongComponent) tail).getLongestWalk());
+            }
+            if (head instanceof StrongComponent) {
+                maximumHeadWalk = Math.max(maximumHeadWalk, ((StrongComponent) head).getLongestWalk());
+            }
+        }
+        final Set<Vertex> reachable = search(heads, successors, true, layered ? minimumTailWalk : Integer.MIN_VALUE);
+        final Set<Vertex> reaching = search(tails, predecessors, false, layered ? maximumHeadWalk : Integer.MAX_VALUE);
+        reachable.retainAll(reaching);
+        return reachable;
+    }
+
+    /**
+     * Searches all nodes reachable from the start nodes. Components are pruned if their longest walk is smaller
+     * (forward search) or larger (backward search) than <tt>walkLimit</tt>.
+     */
+    private static Set<Vertex> search(List<Vertex> startNodes, Map<Vertex, List<Vertex>> additionalArcs,
+            boolean forward, int walkLimit) {
+        final Set<Vertex> result = new LinkedHashSet<>();
+        final Deque<Vertex> stack = new ArrayDeque<>();
+        for (int i = 0, n = startNodes.size(); i < n; i++) {
+            stack.push(startNodes.get(i));
+        }
+        while (!stack.isEmpty()) {
+            final Vertex node = stack.pop();
+            if (node instanceof StrongComponent) {
+                final int walk = ((StrongComponent) node).getLongestWalk();
+                if (forward ? walk < walkLimit : walk > walkLimit) {
+                    continue;
+                }
+            }
+            if (result.add(node)) {
+                if (node instanceof StrongComponent) {
+                    final int n = forward ? node.getNumberOfOutgoingArcs() : node.getNumberOfIncomingArcs();
+                    for (int i = 0; i < n; i++) {
+                        stack.push(forward ? node.getHeadVertex(i) : node.getTailVertex(i));
+                    }
+                }
+                final List<Vertex> nodes = additionalArcs.get(node);
+                if (nodes != null) {
+                    stack.addAll(nodes);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns <tt>true</tt> if the specified vertex is a vertex of the changed graph. The graph vertex flag is not used
+     * because processors like {@link PathsFinder} reset external vertices too.
+     */
+    private boolean isGraphVertex(AtomicVertex vertex, GraphChange change) {
+        return vertexToComponents.containsKey(vertex) || change.getAddedVertices().contains(vertex);
+    }
+
+    /** Returns the component of the specified vertex or the vertex itself if it is a new one. */
+    private Vertex getNode(AtomicVertex vertex) {
+        final StrongComponent component = vertexToComponents.get(vertex);
+        return component == null ? vertex : component;
+    }
+
+    /**
+     * Runs Tarjan's algorithm on the specified vertices. Arcs to other vertices are ignored. Vertices are added to the
+     * components in the same order as done by {@link StrongComponentProcessor}.
+     */
+    private static List<StrongComponent> findStrongComponents(Set<AtomicVertex> vertices) {
+        final List<StrongComponent> result = new ArrayList<>();
+        // order, low, index of next arc, on stack flag
+        final Map<AtomicVertex, int[]> states = new HashMap<>();
+        final Deque<AtomicVertex> vertexStack = new ArrayDeque<>();
+        final Deque<AtomicVertex> callStack = new ArrayDeque<>();
+        int counter = 0;
+        for (final AtomicVertex root : vertices) {
+            if (states.containsKey(root)) {
+                continue;
+            }
+            states.put(root, new int[] { counter, counter++, 0, 1 });
+            vertexStack.push(root);
+            callStack.push(root);
+            while (!callStack.isEmpty()) {
+                final AtomicVertex vertex = callStack.peek();
+                final int[] state = states.get(vertex);
+                if (state[2] < vertex.getNumberOfOutgoingArcs()) {
+                    final AtomicVertex head = (AtomicVertex) vertex.getHeadVertex(state[2]++);
+                    if (vertices.contains(head)) {
+                        final int[] headState = states.get(head);
+                        if (headState == null) {
+                            states.put(head, new int[] { counter, counter++, 0, 1 });
+                            vertexStack.push(head);
+                            callStack.push(head);
+                        } else if (headState[3] == 1) {
+                            state[1] = Math.min(state[1], headState[0]);
+                        }
+                    }
+                } else {
+                    callStack.pop();
+                    if (!callStack.isEmpty()) {
+                        final int[] tailState = states.get(callStack.peek());
+                        tailState[1] = Math.min(tailState[1], state[1]);
+                    }
+                    if (state[1] == state[0]) {
+                        final StrongComponent component = new StrongComponent();
+                        AtomicVertex vertexOfComponent;
+                        do {
+                            vertexOfComponent = vertexStack.pop();
+                            states.get(vertexOfComponent)[3] = 0;
+                            component.addVertex(vertexOfComponent);
+                        } while (vertexOfComponent != vertex);
+                        result.add(component);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private void updateOutgoingArcs(StrongComponent component) {
+        final Set<StrongComponent> heads = new LinkedHashSet<>();
+        for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+            final AtomicVertex vertex = component.getVertex(i);
+            for (int j = 0, m = vertex.getNumberOfOutgoingArcs(); j < m; j++) {
+                final StrongComponent head = vertexToComponents.get(vertex.getHeadVertex(j));
+                if (head != null && head != component) {
+                    heads.add(head);
+                }
+            }
+        }
+        for (int i = component.getNumberOfOutgoingArcs() - 1; i >= 0; i--) {
+            final Vertex head = component.getHeadVertex(i);
+            if (!heads.remove(head)) {
+                component.removeOutgoingArcTo(head);
+            }
+        }
+        for (final StrongComponent head : heads) {
+            component.addOutgoingArcTo(head);
+        }
+    }
+
+    private static void updateLongestWalks(List<StrongComponent> newComponents, Set<StrongComponent> changedTails,
+            Set<StrongComponent> result) {
+        final Map<StrongComponent, Integer> oldWalks = new HashMap<>();
+        final Set<StrongComponent> pending = new HashSet<>(newComponents);
+        for (final StrongComponent component : changedTails) {
+            oldWalks.put(component, component.getLongestWalk());
+            pending.add(component);
+        }
+        for (int i = 0, n = newComponents.size(); i < n; i++) {
+            calculateLongestWalk(newComponents.get(i), pending);
+        }
+        final Deque<StrongComponent> queue = new ArrayDeque<>();
+        for (final StrongComponent component : changedTails) {
+            calculateLongestWalk(component, pending);
+            if (component.getLongestWalk() != oldWalks.get(component)) {
+                result.add(component);
+                queue.add(component);
+            }
+        }
+        queue.addAll(newComponents);
+        while (!queue.isEmpty()) {
+            final StrongComponent component = queue.poll();
+            for (int i = 0, n = component.getNumberOfIncomingArcs(); i < n; i++) {
+                final StrongComponent tail = (StrongComponent) component.getTailVertex(i);
+                final int walk = getLongestWalkOfHeads(tail);
+                if (walk != tail.getLongestWalk()) {
+                    tail.setLongestWalk(walk);
+                    result.add(tail);
+                    queue.add(tail);
+                }
+            }
+        }
+    }
+
+    private static void calculateLongestWalk(StrongComponent component, Set<StrongComponent> pending) {
+        if (pending.remove(component)) {
+            for (int i = 0, n = component.getNumberOfOutgoingArcs(); i < n; i++) {
+                calculateLongestWalk((StrongComponent) component.getHeadVertex(i), pending);
+            }
+            component.setLongestWalk(getLongestWalkOfHeads(component));
+        }
+    }
+
+    private static int getLongestWalkOfHeads(StrongComponent component) {
+        int walk = 0;
+        for (int i = 0, n = component.getNumberOfOutgoingArcs(); i < n; i++) {
+            walk = Math.max(walk, 1 + ((StrongComponent) component.getHeadVertex(i)).getLongestWalk());
+        }
+        return walk;
+    }
+
+}
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Description of an incremental update of a graph of {@link AtomicVertex AtomicVertices}. Vertices keep their identity
+ * during an update: A vertex whose class has been changed gets new attributes but remains the same object. A vertex
+ * which becomes a graph vertex (e.g. an external class which is now part of the analysed classes) is reported as
+ * added, a vertex which is no longer a graph vertex is reported as removed.
+ * <p>
+ * Only arcs which have really been added or removed are reported. Arcs which have been removed and added again during
+ * the same update do not show up.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class GraphChange {
+
+    /** Arc of a graph given by its tail and head vertex. */
+    public static final class Arc {
+
+        private final AtomicVertex tail;
+        private final AtomicVertex head;
+
+        /** Creates an instance for the specified tail and head vertex. */
+        public Arc(AtomicVertex tail, AtomicVertex head) {
+            this.tail = tail;
+            this.head = head;
+        }
+
+        public AtomicVertex getTail() {
+            return tail;
+        }
+
+        public AtomicVertex getHead() {
+            return head;
+        }
+
+        @Override
+        public String toString() {
+            return tail.getAttributes() + " -> " + head.getAttributes();
+        }
+    }
+
+    private final Set<AtomicVertex> addedVertices = new LinkedHashSet<>();
+    private final Set<AtomicVertex> removedVertices = new LinkedHashSet<>();
+    private final Set<AtomicVertex> modifiedVertices = new LinkedHashSet<>();
+    private final List<Arc> addedArcs = new ArrayList<>();
+    private final List<Arc> removedArcs = new ArrayList<>();
+
+    /** Records that the specified vertex became a vertex of the graph. */
+    public void vertexAdded(AtomicVertex vertex) {
+        if (!removedVertices.remove(vertex)) {
+            addedVertices.add(vertex);
+        }
+    }
+
+    /** Records that the specified vertex is no longer a vertex of the graph. */
+    public void vertexRemoved(AtomicVertex vertex) {
+        modifiedVertices.remove(vertex);
+        if (!addedVertices.remove(vertex)) {
+            removedVertices.add(vertex);
+        }
+    }
+
+    /** Records that the attributes of the specified graph vertex have been replaced. */
+    public void vertexModified(AtomicVertex vertex) {
+        if (!addedVertices.contains(vertex)) {
+            modifiedVertices.add(vertex);
+        }
+    }
+
+    /** Records that the specified arc has been added. */
+    public void arcAdded(AtomicVertex tail, AtomicVertex head) {
+        addedArcs.add(new Arc(tail, head));
+    }
+
+    /** Records that the specified arc has been removed. */
+    public void arcRemoved(AtomicVertex tail, AtomicVertex head) {
+        removedArcs.add(new Arc(tail, head));
+    }
+
+    /** Returns the vertices which became vertices of the graph. */
+    public Set<AtomicVertex> getAddedVertices() {
+        return Collections.unmodifiableSet(addedVertices);
+    }
+
+    /** Returns the vertices which are no longer vertices of the graph. */
+    public Set<AtomicVertex> getRemovedVertices() {
+        return Collections.unmodifiableSet(removedVertices);
+    }
+
+    /** Returns the graph vertices with new attributes. Added vertices are not included. */
+    public Set<AtomicVertex> getModifiedVertices() {
+        return Collections.unmodifiableSet(modifiedVertices);
+    }
+
+    /** Returns the added arcs. */
+    public List<Arc> getAddedArcs() {
+        return Collections.unmodifiableList(addedArcs);
+    }
+
+    /** Returns the removed arcs. */
+    public List<Arc> getRemovedArcs() {
+        return Collections.unmodifiableList(removedArcs);
+    }
+
+    /** Returns <tt>true</tt> if nothing has been changed. */
+    public boolean isEmpty() {
+        return addedVertices.isEmpty() && removedVertices.isEmpty() && modifiedVertices.isEmpty()
+                && addedArcs.isEmpty() && removedArcs.isEmpty();
+    }
+
+    /**
+     * Returns <tt>true</tt> if vertices or arcs have been added or removed. If not, only attributes of vertices have
+     * been changed.
+     */
+    public boolean isStructuralChange() {
+        return !addedVertices.isEmpty() || !removedVertices.isEmpty() || !addedArcs.isEmpty()
+                || !removedArcs.isEmpty();
+    }
+
+}
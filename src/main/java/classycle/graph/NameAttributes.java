@@ -36,6 +36,11 @@ public abstract class NameAttributes implements Attributes {
         this.name = name;
     }
 
+    /** Creates an instance for a subclass which doesn't store the name but creates it in {@link #getName()}. */
+    protected NameAttributes() {
+        this(null);
+    }
+
     public String getName() {
         return name;
     }
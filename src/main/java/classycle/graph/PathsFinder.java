@@ -26,6 +26,7 @@
 package classycle.graph;
 
 import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Class searching for all (or only the shortest) paths between classes of a start set and classes of a final set.
@@ -38,6 +39,7 @@ public class PathsFinder {
     private final VertexCondition finalSetCondition;
     private final boolean shortestPathsOnly;
     private final boolean directPathsOnly;
+    private final Set<AtomicVertex> searchedVertices = new HashSet<>();
 
     /**
      * Creates an instance for the specified vertex conditions.
@@ -75,6 +77,7 @@ public class PathsFinder {
     }
 
     private int calculateShortestPath(AtomicVertex vertex, HashSet<AtomicVertex> currentPath) {
+        searchedVertices.add(vertex);
         currentPath.add(vertex);
         int shortestPath = Integer.MAX_VALUE;
         for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
@@ -118,12 +121,14 @@ public class PathsFinder {
      */
     public AtomicVertex[] findPaths(AtomicVertex[] graph) {
         prepareGraph(graph);
+        searchedVertices.clear();
         final HashSet<Vertex> pathVertices = new HashSet<>();
         final HashSet<AtomicVertex> currentPath = new HashSet<>();
         for (int i = 0; i < graph.length; i++) {
             final AtomicVertex vertex = graph[i];
             if (startSetCondition.isFulfilled(vertex)) {
                 if (directPathsOnly) {
+                    searchedVertices.add(vertex);
                     findDirectPaths(vertex, pathVertices);
                 } else {
                     prepareIfFinal(vertex);
@@ -155,6 +160,14 @@ public class PathsFinder {
         }
     }
 
+    /**
+     * Returns all vertices whose outgoing arcs have been inspected by the last invocation of {@link #findPaths}. The
+     * result of {@link #findPaths} does not change as long as these arcs and the start set do not change.
+     */
+    public Set<AtomicVertex> getSearchedVertices() {
+        return searchedVertices;
+    }
+
     public VertexCondition getFinalSetCondition() {
         return finalSetCondition;
     }
@@ -185,7 +198,10 @@ public class PathsFinder {
     }
 
     private void prepareVertex(AtomicVertex vertex) {
+        // keep the graph vertex flag because external vertices are prepared too
+        final boolean graphVertex = vertex.isGraphVertex();
         vertex.reset();
+        vertex.setGraphVertex(graphVertex);
         vertex.setOrder(Integer.MAX_VALUE);
         if (startSetCondition.isFulfilled(vertex)) {
             vertex.visit();
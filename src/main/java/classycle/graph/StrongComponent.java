@@ -151,11 +151,12 @@ public class StrongComponent extends Vertex {
      * casted as {@link GraphAttributes}.
      */
     public void calculateAttributes() {
+        final ComponentAttributesEvent event = new ComponentAttributesEvent();
+        event.begin();
         final HashMap<AtomicVertex, Integer> indexMap = calculateIndexMap();
         final int[][] distances = calculateDistances(indexMap);
 
         // Calculate girth and eccentricity
-        final GeometryAttributes attributes = (GeometryAttributes) getAttributes();
         int girth = Integer.MAX_VALUE;
         final int[] eccentricities = new int[distances.length];
         for (int i = 0; i < distances.length; i++) {
@@ -167,20 +168,42 @@ public class StrongComponent extends Vertex {
                 }
             }
         }
+        restoreAttributes(girth, eccentricities, calculateMaximumFragmentSizes(indexMap));
+        if (event.shouldCommit()) {
+            event.size = getNumberOfVertices();
+            event.firstVertex = getNumberOfVertices() == 0 ? null : String.valueOf(getVertex(0).getAttributes());
+            event.commit();
+        }
+    }
+
+    /**
+     * Sets the graph properties of this component without calculating them. This is used if they have been calculated
+     * by {@link #calculateAttributes()} before, e.g. when a snapshot of an analysis is loaded. Center vertices and best
+     * fragmenters are derived from the specified values.
+     *
+     * @param girth
+     *            Girth of this component.
+     * @param eccentricities
+     *            Eccentricities of the vertices in the order of {@link #getVertex(int)}.
+     * @param maximumFragmentSizes
+     *            Maximum fragment sizes of the vertices in the order of {@link #getVertex(int)}.
+     */
+    public void restoreAttributes(int girth, int[] eccentricities, int[] maximumFragmentSizes) {
+        final GeometryAttributes attributes = (GeometryAttributes) getAttributes();
         attributes.setEccentricities(eccentricities);
         attributes.setGirth(girth);
-        attributes.setMaximumFragmentSizes(calculateMaximumFragmentSizes(indexMap));
+        attributes.setMaximumFragmentSizes(maximumFragmentSizes);
 
         // Obtain center vertices and best fragmenters
-        for (int i = 0, r = attributes.getRadius(), s = attributes.getBestFragmentSize(); i < distances.length; i++) {
+        for (int i = 0, r = attributes.getRadius(), s = attributes.getBestFragmentSize(); i < eccentricities.length;
+                i++) {
             if (eccentricities[i] == r) {
                 attributes.addVertex(getVertex(i));
             }
-            if (attributes.getMaximumFragmentSizes()[i] == s) {
+            if (maximumFragmentSizes[i] == s) {
                 attributes.addFragmenter(getVertex(i));
             }
         }
-
     }
 
     private int[][] calculateDistances(HashMap<AtomicVertex, Integer> indexMap) {
@@ -27,6 +27,7 @@ package classycle.graph;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Analyser of a directed graph for finding its strong components.
@@ -35,26 +36,120 @@ import java.util.Map;
  */
 public class StrongComponentAnalyser {
 
-    private final AtomicVertex[] graph;
+    private AtomicVertex[] graph;
     private StrongComponent[] components;
+    private HashMap<AtomicVertex, StrongComponent> componentMap;
     private HashMap<AtomicVertex, Integer> layerMap;
+    private DynamicStrongComponents dynamicComponents;
 
     /** Creates an instance for the specified graph. */
     public StrongComponentAnalyser(AtomicVertex[] graph) {
         this.graph = graph;
     }
 
+    /**
+     * Creates an instance for the specified graph and its strong components which have been calculated before, e.g. an
+     * analysis loaded from a snapshot. The layer map is created from the longest walks of the components.
+     *
+     * @param graph
+     *            The original graph.
+     * @param components
+     *            The condensed graph with calculated attributes and longest walks.
+     */
+    public StrongComponentAnalyser(AtomicVertex[] graph, StrongComponent[] components) {
+        this.graph = graph;
+        this.components = components;
+        componentMap = createComponentMap(components);
+        layerMap = new HashMap<>();
+        for (final StrongComponent component : components) {
+            final Integer layer = Integer.valueOf(component.getLongestWalk());
+            for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+                layerMap.put(component.getVertex(i), layer);
+            }
+        }
+    }
+
     /** Returns the graph of strong components. */
     public StrongComponent[] getCondensedGraph() {
         if (components == null) {
             final StrongComponentProcessor processor = new StrongComponentProcessor(true);
             processor.deepSearchFirst(graph);
             components = processor.getStrongComponents();
+            componentMap = createComponentMap(components);
+            dynamicComponents = null;
         }
         return components;
     }
 
-    /** Returns the original graph. That is, the argument of the constructor. */
+    /** Returns <tt>true</tt> if the condensed graph has already been calculated. */
+    public boolean isCondensed() {
+        return components != null;
+    }
+
+    /**
+     * Returns the mapping of the vertices of the original graph onto the strong components they belong to. The mapping
+     * is created together with the condensed graph. Thus the strong component of a vertex is found in constant time.
+     */
+    public Map<AtomicVertex, StrongComponent> getComponentMap() {
+        getCondensedGraph();
+        return componentMap;
+    }
+
+    private static HashMap<AtomicVertex, StrongComponent> createComponentMap(StrongComponent[] components) {
+        final HashMap<AtomicVertex, StrongComponent> result = new HashMap<>();
+        for (final StrongComponent component : components) {
+            for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+                result.put(component.getVertex(i), component);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Updates this analyser after the graph has been changed incrementally. The condensed graph and the layer map are
+     * not recalculated from scratch. Instead only the affected strong components are updated (see
+     * {@link DynamicStrongComponents}).
+     *
+     * @param graph
+     *            The updated graph. Vertices which are still part of the graph have to be the same objects as before.
+     * @param change
+     *            The changes which have been made.
+     */
+    public void update(AtomicVertex[] graph, GraphChange change) {
+        this.graph = graph;
+        if (components == null) {
+            return;
+        }
+        if (dynamicComponents == null) {
+            dynamicComponents = new DynamicStrongComponents(components);
+        }
+        if (!dynamicComponents.isAffectedBy(change)) {
+            return;
+        }
+        final Set<StrongComponent> changedComponents = dynamicComponents.update(change, layerMap != null);
+        components = dynamicComponents.getStrongComponents();
+        for (final AtomicVertex vertex : change.getRemovedVertices()) {
+            componentMap.remove(vertex);
+        }
+        for (final StrongComponent component : changedComponents) {
+            for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+                componentMap.put(component.getVertex(i), component);
+            }
+        }
+        if (layerMap != null) {
+            for (final AtomicVertex vertex : change.getRemovedVertices()) {
+                layerMap.remove(vertex);
+            }
+            for (final StrongComponent component : changedComponents) {
+                final Integer layer = Integer.valueOf(component.getLongestWalk());
+                for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+                    layerMap.put(component.getVertex(i), layer);
+                }
+            }
+        }
+    }
+
+    /** Returns the original graph. That is, the argument of the constructor or of {@link #update}. */
     public AtomicVertex[] getGraph() {
         return graph;
     }
@@ -55,6 +55,23 @@ public class StrongComponentProcessor extends GraphProcessor {
         this.calculateAttributes = calculateAttributes;
     }
 
+    /**
+     * Performs the search of strong components. Emits a {@link StrongComponentSearchEvent} if the flight recorder is
+     * recording.
+     */
+    @Override
+    public void deepSearchFirst(Vertex[] graph) {
+        final StrongComponentSearchEvent event = new StrongComponentSearchEvent();
+        event.begin();
+        super.deepSearchFirst(graph);
+        if (event.shouldCommit()) {
+            event.vertices = graph.length;
+            event.components = this.graph.length;
+            event.calculateAttributes = calculateAttributes;
+            event.commit();
+        }
+    }
+
     /**
      * Casts the specified vertex as an {@link AtomicVertex}.
      *
@@ -25,6 +25,8 @@
  ******************************************************************************/
 package classycle.graph;
 
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Vector;
 
 /**
@@ -45,7 +47,7 @@ public class Vertex {
 
     private final Vector<Vertex> heads = new Vector<>();
     private final Vector<Vertex> tails = new Vector<>();
-    private final Attributes attributes;
+    private Attributes attributes;
     private boolean visited;
 
     /** Create a new instance for the specified attributes. */
@@ -83,11 +85,44 @@ public class Vertex {
         }
     }
 
+    /**
+     * Removes the incoming arc from the specified vertex. Also calls {@link #removeOutgoingArcTo} for
+     * <tt>tailVertex</tt> with <tt>this</tt> as the argument. Does nothing if there is no such arc.
+     *
+     * @param tailVertex
+     *            Tail vertex of the arc to be removed.
+     */
+    public void removeIncomingArcFrom(Vertex tailVertex) {
+        if (tails.removeElement(tailVertex)) {
+            tailVertex.removeOutgoingArcTo(this);
+        }
+    }
+
+    /**
+     * Removes the outgoing arc to the specified vertex. Also calls {@link #removeIncomingArcFrom} for
+     * <tt>headVertex</tt> with <tt>this</tt> as the argument. Does nothing if there is no such arc.
+     *
+     * @param headVertex
+     *            Head vertex of the arc to be removed.
+     */
+    public void removeOutgoingArcTo(Vertex headVertex) {
+        if (heads.removeElement(headVertex)) {
+            headVertex.removeIncomingArcFrom(this);
+        }
+    }
+
     /** Returns the attributes. */
     public Attributes getAttributes() {
         return attributes;
     }
 
+    /**
+     * Replaces the attributes. Used when a graph is updated incrementally and the vertex keeps its identity.
+     */
+    public void setAttributes(Attributes attributes) {
+        this.attributes = attributes;
+    }
+
     /** Returns the head vertex of the specified outgoing arc. */
     public Vertex getHeadVertex(int index) {
         return heads.elementAt(index);
@@ -117,6 +152,14 @@ public class Vertex {
         return visited;
     }
 
+    /**
+     * Sorts the incoming arcs (i.e.&nbsp;the tail vertices) by the specified comparator. This is used to restore the
+     * order of the incoming arcs independently of the order in which the arcs have been added.
+     */
+    public void sortIncomingArcs(Comparator<Vertex> comparator) {
+        Collections.sort(tails, comparator);
+    }
+
     /** Reset this vertex. That is, the visited flag is set to <tt>false</tt>. */
     public void reset() {
         visited = false;
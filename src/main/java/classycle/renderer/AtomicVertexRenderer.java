@@ -25,6 +25,7 @@
  ******************************************************************************/
 package classycle.renderer;
 
+import java.io.PrintWriter;
 import classycle.graph.AtomicVertex;
 import classycle.graph.StrongComponent;
 
@@ -48,4 +49,22 @@ public interface AtomicVertexRenderer {
      */
     String render(AtomicVertex vertex, StrongComponent cycle, int layerIndex);
 
+    /**
+     * Renders an {@link AtomicVertex} directly into the specified writer. The output is the same as the result of
+     * {@link #render(AtomicVertex, StrongComponent, int)}. The default implementation just writes this result.
+     * Renderers used for large reports should override this method in order to avoid intermediate strings.
+     *
+     * @param vertex
+     *            Vertex to be rendered.
+     * @param cycle
+     *            Cycle to which <code>vertex</code> belongs or <code>null</code>.
+     * @param layerIndex
+     *            Index of the layer to which <code>vertex</code> belongs.
+     * @param writer
+     *            Output stream.
+     */
+    default void render(AtomicVertex vertex, StrongComponent cycle, int layerIndex, PrintWriter writer) {
+        writer.write(render(vertex, cycle, layerIndex));
+    }
+
 }
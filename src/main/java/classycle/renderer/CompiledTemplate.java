@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.renderer;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template with the syntax of <tt>java.text.MessageFormat</tt> which is parsed only once into literal text and
+ * arguments. Rendering writes the literal text and the argument values directly into a writer. Plain arguments like
+ * <tt>{0}</tt> and the quoting rules of <tt>MessageFormat</tt> are supported. Templates with format types or styles
+ * (e.g. <tt>{0,number}</tt>) are rendered by a <tt>MessageFormat</tt> with the argument values converted to strings.
+ *
+ * @author Sakib Hadžiavdić
+ */
+final class CompiledTemplate {
+
+    /** Writer of argument values. */
+    interface Arguments {
+
+        /** Writes the value of the argument with the specified index. */
+        void write(int index, PrintWriter writer);
+    }
+
+    private final MessageFormat format;
+    private final String[] literals;
+    private final int[] indices;
+
+    /**
+     * Compiles the specified template.
+     *
+     * @throws IllegalArgumentException
+     *             if the template is not a valid <tt>MessageFormat</tt> pattern.
+     */
+    CompiledTemplate(String template) {
+        final List<String> literalList = new ArrayList<>();
+        final List<Integer> indexList = new ArrayList<>();
+        if (compile(template, literalList, indexList)) {
+            format = null;
+            literals = literalList.toArray(new String[literalList.size()]);
+            indices = new int[indexList.size()];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = indexList.get(i).intValue();
+            }
+        } else {
+            format = new MessageFormat(template);
+            literals = null;
+            indices = null;
+        }
+    }
+
+    /**
+     * Splits the template into literals and argument indices. The i-th literal precedes the i-th argument. The last
+     * literal follows the last argument.
+     *
+     * @return <tt>false</tt> if the template contains something else than plain arguments.
+     */
+    private static boolean compile(String template, List<String> literals, List<Integer> indices) {
+        final StringBuilder literal = new StringBuilder();
+        boolean inQuote = false;
+        for (int i = 0, n = template.length(); i < n; i++) {
+            final char c = template.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < n && template.charAt(i + 1) == '\'') {
+                    literal.append(c);
+                    i++;
+                } else {
+                    inQuote = !inQuote;
+                }
+            } else if (c == '{' && !inQuote) {
+                final int end = template.indexOf('}', i + 1);
+                if (end < 0 || !isIndex(template, i + 1, end)) {
+                    return false;
+                }
+                literals.add(literal.toString());
+                literal.setLength(0);
+                indices.add(Integer.valueOf(template.substring(i + 1, end)));
+                i = end;
+            } else {
+                literal.append(c);
+            }
+        }
+        literals.add(literal.toString());
+        return true;
+    }
+
+    private static boolean isIndex(String template, int start, int end) {
+        if (start == end || end - start > 9) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (template.charAt(i) < '0' || template.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns <tt>true</tt> if the template refers to the argument with the specified index. */
+    boolean uses(int index) {
+        if (format != null) {
+            return true;
+        }
+        for (final int i : indices) {
+            if (i == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Renders this template into the specified writer.
+     *
+     * @param writer
+     *            Output stream.
+     * @param numberOfArguments
+     *            Number of arguments. As with <tt>MessageFormat</tt> arguments with a larger index are rendered
+     *            unchanged, e.g. <tt>{42}</tt>.
+     * @param arguments
+     *            Writer of the argument values.
+     */
+    void render(PrintWriter writer, int numberOfArguments, Arguments arguments) {
+        if (format != null) {
+            final String[] values = new String[numberOfArguments];
+            for (int i = 0; i < numberOfArguments; i++) {
+                final StringWriter value = new StringWriter();
+                arguments.write(i, new PrintWriter(value));
+                values[i] = value.toString();
+            }
+            writer.write(format.format(values));
+            return;
+        }
+        for (int i = 0; i < indices.length; i++) {
+            writer.write(literals[i]);
+            final int index = indices[i];
+            if (index < numberOfArguments) {
+                arguments.write(index, writer);
+            } else {
+                writer.write('{');
+                writer.print(index);
+                writer.write('}');
+            }
+        }
+        writer.write(literals[indices.length]);
+    }
+}
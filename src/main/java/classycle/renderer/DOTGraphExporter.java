@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.renderer;
+
+import java.io.PrintWriter;
+import classycle.graph.AtomicVertex;
+import classycle.util.StringPattern;
+
+/**
+ * Exporter of a graph in the DOT language of <a href="https://graphviz.org/">Graphviz</a>. External vertices are
+ * drawn dashed.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class DOTGraphExporter extends GraphExporter {
+
+    /** Creates an instance which exports all vertices and arcs. */
+    public DOTGraphExporter() {
+    }
+
+    /** Creates an instance with the specified filters (see {@link GraphExporter}). */
+    public DOTGraphExporter(StringPattern pattern, boolean internalArcs, boolean externalArcs) {
+        super(pattern, internalArcs, externalArcs);
+    }
+
+    @Override
+    protected void writeStart(PrintWriter writer) {
+        writer.write("digraph classycle {\n");
+    }
+
+    @Override
+    protected void writeVertex(AtomicVertex vertex, PrintWriter writer) {
+        writer.write("  ");
+        writeId(getName(vertex), writer);
+        writer.write(vertex.isGraphVertex() ? ";\n" : " [style=dashed];\n");
+    }
+
+    @Override
+    protected void writeArc(AtomicVertex tail, AtomicVertex head, PrintWriter writer) {
+        writer.write("  ");
+        writeId(getName(tail), writer);
+        writer.write(" -> ");
+        writeId(getName(head), writer);
+        writer.write(";\n");
+    }
+
+    @Override
+    protected void writeEnd(PrintWriter writer) {
+        writer.write("}\n");
+    }
+
+    private static void writeId(String value, PrintWriter writer) {
+        writer.write('"');
+        for (int i = 0, n = value.length(); i < n; i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+            }
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+}
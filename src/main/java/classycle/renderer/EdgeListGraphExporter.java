@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.renderer;
+
+import java.io.PrintWriter;
+import classycle.graph.AtomicVertex;
+import classycle.util.StringPattern;
+
+/**
+ * Exporter of the arcs of a graph as comma separated values. After a header line each line contains the name of the
+ * tail, the name of the head, and the type of the arc (<tt>usesInternal</tt> or <tt>usesExternal</tt>). Vertices
+ * without exported arcs do not appear.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class EdgeListGraphExporter extends GraphExporter {
+
+    /** Creates an instance which exports all arcs. */
+    public EdgeListGraphExporter() {
+    }
+
+    /** Creates an instance with the specified filters (see {@link GraphExporter}). */
+    public EdgeListGraphExporter(StringPattern pattern, boolean internalArcs, boolean externalArcs) {
+        super(pattern, internalArcs, externalArcs);
+    }
+
+    @Override
+    protected void writeStart(PrintWriter writer) {
+        writer.write("tail,head,type\n");
+    }
+
+    @Override
+    protected void writeVertex(AtomicVertex vertex, PrintWriter writer) {
+    }
+
+    @Override
+    protected void writeArc(AtomicVertex tail, AtomicVertex head, PrintWriter writer) {
+        writeValue(getName(tail), writer);
+        writer.write(',');
+        writeValue(getName(head), writer);
+        writer.write(head.isGraphVertex() ? ",usesInternal\n" : ",usesExternal\n");
+    }
+
+    @Override
+    protected void writeEnd(PrintWriter writer) {
+    }
+
+    private static void writeValue(String value, PrintWriter writer) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            writer.write(value);
+        } else {
+            writer.write('"');
+            for (int i = 0, n = value.length(); i < n; i++) {
+                final char c = value.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+    }
+}
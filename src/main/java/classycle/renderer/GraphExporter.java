@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.renderer;
+
+import java.io.PrintWriter;
+import java.util.HashSet;
+import java.util.Set;
+import classycle.ClassAttributes;
+import classycle.ModuleAttributes;
+import classycle.NameAndSourceAttributes;
+import classycle.graph.AtomicVertex;
+import classycle.graph.NameAttributes;
+import classycle.graph.Vertex;
+import classycle.util.StringPattern;
+import classycle.util.TrueStringPattern;
+
+/**
+ * Abstract superclass of exporters which write a class or package graph vertex by vertex and arc by arc into a writer.
+ * Apart from the writer only the set of exported external vertices is kept in memory.
+ * <p>
+ * Vertices are filtered by a {@link StringPattern} for their names. Arcs are exported only if tail and head match the
+ * pattern. In addition arcs to vertices of the graph (internal arcs) and arcs to external vertices can be excluded.
+ * External vertices are exported once, just before the first exported arc pointing to them.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public abstract class GraphExporter {
+
+    private final StringPattern pattern;
+    private final boolean internalArcs;
+    private final boolean externalArcs;
+
+    /** Creates an instance which exports all vertices and arcs. */
+    protected GraphExporter() {
+        this(new TrueStringPattern(), true, true);
+    }
+
+    /**
+     * Creates an instance with the specified filters.
+     *
+     * @param pattern
+     *            Pattern the names of exported vertices have to match.
+     * @param internalArcs
+     *            If <tt>true</tt> arcs to vertices of the graph are exported.
+     * @param externalArcs
+     *            If <tt>true</tt> arcs to external vertices are exported.
+     */
+    protected GraphExporter(StringPattern pattern, boolean internalArcs, boolean externalArcs) {
+        this.pattern = pattern;
+        this.internalArcs = internalArcs;
+        this.externalArcs = externalArcs;
+    }
+
+    /**
+     * Creates an exporter for the format defined by the extension of the specified file name: <tt>.csv</tt> (edge
+     * list), <tt>.ndjson</tt> or <tt>.jsonl</tt>, <tt>.graphml</tt>, <tt>.dot</tt> or <tt>.gv</tt>.
+     *
+     * @return <tt>null</tt> if the extension is not supported.
+     */
+    public static GraphExporter create(String fileName, StringPattern pattern, boolean internalArcs,
+            boolean externalArcs) {
+        final String name = fileName.toLowerCase();
+        if (name.endsWith(".csv")) {
+            return new EdgeListGraphExporter(pattern, internalArcs, externalArcs);
+        } else if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return new NDJSONGraphExporter(pattern, internalArcs, externalArcs);
+        } else if (name.endsWith(".graphml")) {
+            return new GraphMLGraphExporter(pattern, internalArcs, externalArcs);
+        } else if (name.endsWith(".dot") || name.endsWith(".gv")) {
+            return new DOTGraphExporter(pattern, internalArcs, externalArcs);
+        }
+        return null;
+    }
+
+    /**
+     * Exports the specified graph into the specified writer. The writer will not be closed.
+     *
+     * @param graph
+     *            Class graph or package graph.
+     * @param writer
+     *            Output stream.
+     */
+    public void export(AtomicVertex[] graph, PrintWriter writer) {
+        writeStart(writer);
+        for (final AtomicVertex vertex : graph) {
+            if (matches(vertex)) {
+                writeVertex(vertex, writer);
+            }
+        }
+        final Set<AtomicVertex> exportedExternalVertices = new HashSet<>();
+        for (final AtomicVertex vertex : graph) {
+            if (matches(vertex)) {
+                for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
+                    final AtomicVertex head = (AtomicVertex) vertex.getHeadVertex(i);
+                    if (isExported(head)) {
+                        if (!head.isGraphVertex() && exportedExternalVertices.add(head)) {
+                            writeVertex(head, writer);
+                        }
+                        writeArc(vertex, head, writer);
+                    }
+                }
+            }
+        }
+        writeEnd(writer);
+        writer.flush();
+    }
+
+    private boolean matches(Vertex vertex) {
+        return pattern.matches(getName(vertex));
+    }
+
+    private boolean isExported(AtomicVertex head) {
+        return (head.isGraphVertex() ? internalArcs : externalArcs) && matches(head);
+    }
+
+    /** Writes the beginning of the document. */
+    protected abstract void writeStart(PrintWriter writer);
+
+    /** Writes the specified vertex. */
+    protected abstract void writeVertex(AtomicVertex vertex, PrintWriter writer);
+
+    /** Writes the arc between the specified vertices. */
+    protected abstract void writeArc(AtomicVertex tail, AtomicVertex head, PrintWriter writer);
+
+    /** Writes the end of the document. */
+    protected abstract void writeEnd(PrintWriter writer);
+
+    /** Returns the name of the specified vertex. */
+    protected static String getName(Vertex vertex) {
+        return ((NameAttributes) vertex.getAttributes()).getName();
+    }
+
+    /** Returns the size of the specified vertex. */
+    protected static int getSize(Vertex vertex) {
+        return ((NameAttributes) vertex.getAttributes()).getSize();
+    }
+
+    /**
+     * Returns the type of a class, <tt>package</tt> for a vertex of a package graph, or <tt>module</tt> for a vertex of
+     * a module graph.
+     */
+    protected static String getType(Vertex vertex) {
+        final NameAttributes attributes = (NameAttributes) vertex.getAttributes();
+        if (attributes instanceof ModuleAttributes) {
+            return "module";
+        }
+        return attributes instanceof ClassAttributes ? ((ClassAttributes) attributes).getType() : "package";
+    }
+
+    /** Returns the sources of the specified vertex. */
+    protected static Iterable<String> getSources(Vertex vertex) {
+        return ((NameAndSourceAttributes) vertex.getAttributes()).getSourceSet();
+    }
+}
@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.renderer;
+
+import java.io.PrintWriter;
+import classycle.graph.AtomicVertex;
+import classycle.util.StringPattern;
+
+/**
+ * Exporter of a graph as <a href="http://graphml.graphdrawing.org/">GraphML</a>. The node ids are the vertex names.
+ * Nodes have the data <tt>type</tt>, <tt>size</tt>, and <tt>internal</tt>.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class GraphMLGraphExporter extends GraphExporter {
+
+    /** Creates an instance which exports all vertices and arcs. */
+    public GraphMLGraphExporter() {
+    }
+
+    /** Creates an instance with the specified filters (see {@link GraphExporter}). */
+    public GraphMLGraphExporter(StringPattern pattern, boolean internalArcs, boolean externalArcs) {
+        super(pattern, internalArcs, externalArcs);
+    }
+
+    @Override
+    protected void writeStart(PrintWriter writer) {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
+        writer.write("  <key id=\"type\" for=\"node\" attr.name=\"type\" attr.type=\"string\"/>\n");
+        writer.write("  <key id=\"size\" for=\"node\" attr.name=\"size\" attr.type=\"int\"/>\n");
+        writer.write("  <key id=\"internal\" for=\"node\" attr.name=\"internal\" attr.type=\"boolean\"/>\n");
+        writer.write("  <graph edgedefault=\"directed\">\n");
+    }
+
+    @Override
+    protected void writeVertex(AtomicVertex vertex, PrintWriter writer) {
+        writer.write("    <node id=\"");
+        writeEscaped(getName(vertex), writer);
+        writer.write("\"><data key=\"type\">");
+        writeEscaped(getType(vertex), writer);
+        writer.write("</data><data key=\"size\">");
+        writer.print(getSize(vertex));
+        writer.write("</data><data key=\"internal\">");
+        writer.write(vertex.isGraphVertex() ? "true" : "false");
+        writer.write("</data></node>\n");
+    }
+
+    @Override
+    protected void writeArc(AtomicVertex tail, AtomicVertex head, PrintWriter writer) {
+        writer.write("    <edge source=\"");
+        writeEscaped(getName(tail), writer);
+        writer.write("\" target=\"");
+        writeEscaped(getName(head), writer);
+        writer.write("\"/>\n");
+    }
+
+    @Override
+    protected void writeEnd(PrintWriter writer) {
+        writer.write("  </graph>\n");
+        writer.write("</graphml>\n");
+    }
+
+    private static void writeEscaped(String value, PrintWriter writer) {
+        for (int i = 0, n = value.length(); i < n; i++) {
+            final char c = value.charAt(i);
+            if (c == '<') {
+                writer.write("&lt;");
+            } else if (c == '>') {
+                writer.write("&gt;");
+            } else if (c == '&') {
+                writer.write("&amp;");
+            } else if (c == '"') {
+                writer.write("&quot;");
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+}
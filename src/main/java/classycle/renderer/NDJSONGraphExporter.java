@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.renderer;
+
+import java.io.PrintWriter;
+import classycle.graph.AtomicVertex;
+import classycle.util.StringPattern;
+
+/**
+ * Exporter of a graph as newline delimited JSON. Each line is a JSON object. Vertices look like
+ *
+ * <pre>
+ * {"vertex":"a.B","type":"class","size":1234,"internal":true,"sources":["a.jar"]}
+ * </pre>
+ *
+ * and arcs look like
+ *
+ * <pre>
+ * {"tail":"a.B","head":"java.lang.Object","internal":false}
+ * </pre>
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class NDJSONGraphExporter extends GraphExporter {
+
+    /** Creates an instance which exports all vertices and arcs. */
+    public NDJSONGraphExporter() {
+    }
+
+    /** Creates an instance with the specified filters (see {@link GraphExporter}). */
+    public NDJSONGraphExporter(StringPattern pattern, boolean internalArcs, boolean externalArcs) {
+        super(pattern, internalArcs, externalArcs);
+    }
+
+    @Override
+    protected void writeStart(PrintWriter writer) {
+    }
+
+    @Override
+    protected void writeVertex(AtomicVertex vertex, PrintWriter writer) {
+        writer.write("{\"vertex\":");
+        writeString(getName(vertex), writer);
+        writer.write(",\"type\":");
+        writeString(getType(vertex), writer);
+        writer.write(",\"size\":");
+        writer.print(getSize(vertex));
+        writer.write(vertex.isGraphVertex() ? ",\"internal\":true" : ",\"internal\":false");
+        writer.write(",\"sources\":[");
+        boolean first = true;
+        for (final String source : getSources(vertex)) {
+            if (source.length() > 0) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writeString(source, writer);
+                first = false;
+            }
+        }
+        writer.write("]}\n");
+    }
+
+    @Override
+    protected void writeArc(AtomicVertex tail, AtomicVertex head, PrintWriter writer) {
+        writer.write("{\"tail\":");
+        writeString(getName(tail), writer);
+        writer.write(",\"head\":");
+        writeString(getName(head), writer);
+        writer.write(head.isGraphVertex() ? ",\"internal\":true}\n" : ",\"internal\":false}\n");
+    }
+
+    @Override
+    protected void writeEnd(PrintWriter writer) {
+    }
+
+    private static void writeString(String value, PrintWriter writer) {
+        writer.write('"');
+        for (int i = 0, n = value.length(); i < n; i++) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write("\\u00");
+                writer.write(Character.forDigit(c >> 4, 16));
+                writer.write(Character.forDigit(c & 0xf, 16));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write('"');
+    }
+}
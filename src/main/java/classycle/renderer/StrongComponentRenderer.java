@@ -25,6 +25,7 @@
  ******************************************************************************/
 package classycle.renderer;
 
+import java.io.PrintWriter;
 import classycle.graph.StrongComponent;
 
 /**
@@ -37,4 +38,12 @@ public interface StrongComponentRenderer {
     /** Renderes the specified {@link StrongComponent}. */
     String render(StrongComponent component);
 
+    /**
+     * Renders the specified {@link StrongComponent} directly into the specified writer. The output is the same as the
+     * result of {@link #render(StrongComponent)}. The default implementation just writes this result.
+     */
+    default void render(StrongComponent component, PrintWriter writer) {
+        writer.write(render(component));
+    }
+
 }
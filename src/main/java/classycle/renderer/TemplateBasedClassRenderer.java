@@ -25,15 +25,17 @@
  ******************************************************************************/
 package classycle.renderer;
 
-import java.text.MessageFormat;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import classycle.ClassAttributes;
 import classycle.NameAndSourceAttributes;
 import classycle.graph.AtomicVertex;
 import classycle.graph.StrongComponent;
 
 /**
- * Renderer of an {@link AtomicVertex} with {@link ClassAttributes}. The renderer is based on a
- * <tt>java.text.MessageFormat</tt> template. The variables in the template have the following meaning:
+ * Renderer of an {@link AtomicVertex} with {@link ClassAttributes}. The renderer is based on a template with the syntax
+ * of <tt>java.text.MessageFormat</tt>. The template is parsed only once and the values are written directly into the
+ * output. The variables in the template have the following meaning:
  * <table border=1 cellpadding=5>
  * <tr>
  * <th>Variable index</th>
@@ -85,11 +87,15 @@ import classycle.graph.StrongComponent;
  */
 public class TemplateBasedClassRenderer implements AtomicVertexRenderer {
 
-    private final MessageFormat format;
+    private static final int NUMBER_OF_VALUES = 10;
+
+    private final CompiledTemplate template;
+    private final boolean countingArcs;
 
     /** Creates an instance for the specified template. */
     public TemplateBasedClassRenderer(String template) {
-        format = new MessageFormat(template);
+        this.template = new CompiledTemplate(template);
+        countingArcs = this.template.uses(5) || this.template.uses(6);
     }
 
     /**
@@ -102,33 +108,59 @@ public class TemplateBasedClassRenderer implements AtomicVertexRenderer {
      */
     @Override
     public String render(AtomicVertex vertex, StrongComponent cycle, int layerIndex) {
-        final String[] values = new String[10];
+        final StringWriter result = new StringWriter();
+        render(vertex, cycle, layerIndex, new PrintWriter(result));
+        return result.toString();
+    }
+
+    @Override
+    public void render(AtomicVertex vertex, StrongComponent cycle, int layerIndex, PrintWriter writer) {
         final NameAndSourceAttributes attributes = (NameAndSourceAttributes) vertex.getAttributes();
-        values[0] = attributes.getName();
-        values[2] = Integer.toString(attributes.getSize());
-        values[9] = attributes.getSources();
-        if (attributes instanceof ClassAttributes) {
-            final ClassAttributes ca = (ClassAttributes) attributes;
-            values[1] = ca.getType();
-            values[3] = ca.isInnerClass() ? "true" : "false";
-        } else {
-            values[1] = "";
-            values[3] = "";
-        }
-        values[4] = Integer.toString(vertex.getNumberOfIncomingArcs());
         int usesInternal = 0;
-        int usesExternal = 0;
-        for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
-            if (((AtomicVertex) vertex.getHeadVertex(i)).isGraphVertex()) {
-                usesInternal++;
-            } else {
-                usesExternal++;
+        if (countingArcs) {
+            for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
+                if (((AtomicVertex) vertex.getHeadVertex(i)).isGraphVertex()) {
+                    usesInternal++;
+                }
             }
         }
-        values[5] = Integer.toString(usesInternal);
-        values[6] = Integer.toString(usesExternal);
-        values[7] = Integer.toString(layerIndex);
-        values[8] = cycle == null ? "" : AbstractStrongComponentRenderer.createName(cycle);
-        return format.format(values);
+        final int internal = usesInternal;
+        template.render(writer, NUMBER_OF_VALUES, (index, out) -> {
+            switch (index) {
+                case 0:
+                    out.write(attributes.getName());
+                    break;
+                case 1:
+                    out.write(attributes instanceof ClassAttributes ? ((ClassAttributes) attributes).getType() : "");
+                    break;
+                case 2:
+                    out.print(attributes.getSize());
+                    break;
+                case 3:
+                    if (attributes instanceof ClassAttributes) {
+                        out.write(((ClassAttributes) attributes).isInnerClass() ? "true" : "false");
+                    }
+                    break;
+                case 4:
+                    out.print(vertex.getNumberOfIncomingArcs());
+                    break;
+                case 5:
+                    out.print(internal);
+                    break;
+                case 6:
+                    out.print(vertex.getNumberOfOutgoingArcs() - internal);
+                    break;
+                case 7:
+                    out.print(layerIndex);
+                    break;
+                case 8:
+                    if (cycle != null) {
+                        out.write(AbstractStrongComponentRenderer.createName(cycle));
+                    }
+                    break;
+                default:
+                    out.write(attributes.getSources());
+            }
+        });
     }
 }
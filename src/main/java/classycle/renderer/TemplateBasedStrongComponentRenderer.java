@@ -25,17 +25,21 @@
  ******************************************************************************/
 package classycle.renderer;
 
-import java.text.MessageFormat;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import classycle.graph.StrongComponent;
 
 /**
- * Renderer of a {@link StrongComponent}. The renderer is based on a <tt>java.text.MessageFormat</tt> template.
+ * Renderer of a {@link StrongComponent}. The renderer is based on a template with the syntax of
+ * <tt>java.text.MessageFormat</tt>.
  *
  * @author Franz-Josef Elmer
  */
 public class TemplateBasedStrongComponentRenderer extends AbstractStrongComponentRenderer {
 
-    private final MessageFormat format;
+    private static final int NUMBER_OF_VALUES = 3;
+
+    private final CompiledTemplate template;
     private final int minimumNumber;
 
     /**
@@ -47,20 +51,29 @@ public class TemplateBasedStrongComponentRenderer extends AbstractStrongComponen
      *            Minimum number of vertices the {@link StrongComponent} should have to be rendered.
      */
     public TemplateBasedStrongComponentRenderer(String template, int minimumNumber) {
-        format = new MessageFormat(template);
+        this.template = new CompiledTemplate(template);
         this.minimumNumber = minimumNumber;
     }
 
     @Override
     public String render(StrongComponent component) {
-        String result = "";
+        final StringWriter result = new StringWriter();
+        render(component, new PrintWriter(result));
+        return result.toString();
+    }
+
+    @Override
+    public void render(StrongComponent component, PrintWriter writer) {
         if (component.getNumberOfVertices() >= minimumNumber) {
-            final String[] values = new String[3];
-            values[0] = createName(component);
-            values[1] = Integer.toString(component.getNumberOfVertices());
-            values[2] = Integer.toString(component.getLongestWalk());
-            result = format.format(values);
+            template.render(writer, NUMBER_OF_VALUES, (index, out) -> {
+                if (index == 0) {
+                    out.write(createName(component));
+                } else if (index == 1) {
+                    out.print(component.getNumberOfVertices());
+                } else {
+                    out.print(component.getLongestWalk());
+                }
+            });
         }
-        return result;
     }
 }
@@ -25,10 +25,12 @@
  ******************************************************************************/
 package classycle.renderer;
 
-import java.text.MessageFormat;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import classycle.graph.AtomicVertex;
 import classycle.graph.NameAttributes;
 import classycle.graph.StrongComponent;
+import classycle.graph.Vertex;
 
 /**
  * XML renderer of an {@link AtomicVertex} with {@link NameAttributes}.
@@ -37,6 +39,8 @@ import classycle.graph.StrongComponent;
  */
 public abstract class XMLAtomicVertexRenderer implements AtomicVertexRenderer {
 
+    private AtomicVertexRenderer vertexRenderer;
+
     protected abstract String getElement();
 
     protected abstract String getRefElement();
@@ -51,23 +55,42 @@ public abstract class XMLAtomicVertexRenderer implements AtomicVertexRenderer {
      */
     @Override
     public String render(AtomicVertex vertex, StrongComponent cycle, int layerIndex) {
-        final StringBuilder result = new StringBuilder();
-        result.append(getVertexRenderer().render(vertex, cycle, layerIndex));
-        final MessageFormat format = new MessageFormat(
-                "      <" + getRefElement() + " name=\"{0}\"" + " type=\"{1}\"/>\n");
-        final String[] values = new String[2];
+        final StringWriter result = new StringWriter();
+        render(vertex, cycle, layerIndex, new PrintWriter(result));
+        return result.toString();
+    }
+
+    /**
+     * Renderes the specified vertex directly into the specified writer without creating intermediate strings.
+     */
+    @Override
+    public void render(AtomicVertex vertex, StrongComponent cycle, int layerIndex, PrintWriter writer) {
+        if (vertexRenderer == null) {
+            vertexRenderer = getVertexRenderer();
+        }
+        vertexRenderer.render(vertex, cycle, layerIndex, writer);
+        final String refElement = getRefElement();
         for (int i = 0, n = vertex.getNumberOfIncomingArcs(); i < n; i++) {
-            values[0] = ((NameAttributes) vertex.getTailVertex(i).getAttributes()).getName();
-            values[1] = "usedBy";
-            result.append(format.format(values));
+            renderRef(vertex.getTailVertex(i), refElement, "usedBy", writer);
         }
         for (int i = 0, n = vertex.getNumberOfOutgoingArcs(); i < n; i++) {
-            values[0] = ((NameAttributes) vertex.getHeadVertex(i).getAttributes()).getName();
-            values[1] = ((AtomicVertex) vertex.getHeadVertex(i)).isGraphVertex() ? "usesInternal" : "usesExternal";
-            result.append(format.format(values));
+            final Vertex head = vertex.getHeadVertex(i);
+            renderRef(head, refElement, ((AtomicVertex) head).isGraphVertex() ? "usesInternal" : "usesExternal",
+                    writer);
         }
-        result.append("    </").append(getElement()).append(">\n");
-        return result.toString();
+        writer.write("    </");
+        writer.write(getElement());
+        writer.write(">\n");
+    }
+
+    private static void renderRef(Vertex vertex, String refElement, String type, PrintWriter writer) {
+        writer.write("      <");
+        writer.write(refElement);
+        writer.write(" name=\"");
+        writer.write(((NameAttributes) vertex.getAttributes()).getName());
+        writer.write("\" type=\"");
+        writer.write(type);
+        writer.write("\"/>\n");
     }
 
 }
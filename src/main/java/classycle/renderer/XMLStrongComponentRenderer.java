@@ -25,7 +25,8 @@
  ******************************************************************************/
 package classycle.renderer;
 
-import java.text.MessageFormat;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import classycle.graph.GraphAttributes;
 import classycle.graph.NameAttributes;
 import classycle.graph.StrongComponent;
@@ -62,15 +63,6 @@ public class XMLStrongComponentRenderer extends AbstractStrongComponentRenderer
         return "classRef";
     }
 
-    private MessageFormat getNodeElementTemplate() {
-        return new MessageFormat("        <" + getNodeElementName() + " name=\"{0}\"/>\n");
-    }
-
-    private MessageFormat getNodeElementTemplateWithEccentricity() {
-        return new MessageFormat("        <" + getNodeElementName() + " name=\"{0}\" eccentricity=\"{1}\""
-                + " maximumFragmentSize=\"{2}\"/>\n");
-    }
-
     protected String getNodesElementName() {
         return "classes";
     }
@@ -79,58 +71,94 @@ public class XMLStrongComponentRenderer extends AbstractStrongComponentRenderer
         return "cycle";
     }
 
-    private MessageFormat getStrongComponentElementTemplate() {
-        return new MessageFormat(
-                "    <" + getStrongComponentElementName() + " name=\"{0}\" size=\"{1}\" longestWalk=\"{2}\""
-                        + " girth=\"{3}\" radius=\"{4}\" diameter=\"{5}\"" + " bestFragmentSize=\"{6}\">\n");
+    @Override
+    public String render(StrongComponent component) {
+        final StringWriter result = new StringWriter();
+        render(component, new PrintWriter(result));
+        return result.toString();
     }
 
+    /**
+     * Renders the specified {@link StrongComponent} directly into the specified writer without creating intermediate
+     * strings.
+     */
     @Override
-    public String render(StrongComponent component) {
-        final StringBuilder result = new StringBuilder();
+    public void render(StrongComponent component, PrintWriter writer) {
         if (component.getNumberOfVertices() >= minimumSize) {
-            final String[] values = new String[7];
-            values[0] = createName(component);
-            values[1] = Integer.toString(component.getNumberOfVertices());
-            values[2] = Integer.toString(component.getLongestWalk());
             final GraphAttributes attributes = (GraphAttributes) component.getAttributes();
-            values[3] = Integer.toString(attributes.getGirth());
-            values[4] = Integer.toString(attributes.getRadius());
-            values[5] = Integer.toString(attributes.getDiameter());
-            values[6] = Integer.toString(attributes.getBestFragmentSize());
-            result.append(getStrongComponentElementTemplate().format(values));
-
-            renderClasses(component, result);
-            renderVertices(attributes.getCenterVertices(), result, getCenterNodesElementName());
-            renderVertices(attributes.getBestFragmenters(), result, getBestFragmentersElementName());
-            result.append("    </").append(getStrongComponentElementName()).append(">\n");
+            writer.write("    <");
+            writer.write(getStrongComponentElementName());
+            renderAttribute("name", createName(component), writer);
+            renderAttribute("size", component.getNumberOfVertices(), writer);
+            renderAttribute("longestWalk", component.getLongestWalk(), writer);
+            renderAttribute("girth", attributes.getGirth(), writer);
+            renderAttribute("radius", attributes.getRadius(), writer);
+            renderAttribute("diameter", attributes.getDiameter(), writer);
+            renderAttribute("bestFragmentSize", attributes.getBestFragmentSize(), writer);
+            writer.write(">\n");
+
+            renderClasses(component, writer);
+            renderVertices(attributes.getCenterVertices(), writer, getCenterNodesElementName());
+            renderVertices(attributes.getBestFragmenters(), writer, getBestFragmentersElementName());
+            writer.write("    </");
+            writer.write(getStrongComponentElementName());
+            writer.write(">\n");
         }
-        return result.toString();
     }
 
-    private void renderClasses(StrongComponent component, StringBuilder result) {
-        result.append("      <").append(getNodesElementName()).append(">\n");
+    private void renderClasses(StrongComponent component, PrintWriter writer) {
+        renderStartTag(getNodesElementName(), writer);
         final int[] eccentricities = ((GraphAttributes) component.getAttributes()).getEccentricities();
         final int[] maximumFragmentSizes = ((GraphAttributes) component.getAttributes()).getMaximumFragmentSizes();
-        final String[] values = new String[3];
-        final MessageFormat template = getNodeElementTemplateWithEccentricity();
+        final String nodeElementName = getNodeElementName();
         for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
-            values[0] = ((NameAttributes) component.getVertex(i).getAttributes()).getName();
-            values[1] = Integer.toString(eccentricities[i]);
-            values[2] = Integer.toString(maximumFragmentSizes[i]);
-            result.append(template.format(values));
+            writer.write("        <");
+            writer.write(nodeElementName);
+            renderAttribute("name", ((NameAttributes) component.getVertex(i).getAttributes()).getName(), writer);
+            renderAttribute("eccentricity", eccentricities[i], writer);
+            renderAttribute("maximumFragmentSize", maximumFragmentSizes[i], writer);
+            writer.write("/>\n");
         }
-        result.append("      </").append(getNodesElementName()).append(">\n");
+        renderEndTag(getNodesElementName(), writer);
     }
 
-    private void renderVertices(Vertex[] vertices, StringBuilder result, String tagName) {
-        result.append("      <").append(tagName).append(">\n");
-        final String[] values = new String[1];
-        final MessageFormat template = getNodeElementTemplate();
+    private void renderVertices(Vertex[] vertices, PrintWriter writer, String tagName) {
+        renderStartTag(tagName, writer);
+        final String nodeElementName = getNodeElementName();
         for (int i = 0; i < vertices.length; i++) {
-            values[0] = ((NameAttributes) vertices[i].getAttributes()).getName();
-            result.append(template.format(values));
+            writer.write("        <");
+            writer.write(nodeElementName);
+            renderAttribute("name", ((NameAttributes) vertices[i].getAttributes()).getName(), writer);
+            writer.write("/>\n");
         }
-        result.append("      </").append(tagName).append(">\n");
+        renderEndTag(tagName, writer);
+    }
+
+    private static void renderStartTag(String tagName, PrintWriter writer) {
+        writer.write("      <");
+        writer.write(tagName);
+        writer.write(">\n");
+    }
+
+    private static void renderEndTag(String tagName, PrintWriter writer) {
+        writer.write("      </");
+        writer.write(tagName);
+        writer.write(">\n");
+    }
+
+    private static void renderAttribute(String name, String value, PrintWriter writer) {
+        writer.write(' ');
+        writer.write(name);
+        writer.write("=\"");
+        writer.write(value);
+        writer.write('"');
+    }
+
+    private static void renderAttribute(String name, int value, PrintWriter writer) {
+        writer.write(' ');
+        writer.write(name);
+        writer.write("=\"");
+        writer.print(value);
+        writer.write('"');
     }
 }
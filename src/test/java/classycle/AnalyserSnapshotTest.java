@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import classycle.util.TrueStringPattern;
+
+/**
+ * Compares the reports of an analysis with the reports of its snapshot (see {@link Analyser#saveSnapshot} and
+ * {@link Analyser#loadSnapshot}). The classes of Classycle itself are analysed because they contain cycles.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class AnalyserSnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        checkRoundTrip(false);
+    }
+
+    @Test
+    public void testRoundTripWithMergedInnerClasses() throws Exception {
+        checkRoundTrip(true);
+    }
+
+    private void checkRoundTrip(boolean mergeInnerClasses) throws Exception {
+        final String[] classFiles = { getClassesFolder() };
+        final Analyser analyser = new Analyser(classFiles, new TrueStringPattern(), null, mergeInnerClasses);
+        analyser.createClassGraph();
+        analyser.calculateClassLayerMap();
+        analyser.createPackageGraph();
+        analyser.calculatePackageLayerMap();
+        final File file = folder.newFile("analysis.snapshot");
+        analyser.saveSnapshot(file);
+
+        final Analyser loaded = Analyser.loadSnapshot(file);
+        assertEquals(printXML(analyser, false), printXML(loaded, false));
+        assertEquals(printXML(analyser, true), printXML(loaded, true));
+        assertEquals(printCSV(analyser), printCSV(loaded));
+        assertEquals(printComponents(analyser), printComponents(loaded));
+        assertEquals(analyser.getNumberOfExternalClasses(), loaded.getNumberOfExternalClasses());
+
+        final File savedAgain = folder.newFile("saved-again.snapshot");
+        loaded.saveSnapshot(savedAgain);
+        assertArrayEquals(Files.readAllBytes(file.toPath()), Files.readAllBytes(savedAgain.toPath()));
+    }
+
+    private static String getClassesFolder() throws Exception {
+        return new File(Analyser.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+    }
+
+    private static String printXML(Analyser analyser, boolean packagesOnly) throws IOException {
+        final StringWriter writer = new StringWriter();
+        analyser.printXML("snapshot", packagesOnly, new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    private static String printCSV(Analyser analyser) {
+        final StringWriter writer = new StringWriter();
+        analyser.printCSV(new PrintWriter(writer));
+        return writer.toString();
+    }
+
+    private static String printComponents(Analyser analyser) {
+        final StringWriter writer = new StringWriter();
+        final PrintWriter printWriter = new PrintWriter(writer);
+        analyser.printComponents(printWriter, 2);
+        printWriter.flush();
+        return writer.toString();
+    }
+}
@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import classycle.graph.AtomicVertex;
+import classycle.graph.StrongComponent;
+import classycle.graph.StrongComponentAnalyser;
+import classycle.graph.Vertex;
+import classycle.util.TrueStringPattern;
+
+/**
+ * Writes class graphs with {@link BinaryGraphWriter} and compares the {@link BinaryGraph} read from the file with the
+ * graph in memory: attributes, arcs in both directions, strong components, and layers of all vertices including the
+ * external ones.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class BinaryGraphTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testClassesOfClassycle() throws Exception {
+        final String classes = new File(Analyser.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .getPath();
+        final Analyser analyser = new Analyser(new String[] { classes });
+        analyser.createClassGraph();
+        final File file = folder.newFile("classycle.bin");
+        analyser.writeBinaryGraph(file);
+        check(analyser.getClassGraph(), analyser.getCondensedClassGraph(), analyser.getClassComponentMap(),
+                analyser.getClassLayerMap(), BinaryGraph.map(file));
+    }
+
+    @Test
+    public void testRandomGraphs() throws Exception {
+        for (int seed = 0; seed < 20; seed++) {
+            final List<UnresolvedNode> nodes = new RandomClassNodes(seed, 200).createNodes(300);
+            final UnresolvedNode node = new UnresolvedNode();
+            node.setAttributes(new ClassAttributes("pä.Größe", "über.jar", ClassAttributes.CLASS, 1));
+            node.addLinkTo(nodes.get(0).getAttributes().getName());
+            node.addLinkTo("ext.Ж");
+            nodes.add(node);
+            final AtomicVertex[] graph = Parser.createGraph(nodes, new TrueStringPattern(), false);
+            final StrongComponentAnalyser analyser = new StrongComponentAnalyser(graph);
+            final Map<AtomicVertex, Integer> layerMap = analyser.getLayerMap();
+            final File file = folder.newFile("random" + seed + ".bin");
+            BinaryGraphWriter.write(file, graph, analyser.getCondensedGraph());
+            check(graph, analyser.getCondensedGraph(), analyser.getComponentMap(), layerMap, BinaryGraph.map(file));
+        }
+    }
+
+    private static void check(AtomicVertex[] graph, StrongComponent[] components,
+            Map<AtomicVertex, StrongComponent> componentMap, Map<AtomicVertex, Integer> layerMap,
+            BinaryGraph binaryGraph) {
+        assertEquals(graph.length, binaryGraph.getNumberOfGraphVertices());
+        assertEquals(components.length, binaryGraph.getNumberOfComponents());
+        final Set<Vertex> externalVertices = new HashSet<>();
+        int numberOfArcs = 0;
+        for (int i = 0; i < graph.length; i++) {
+            final AtomicVertex vertex = graph[i];
+            final int index = binaryGraph.indexOf(getName(vertex));
+            assertEquals(i, index);
+            assertTrue(binaryGraph.isGraphVertex(index));
+            checkAttributes(vertex, index, binaryGraph);
+            assertEquals(getNames(componentMap.get(vertex)), getNames(binaryGraph, binaryGraph.getComponent(index)));
+            assertEquals(layerMap.get(vertex).intValue(), binaryGraph.getLayer(index));
+            assertEquals(vertex.getNumberOfOutgoingArcs(), binaryGraph.getNumberOfOutgoingArcs(index));
+            for (int j = 0, n = vertex.getNumberOfOutgoingArcs(); j < n; j++) {
+                final Vertex head = vertex.getHeadVertex(j);
+                assertEquals(getName(head), binaryGraph.getName(binaryGraph.getHead(index, j)));
+                if (!componentMap.containsKey(head)) {
+                    externalVertices.add(head);
+                }
+            }
+            numberOfArcs += vertex.getNumberOfOutgoingArcs();
+            checkTails(vertex, index, binaryGraph);
+        }
+        assertEquals(numberOfArcs, binaryGraph.getNumberOfArcs());
+        assertEquals(graph.length + externalVertices.size(), binaryGraph.getNumberOfVertices());
+        for (final Vertex vertex : externalVertices) {
+            final int index = binaryGraph.indexOf(getName(vertex));
+            assertFalse(binaryGraph.isGraphVertex(index));
+            checkAttributes(vertex, index, binaryGraph);
+            assertEquals(-1, binaryGraph.getComponent(index));
+            assertEquals(-1, binaryGraph.getLayer(index));
+            assertEquals(0, binaryGraph.getNumberOfOutgoingArcs(index));
+            checkTails(vertex, index, binaryGraph);
+        }
+        assertEquals(-1, binaryGraph.indexOf("not.a.Class"));
+    }
+
+    private static void checkAttributes(Vertex vertex, int index, BinaryGraph binaryGraph) {
+        final ClassAttributes attributes = (ClassAttributes) vertex.getAttributes();
+        assertEquals(attributes.getName(), binaryGraph.getName(index));
+        assertEquals(attributes.getType(), binaryGraph.getType(index));
+        assertEquals(attributes.getSources(), binaryGraph.getSources(index));
+        assertEquals(attributes.getSize(), binaryGraph.getSize(index));
+    }
+
+    private static void checkTails(Vertex vertex, int index, BinaryGraph binaryGraph) {
+        final Set<String> tails = new TreeSet<>();
+        for (int j = 0, n = vertex.getNumberOfIncomingArcs(); j < n; j++) {
+            tails.add(getName(vertex.getTailVertex(j)));
+        }
+        final Set<String> binaryTails = new TreeSet<>();
+        for (int j = 0, n = binaryGraph.getNumberOfIncomingArcs(index); j < n; j++) {
+            binaryTails.add(binaryGraph.getName(binaryGraph.getTail(index, j)));
+        }
+        assertEquals(tails, binaryTails);
+    }
+
+    private static Set<String> getNames(StrongComponent component) {
+        final Set<String> names = new TreeSet<>();
+        for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+            names.add(getName(component.getVertex(i)));
+        }
+        return names;
+    }
+
+    private static Set<String> getNames(BinaryGraph binaryGraph, int component) {
+        final Set<String> names = new TreeSet<>();
+        for (int i = 0, n = binaryGraph.getComponentSize(component); i < n; i++) {
+            names.add(binaryGraph.getName(binaryGraph.getComponentVertex(component, i)));
+        }
+        return names;
+    }
+
+    private static String getName(Vertex vertex) {
+        return ((ClassAttributes) vertex.getAttributes()).getName();
+    }
+}
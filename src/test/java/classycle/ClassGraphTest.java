@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import classycle.util.NotStringPattern;
+import classycle.util.StringPattern;
+import classycle.util.TrueStringPattern;
+import classycle.util.WildCardPattern;
+
+/**
+ * Compares the graph updated by {@link ClassGraph#update} with the graph created from scratch.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class ClassGraphTest {
+
+    private static final int NUMBER_OF_SEEDS = 50;
+    private static final int NUMBER_OF_CHANGES = 30;
+
+    @Test
+    public void testUpdate() {
+        checkUpdates(new TrueStringPattern(), false);
+    }
+
+    @Test
+    public void testUpdateWithPattern() {
+        checkUpdates(new NotStringPattern(new WildCardPattern("p4.*")), false);
+    }
+
+    @Test
+    public void testUpdateWithMergedInnerClasses() {
+        checkUpdates(new TrueStringPattern(), true);
+    }
+
+    private static void checkUpdates(StringPattern pattern, boolean mergeInnerClasses) {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; seed++) {
+            final RandomClassNodes random = new RandomClassNodes(seed, 40);
+            final List<UnresolvedNode> nodes = random.createNodes(50);
+            final ClassGraph classGraph = new ClassGraph(new ArrayList<>(nodes), pattern, mergeInnerClasses);
+            for (int i = 0; i < NUMBER_OF_CHANGES; i++) {
+                final List<UnresolvedNode> removedNodes = new ArrayList<>();
+                final List<UnresolvedNode> addedNodes = new ArrayList<>();
+                random.change(nodes, removedNodes, addedNodes);
+                classGraph.update(removedNodes, addedNodes);
+                assertEquals("seed " + seed + ", change " + i,
+                        RandomClassNodes.describe(Parser.createGraph(nodes, pattern, mergeInnerClasses)),
+                        RandomClassNodes.describe(classGraph.getGraph()));
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import classycle.graph.AtomicVertex;
+import classycle.graph.GraphAttributes;
+import classycle.graph.GraphChange;
+import classycle.graph.StrongComponent;
+import classycle.graph.StrongComponentAnalyser;
+import classycle.util.TrueStringPattern;
+
+/**
+ * Compares the strong components and layers maintained incrementally by {@link StrongComponentAnalyser#update} (see
+ * {@link classycle.graph.DynamicStrongComponents}) with those of a new analyser of the graph created from scratch. The
+ * graphs are changed randomly by {@link ClassGraph#update}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class DynamicStrongComponentsTest {
+
+    private static final int NUMBER_OF_SEEDS = 50;
+    private static final int NUMBER_OF_CHANGES = 30;
+
+    @Test
+    public void testUpdateOfLayeredComponents() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; seed++) {
+            checkUpdates(seed, true);
+        }
+    }
+
+    @Test
+    public void testUpdateOfComponentsWithoutLayers() {
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; seed++) {
+            checkUpdates(seed, false);
+        }
+    }
+
+    private static void checkUpdates(long seed, boolean layered) {
+        final RandomClassNodes random = new RandomClassNodes(seed, 40);
+        final List<UnresolvedNode> nodes = random.createNodes(60);
+        final ClassGraph classGraph = new ClassGraph(new ArrayList<>(nodes), new TrueStringPattern(), false);
+        final StrongComponentAnalyser analyser = new StrongComponentAnalyser(classGraph.getGraph());
+        if (layered) {
+            analyser.getLayerMap();
+        } else {
+            analyser.getCondensedGraph();
+        }
+        for (int i = 0; i < NUMBER_OF_CHANGES; i++) {
+            final List<UnresolvedNode> removedNodes = new ArrayList<>();
+            final List<UnresolvedNode> addedNodes = new ArrayList<>();
+            random.change(nodes, removedNodes, addedNodes);
+            final GraphChange change = classGraph.update(removedNodes, addedNodes);
+            analyser.update(classGraph.getGraph(), change);
+            final StrongComponentAnalyser expected = new StrongComponentAnalyser(
+                    Parser.createGraph(nodes, new TrueStringPattern(), false));
+            final String message = "seed " + seed + ", change " + i;
+            assertEquals(message, describe(expected.getCondensedGraph()), describe(analyser.getCondensedGraph()));
+            if (layered) {
+                assertEquals(message, describe(expected.getLayerMap()), describe(analyser.getLayerMap()));
+            }
+        }
+        if (!layered) {
+            final StrongComponentAnalyser expected = new StrongComponentAnalyser(
+                    Parser.createGraph(nodes, new TrueStringPattern(), false));
+            assertEquals("seed " + seed, describe(expected.getLayerMap()), describe(analyser.getLayerMap()));
+        }
+    }
+
+    /**
+     * Describes the specified components independently of their order and of the order of their vertices: For each
+     * component its vertices with eccentricity and maximum fragment size, its graph attributes, and its heads. A
+     * component is named by its smallest class name.
+     */
+    private static String describe(StrongComponent[] components) {
+        final String[] lines = new String[components.length];
+        for (int i = 0; i < components.length; i++) {
+            final StrongComponent component = components[i];
+            final GraphAttributes attributes = (GraphAttributes) component.getAttributes();
+            final String[] vertices = new String[component.getNumberOfVertices()];
+            for (int j = 0; j < vertices.length; j++) {
+                vertices[j] = RandomClassNodes.getName(component.getVertex(j)) + ":"
+                        + attributes.getEccentricities()[j] + ":" + attributes.getMaximumFragmentSizes()[j];
+            }
+            final String[] heads = new String[component.getNumberOfOutgoingArcs()];
+            for (int j = 0; j < heads.length; j++) {
+                heads[j] = getName((StrongComponent) component.getHeadVertex(j));
+            }
+            Arrays.sort(vertices);
+            Arrays.sort(heads);
+            lines[i] = Arrays.toString(vertices) + " girth " + attributes.getGirth() + " radius "
+                    + attributes.getRadius() + " diameter " + attributes.getDiameter() + " fragment "
+                    + attributes.getBestFragmentSize() + " -> " + Arrays.toString(heads);
+        }
+        Arrays.sort(lines);
+        return String.join("\n", lines);
+    }
+
+    private static String getName(StrongComponent component) {
+        String result = null;
+        for (int i = 0, n = component.getNumberOfVertices(); i < n; i++) {
+            final String name = RandomClassNodes.getName(component.getVertex(i));
+            if (result == null || name.compareTo(result) < 0) {
+                result = name;
+            }
+        }
+        return result;
+    }
+
+    private static String describe(Map<AtomicVertex, Integer> layerMap) {
+        final List<String> lines = new ArrayList<>();
+        for (final Map.Entry<AtomicVertex, Integer> entry : layerMap.entrySet()) {
+            lines.add(RandomClassNodes.getName(entry.getKey()) + " " + entry.getValue());
+        }
+        lines.sort(null);
+        return String.join("\n", lines);
+    }
+}
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.util.ArrayList;
+import java.util.List;
+import classycle.graph.AtomicVertex;
+import classycle.graph.GraphChange;
+import classycle.util.TrueStringPattern;
+
+/**
+ * Class graph which is changed randomly by updates of its unresolved nodes (see {@link RandomClassNodes}). It gives
+ * tests of other packages access to incremental updates as made by {@link ClassFileRepository#refresh}.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class RandomClassGraph {
+
+    private final RandomClassNodes random;
+    private final List<UnresolvedNode> nodes;
+    private final ClassGraph classGraph;
+
+    /**
+     * Creates a random graph.
+     *
+     * @param seed
+     *            Seed of the nodes and of all changes.
+     * @param numberOfClasses
+     *            Number of distinct class names.
+     * @param numberOfNodes
+     *            Number of initial nodes.
+     */
+    public RandomClassGraph(long seed, int numberOfClasses, int numberOfNodes) {
+        random = new RandomClassNodes(seed, numberOfClasses);
+        nodes = random.createNodes(numberOfNodes);
+        classGraph = new ClassGraph(new ArrayList<>(nodes), new TrueStringPattern(), false);
+    }
+
+    /** Returns the current graph. */
+    public AtomicVertex[] getGraph() {
+        return classGraph.getGraph();
+    }
+
+    /** Changes the graph randomly and returns the changes. */
+    public GraphChange change() {
+        final List<UnresolvedNode> removedNodes = new ArrayList<>();
+        final List<UnresolvedNode> addedNodes = new ArrayList<>();
+        random.change(nodes, removedNodes, addedNodes);
+        return classGraph.update(removedNodes, addedNodes);
+    }
+}
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import classycle.graph.AtomicVertex;
+import classycle.graph.Vertex;
+
+/**
+ * Random unresolved nodes and random changes of them for differential tests of incremental updates. The classes are
+ * spread over five packages. Some of them are inner classes, some appear in two sources, and some links point to
+ * external classes. The same seed creates the same nodes and changes.
+ *
+ * @author Sakib Hadžiavdić
+ */
+class RandomClassNodes {
+
+    private static final String[] TYPES = { ClassAttributes.CLASS, ClassAttributes.INTERFACE,
+            ClassAttributes.ABSTRACT_CLASS };
+
+    private final Random random;
+    private final int numberOfClasses;
+
+    RandomClassNodes(long seed, int numberOfClasses) {
+        random = new Random(seed);
+        this.numberOfClasses = numberOfClasses;
+    }
+
+    /** Creates the specified number of nodes. */
+    List<UnresolvedNode> createNodes(int numberOfNodes) {
+        final List<UnresolvedNode> nodes = new ArrayList<>();
+        for (int i = 0; i < numberOfNodes; i++) {
+            nodes.add(createNode(randomClassName()));
+        }
+        return nodes;
+    }
+
+    /**
+     * Changes the specified nodes randomly: Some nodes are removed, some are replaced by a node of the same class with
+     * other links, and some new nodes are added.
+     *
+     * @param nodes
+     *            Current nodes. They will be changed.
+     * @param removedNodes
+     *            Collects the removed nodes, including the replaced ones.
+     * @param addedNodes
+     *            Collects the added nodes, including the replacements.
+     */
+    void change(List<UnresolvedNode> nodes, List<UnresolvedNode> removedNodes, List<UnresolvedNode> addedNodes) {
+        for (int i = 0, n = random.nextInt(4); i < n && !nodes.isEmpty(); i++) {
+            final UnresolvedNode node = nodes.remove(random.nextInt(nodes.size()));
+            removedNodes.add(node);
+            if (random.nextBoolean()) {
+                addedNodes.add(createNode(node.getAttributes().getName()));
+            }
+        }
+        for (int i = 0, n = random.nextInt(3); i < n; i++) {
+            addedNodes.add(createNode(randomClassName()));
+        }
+        nodes.addAll(addedNodes);
+    }
+
+    private UnresolvedNode createNode(String name) {
+        final UnresolvedNode node = new UnresolvedNode();
+        node.setAttributes(new ClassAttributes(name, "s" + random.nextInt(2), TYPES[random.nextInt(TYPES.length)],
+                100 + random.nextInt(900)));
+        for (int i = 0, n = random.nextInt(4); i < n; i++) {
+            final String link = random.nextInt(8) == 0 ? "ext.E" + random.nextInt(5) : randomClassName();
+            if (!link.equals(name)) {
+                node.addLinkTo(link);
+            }
+        }
+        return node;
+    }
+
+    private String randomClassName() {
+        final int index = random.nextInt(numberOfClasses);
+        final String name = "p" + index % 5 + ".C" + index;
+        return random.nextInt(10) == 0 ? name + "$" + random.nextInt(3) : name;
+    }
+
+    /**
+     * Describes the specified graph independently of the order of its vertices and arcs: For each vertex its
+     * attributes, its heads (external ones marked by <tt>?</tt>), and its tails.
+     */
+    static String describe(AtomicVertex[] graph) {
+        final Set<Vertex> graphVertices = new HashSet<>(Arrays.asList(graph));
+        final String[] lines = new String[graph.length];
+        for (int i = 0; i < graph.length; i++) {
+            final AtomicVertex vertex = graph[i];
+            final String[] heads = new String[vertex.getNumberOfOutgoingArcs()];
+            for (int j = 0; j < heads.length; j++) {
+                final Vertex head = vertex.getHeadVertex(j);
+                heads[j] = head.getAttributes() + (graphVertices.contains(head) ? "" : "?");
+            }
+            final String[] tails = new String[vertex.getNumberOfIncomingArcs()];
+            for (int j = 0; j < tails.length; j++) {
+                tails[j] = getName(vertex.getTailVertex(j));
+            }
+            Arrays.sort(heads);
+            Arrays.sort(tails);
+            lines[i] = vertex.getAttributes() + " -> " + Arrays.toString(heads) + " <- " + Arrays.toString(tails);
+        }
+        Arrays.sort(lines);
+        return String.join("\n", lines);
+    }
+
+    static String getName(Vertex vertex) {
+        return ((ClassAttributes) vertex.getAttributes()).getName();
+    }
+}
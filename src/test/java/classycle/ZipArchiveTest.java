@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Compares the entries read by {@link ZipArchive} with those read by {@link ZipFile} for seeded random archives with
+ * stored, deflated, empty and directory entries, non-ASCII names, comments, extra fields and a prefix.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class ZipArchiveTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRandomArchives() throws IOException {
+        for (int seed = 0; seed < 100; seed++) {
+            final Random random = new Random(seed);
+            final byte[] prefix = new byte[random.nextBoolean() ? 0 : random.nextInt(1000)];
+            random.nextBytes(prefix);
+            final File file = folder.newFile("archive" + seed + ".zip");
+            Files.write(file.toPath(), createArchive(random, prefix));
+            final List<String> names = new ArrayList<>();
+            final List<byte[]> contents = new ArrayList<>();
+            try (ZipFile zipFile = new ZipFile(file)) {
+                for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements();) {
+                    final ZipEntry entry = entries.nextElement();
+                    names.add(entry.getName());
+                    try (InputStream stream = zipFile.getInputStream(entry)) {
+                        contents.add(stream.readAllBytes());
+                    }
+                }
+            }
+            try (ZipArchive archive = ZipArchive.open(file)) {
+                check(names, contents, archive);
+            }
+            try (ZipArchive archive = ZipArchive.read(file)) {
+                check(names, contents, archive);
+            }
+            // Archive nested in other data, e.g. an entry of another archive
+            final byte[] bytes = Files.readAllBytes(file.toPath());
+            final ByteBuffer buffer = ByteBuffer.allocate(bytes.length + 200);
+            buffer.position(100);
+            buffer.put(bytes).flip().position(100);
+            try (ZipArchive archive = ZipArchive.wrap(buffer)) {
+                check(names, contents, archive);
+            }
+        }
+    }
+
+    @Test
+    public void testZip64() throws IOException {
+        final File file = folder.newFile("zip64.zip");
+        try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(file))) {
+            for (int i = 0; i < 0x10000; i++) {
+                out.putNextEntry(new ZipEntry("e" + i));
+                out.closeEntry();
+            }
+        }
+        assertNull(ZipArchive.open(file));
+        assertNull(ZipArchive.read(file));
+    }
+
+    private static byte[] createArchive(Random random, byte[] prefix) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(prefix);
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            if (random.nextBoolean()) {
+                out.setComment("comment " + random.nextInt());
+            }
+            for (int i = 0, n = random.nextInt(50); i < n; i++) {
+                if (random.nextInt(10) == 0) {
+                    out.putNextEntry(new ZipEntry("dir" + i + "/"));
+                    out.closeEntry();
+                    continue;
+                }
+                final ZipEntry entry = new ZipEntry((random.nextBoolean() ? "p/Größe" : "p/C") + i + ".class");
+                final byte[] content = createContent(random);
+                if (random.nextInt(3) == 0) {
+                    final CRC32 crc = new CRC32();
+                    crc.update(content);
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(content.length);
+                    entry.setCompressedSize(content.length);
+                    entry.setCrc(crc.getValue());
+                }
+                if (random.nextInt(4) == 0) {
+                    entry.setComment("entry " + i);
+                }
+                if (random.nextInt(4) == 0) {
+                    // Extra field with an unknown header id
+                    entry.setExtra(new byte[] { (byte) 0xfe, (byte) 0xca, 3, 0, 1, 2, 3 });
+                }
+                out.putNextEntry(entry);
+                out.write(content);
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    /** Returns random, repetitive or no content, so that deflated entries vary in their compression ratio. */
+    private static byte[] createContent(Random random) {
+        final byte[] content = new byte[random.nextInt(5) == 0 ? 0 : random.nextInt(20000)];
+        final int alphabet = 1 + random.nextInt(256);
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) random.nextInt(alphabet);
+        }
+        return content;
+    }
+
+    private static void check(List<String> names, List<byte[]> contents, ZipArchive archive) throws IOException {
+        assertEquals(names.size(), archive.getNumberOfEntries());
+        final List<ByteBuffer> detached = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(names.get(i), archive.getName(i));
+            assertEquals(names.get(i).endsWith(".class"), archive.nameEndsWith(i, ".class"));
+            assertArrayEquals(contents.get(i), toArray(archive.getContent(i)));
+            detached.add(archive.getDetachedContent(i));
+        }
+        for (int i = 0; i < names.size(); i++) {
+            assertArrayEquals(contents.get(i), toArray(detached.get(i)));
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer buffer) {
+        final byte[] result = new byte[buffer.remaining()];
+        buffer.duplicate().get(result);
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.dependency;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import classycle.RandomClassGraph;
+import classycle.graph.AtomicVertex;
+import classycle.graph.GraphChange;
+
+/**
+ * Checks the invalidation of statement results by {@link StatementDependencies#isAffectedBy}: After a random change of
+ * the graph a result which isn't affected has to be equal to the result of executing the statement again.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class StatementDependenciesTest {
+
+    private static final String DEPENDENCY_DEFINITION = "[p0] = p0.*\n" + "[p1] = p1.*\n" + "[p2] = p2.*\n"
+            + "[p3] = p3.*\n" + "[p4] = p4.*\n" + "[ext] = ext.*\n" + "check sets [p0] [p1] [p2] [p3] [p4]\n"
+            + "check [p0] independentOf [p1]\n" + "check [p2] directlyIndependentOf [p3]\n"
+            + "check [p4] independentOf [ext]\n" + "check [p1] dependentOnlyOn [p0] [p1] [p2]\n"
+            + "check absenceOfClassCycles > 1 in [p1]\n" + "check absenceOfPackageCycles > 1 in p*\n"
+            + "layer a = [p0] [p1]\n" + "layer b = [p2]\n" + "layer c = [p3] [p4]\n" + "check layeringOf a b c\n"
+            + "check strictLayeringOf a b c\n";
+    private static final int NUMBER_OF_SEEDS = 30;
+    private static final int NUMBER_OF_CHANGES = 30;
+
+    @Test
+    public void testReusedResultsAreUpToDate() {
+        final ResultRenderer renderer = new DefaultResultRenderer();
+        int reused = 0;
+        int invalidated = 0;
+        for (int seed = 0; seed < NUMBER_OF_SEEDS; seed++) {
+            final RandomClassGraph graph = new RandomClassGraph(seed, 40, 60);
+            final DependencyProcessor processor = new DependencyProcessor(DEPENDENCY_DEFINITION,
+                    new DependencyProperties(), renderer);
+            final int n = processor.getNumberOfStatements();
+            final Result[] results = new Result[n];
+            final StatementDependencies[] dependencies = new StatementDependencies[n];
+            for (int i = 0; i < n; i++) {
+                dependencies[i] = new StatementDependencies();
+                results[i] = processor.executeStatement(i, graph.getGraph(), dependencies[i]);
+            }
+            for (int j = 0; j < NUMBER_OF_CHANGES; j++) {
+                final GraphChange change = graph.change();
+                final AtomicVertex[] vertices = graph.getGraph();
+                for (int i = 0; i < n; i++) {
+                    final StatementDependencies newDependencies = new StatementDependencies();
+                    final Result result = processor.executeStatement(i, vertices, newDependencies);
+                    if (dependencies[i].isAffectedBy(change)) {
+                        invalidated++;
+                    } else {
+                        reused++;
+                        assertEquals("seed " + seed + ", change " + j + ", statement " + i, renderer.render(result),
+                                renderer.render(results[i]));
+                    }
+                    results[i] = result;
+                    dependencies[i] = newDependencies;
+                }
+            }
+        }
+        assertTrue("no result reused", reused > 0);
+        assertTrue("no result invalidated", invalidated > 0);
+    }
+}
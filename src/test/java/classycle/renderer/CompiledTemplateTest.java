@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright (c) 2003-2008, Franz-Josef Elmer, All rights reserved.
+ * Copyright (c) 2017, Sakib Hadžiavdić, All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * - Redistributions of source code must retain the above copyright notice,
+ *   this list of conditions and the following disclaimer.
+ * - Redistributions in binary form must reproduce the above copyright notice,
+ *   this list of conditions and the following disclaimer in the documentation
+ *   and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS
+ * "AS IS" AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED
+ * TO, THE IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR
+ * PURPOSE ARE DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR
+ * CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL,
+ * EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT LIMITED TO,
+ * PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA, OR PROFITS;
+ * OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF LIABILITY,
+ * WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING NEGLIGENCE OR
+ * OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ * EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package classycle.renderer;
+
+import static org.junit.Assert.assertEquals;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.text.MessageFormat;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Compares the output of {@link CompiledTemplate} with the output of <tt>MessageFormat</tt> for handpicked and random
+ * templates.
+ *
+ * @author Sakib Hadžiavdić
+ */
+public class CompiledTemplateTest {
+
+    private static final String[] VALUES = { "zero", "one's {1}", "", "3" };
+    private static final String[] TEMPLATES = { "", "text", "{0}", "a{0}b{1}c", "{1}{0}{1}", "{3}{2}{1}{0}",
+            "it''s {0}", "'{0}'", "'quoted {0}' {0}", "'", "a'b", "''", "'''{0}'''", "{9}", "{12345}", "x{4}y",
+            "{0,number}", "{0,choice,0#none|1#one}", "{ 0}", "{0 }", "{-1}", "{}", "{", "}", "a}b", "{0}}",
+            "<a href=\"{0}.html\">{1}</a>\n" };
+    private static final char[] ALPHABET = { 'a', ' ', '{', '}', '\'', '0', '1', '3', '7', ',' };
+
+    @Test
+    public void testHandpickedTemplates() {
+        for (final String template : TEMPLATES) {
+            for (int numberOfArguments = 0; numberOfArguments <= VALUES.length; numberOfArguments++) {
+                check(template, numberOfArguments);
+            }
+        }
+    }
+
+    @Test
+    public void testRandomTemplates() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 20000; i++) {
+            final char[] template = new char[random.nextInt(12)];
+            for (int j = 0; j < template.length; j++) {
+                template[j] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            check(new String(template), random.nextInt(VALUES.length + 1));
+        }
+    }
+
+    private static void check(String template, int numberOfArguments) {
+        final String[] values = new String[numberOfArguments];
+        System.arraycopy(VALUES, 0, values, 0, numberOfArguments);
+        String expected;
+        try {
+            expected = new MessageFormat(template).format(values);
+        } catch (final IllegalArgumentException e) {
+            expected = "IllegalArgumentException";
+        }
+        String actual;
+        try {
+            final CompiledTemplate compiledTemplate = new CompiledTemplate(template);
+            final StringWriter writer = new StringWriter();
+            final PrintWriter printWriter = new PrintWriter(writer);
+            compiledTemplate.render(printWriter, numberOfArguments, (index, w) -> w.print(values[index]));
+            printWriter.flush();
+            actual = writer.toString();
+        } catch (final IllegalArgumentException e) {
+            actual = "IllegalArgumentException";
+        }
+        assertEquals("template " + template + " with " + numberOfArguments + " arguments", expected, actual);
+    }
+}